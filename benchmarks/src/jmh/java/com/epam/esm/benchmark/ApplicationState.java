@@ -0,0 +1,58 @@
+package com.epam.esm.benchmark;
+
+import com.epam.esm.config.PersistanceConfig;
+import com.epam.esm.dao.UserStatisticsDao;
+import com.epam.esm.load.DatasetGenerator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+
+/**
+ * Benchmark state that starts application context with dev profile
+ * and fills in memory H2 database by {@link DatasetGenerator}
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+    @Param({"10000"})
+    public int certificates;
+    @Param({"100"})
+    public int tags;
+    @Param({"1000"})
+    public int users;
+    @Param({"10000"})
+    public int orders;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PersistanceConfig.class)
+                .profiles("dev")
+                .web(WebApplicationType.NONE)
+                .run();
+        DatasetGenerator.Settings settings = new DatasetGenerator.Settings()
+                .certificates(certificates)
+                .tags(tags)
+                .users(users)
+                .orders(orders);
+        new DatasetGenerator(context.getBean(DataSource.class), settings).generate();
+        context.getBean(UserStatisticsDao.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> beanClass) {
+        return context.getBean(beanClass);
+    }
+}
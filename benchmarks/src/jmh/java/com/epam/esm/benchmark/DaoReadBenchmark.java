@@ -0,0 +1,145 @@
+package com.epam.esm.benchmark;
+
+import com.epam.esm.builder.FindCertificatesQueryBuilder;
+import com.epam.esm.dao.CertificateDao;
+import com.epam.esm.dao.OrderDao;
+import com.epam.esm.dao.TagDao;
+import com.epam.esm.dao.UserDao;
+import com.epam.esm.model.Certificate;
+import com.epam.esm.model.Order;
+import com.epam.esm.model.Tag;
+import com.epam.esm.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures dao read methods against seeded in memory database.
+ * Each method runs in its own read only transaction
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DaoReadBenchmark {
+    private CertificateDao certificateDao;
+    private TagDao tagDao;
+    private UserDao userDao;
+    private OrderDao orderDao;
+    private int certificates;
+    private int tags;
+    private int users;
+    private long id;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState state) {
+        certificateDao = state.getBean(CertificateDao.class);
+        tagDao = state.getBean(TagDao.class);
+        userDao = state.getBean(UserDao.class);
+        orderDao = state.getBean(OrderDao.class);
+        certificates = state.certificates;
+        tags = state.tags;
+        users = state.users;
+    }
+
+    @Benchmark
+    public List<Certificate> certificateFindPage() {
+        return certificateDao.findPage(offset(certificates), 10);
+    }
+
+    @Benchmark
+    public List<Certificate> certificateFindPageAfter() {
+        return certificateDao.findPageAfter(offset(certificates), 10);
+    }
+
+    @Benchmark
+    public Optional<Certificate> certificateFindById() {
+        return certificateDao.findById(id(certificates));
+    }
+
+    @Benchmark
+    public List<Certificate> certificateFindWithParameters() {
+        LinkedHashMap<String, String> parameters = new LinkedHashMap<>();
+        parameters.put(FindCertificatesQueryBuilder.TAG_NAME_ATTRIBUTE_KEY, "tag" + id(tags));
+        parameters.put(FindCertificatesQueryBuilder.SORT_BY_NAME_PARAMETER_KEY, "asc");
+        return certificateDao.findWithParameters(parameters, 0, 10);
+    }
+
+    @Benchmark
+    public int certificateGetTotalElements() {
+        return certificateDao.getTotalElements();
+    }
+
+    @Benchmark
+    public List<Tag> tagFindPage() {
+        return tagDao.findPage(offset(tags), 10);
+    }
+
+    @Benchmark
+    public Optional<Tag> tagFindByName() {
+        return tagDao.findByName("tag" + id(tags));
+    }
+
+    @Benchmark
+    public List<Tag> tagFindCertificateTagsPage() {
+        return tagDao.findCertificateTagsPage(id(certificates), 0, 10);
+    }
+
+    @Benchmark
+    public List<User> userFindPage() {
+        return userDao.findPage(offset(users), 10);
+    }
+
+    @Benchmark
+    public Optional<User> userFindById() {
+        return userDao.findById(id(users));
+    }
+
+    @Benchmark
+    public User userFindRichestUser() {
+        return userDao.findRichestUser();
+    }
+
+    @Benchmark
+    public List<Tag> userFindPopularTags() {
+        return userDao.findUserPopularTags(id(users), 3);
+    }
+
+    @Benchmark
+    public List<Order> orderFindPage() {
+        return orderDao.findPage(offset(users), 10);
+    }
+
+    @Benchmark
+    public List<Order> orderFindUserOrdersPage() {
+        return orderDao.findUserOrdersPage(id(users), 0, 10);
+    }
+
+    @Benchmark
+    public int orderGetUserOrdersTotalElements() {
+        return orderDao.getUserOrdersTotalElements(id(users));
+    }
+
+    private long id(int amount) {
+        return id++ % amount + 1;
+    }
+
+    private int offset(int amount) {
+        return (int) (id++ % Math.max(1, amount - 10));
+    }
+}
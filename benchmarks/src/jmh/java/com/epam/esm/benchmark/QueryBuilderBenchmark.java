@@ -0,0 +1,66 @@
+package com.epam.esm.benchmark;
+
+import com.epam.esm.builder.FindCertificatesQueryBuilder;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building of certificates search query without its execution
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class QueryBuilderBenchmark {
+    private FindCertificatesQueryBuilder builder;
+    private Session session;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState state) {
+        builder = state.getBean(FindCertificatesQueryBuilder.class);
+        session = state.getBean(SessionFactory.class).openSession();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public Query<Object[]> buildSqlByNameAndTags() {
+        LinkedHashMap<String, String> parameters = new LinkedHashMap<>();
+        parameters.put(FindCertificatesQueryBuilder.PART_OF_NAME_PARAMETER_KEY, "certificate1");
+        parameters.put(FindCertificatesQueryBuilder.TAG_NAME_ATTRIBUTE_KEY, "tag1,tag2");
+        parameters.put(FindCertificatesQueryBuilder.SORT_BY_NAME_PARAMETER_KEY, "asc");
+        parameters.put("offset", "0");
+        parameters.put("limit", "10");
+        return builder.buildSql(parameters, session);
+    }
+
+    @Benchmark
+    public Query<Object[]> buildSqlSortedByDate() {
+        LinkedHashMap<String, String> parameters = new LinkedHashMap<>();
+        parameters.put(FindCertificatesQueryBuilder.SORT_BY_DATE_PARAMETER_KEY, "desc");
+        parameters.put("offset", "0");
+        parameters.put("limit", "10");
+        return builder.buildSql(parameters, session);
+    }
+}
@@ -0,0 +1,53 @@
+package com.epam.esm.benchmark;
+
+import com.epam.esm.builder.FindCertificatesQueryBuilder;
+import com.epam.esm.model.Certificate;
+import com.epam.esm.service.CertificateService;
+import com.epam.esm.service.InvalidPageException;
+import com.epam.esm.service.PageOutOfBoundsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures certificates search through service layer
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ServiceBenchmark {
+    private CertificateService certificateService;
+    private int tags;
+    private int tagId;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState state) {
+        certificateService = state.getBean(CertificateService.class);
+        tags = state.tags;
+    }
+
+    @Benchmark
+    public List<Certificate> findAllWithParameters() throws InvalidPageException, PageOutOfBoundsException {
+        tagId = tagId % tags + 1;
+        LinkedHashMap<String, String> parameters = new LinkedHashMap<>();
+        parameters.put(FindCertificatesQueryBuilder.TAG_NAME_ATTRIBUTE_KEY, "tag" + tagId);
+        parameters.put(FindCertificatesQueryBuilder.PART_OF_DESCRIPTION_PARAMETER_KEY, "certificate");
+        parameters.put(FindCertificatesQueryBuilder.SORT_BY_DATE_PARAMETER_KEY, "desc");
+        return certificateService.findAllWithParameters(parameters, 0, 10);
+    }
+}
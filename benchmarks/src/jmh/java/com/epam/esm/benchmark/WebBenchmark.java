@@ -0,0 +1,80 @@
+package com.epam.esm.benchmark;
+
+import com.epam.esm.model.Certificate;
+import com.epam.esm.page.RestCertificateLinksBuilder;
+import com.epam.esm.service.CertificateService;
+import com.epam.esm.service.InvalidPageException;
+import com.epam.esm.service.PageOutOfBoundsException;
+import com.epam.esm.service.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.EvoInflectorLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building of certificates page links and HAL serialization of
+ * certificates page. Links are built inside mock request so that links
+ * builder works outside of servlet container
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class WebBenchmark {
+    private RestCertificateLinksBuilder linksBuilder;
+    private List<Certificate> certificates;
+    private PagedModel<Certificate> page;
+    private ObjectMapper mapper;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState state) throws InvalidPageException, PageOutOfBoundsException, ResourceNotFoundException {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/certificates")));
+        linksBuilder = state.getBean(RestCertificateLinksBuilder.class);
+        certificates = state.getBean(CertificateService.class).findPage(0, 10);
+        page = linksBuilder.buildPageLinks(certificates, 0, 10);
+        mapper = new ObjectMapper();
+        mapper.registerModule(new Jackson2HalModule());
+        mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new EvoInflectorLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        mapper.findAndRegisterModules();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public PagedModel<Certificate> buildPageLinks() throws InvalidPageException, PageOutOfBoundsException, ResourceNotFoundException {
+        certificates.forEach(Certificate::removeLinks);
+        return linksBuilder.buildPageLinks(certificates, 0, 10);
+    }
+
+    @Benchmark
+    public byte[] serializePagedModel() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,254 @@
+package com.epam.esm.load;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Fills empty database with synthetic certificates, tags, certificate tags,
+ * users and orders. Data is skewed by Zipf distributions: few tags are attached
+ * to most certificates, few certificates get most orders and few users make
+ * most orders. Rows are inserted by jdbc batches and id generator is moved
+ * after generated ids. Users statistics are not generated and must be rebuilt
+ * by application with db.userStatistics.rebuildOnStartup property.
+ * May be run from command line with --url, --username and --password of
+ * H2 or MySQL database and with generator settings such as --certificates=1000000
+ */
+public class DatasetGenerator {
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_TAGS_PER_CERTIFICATE = 5;
+    private static final int ORDER_DAYS = 3 * 365;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Settings settings;
+
+    public DatasetGenerator(DataSource dataSource, Settings settings) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) {
+        Properties arguments = Settings.parseArguments(args);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                arguments.getProperty("url", "jdbc:h2:file:./build/restdb"),
+                arguments.getProperty("username", "sa"),
+                arguments.getProperty("password", ""));
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        Settings settings = Settings.from(arguments);
+        long start = System.nanoTime();
+        new DatasetGenerator(dataSource, settings).generate();
+        System.out.printf("Generated %s in %d ms%n", settings, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Generates all tables rows
+     */
+    public void generate() {
+        SplittableRandom random = new SplittableRandom(settings.seed);
+        generateTags();
+        generateCertificates(random);
+        generateCertificateTags(random);
+        generateUsers();
+        generateOrders(random);
+        moveIdGenerator("tag", settings.tags);
+        moveIdGenerator("gift_certificate", settings.certificates);
+        moveIdGenerator("user", settings.users);
+        moveIdGenerator("certificate_order", settings.orders);
+    }
+
+    private void generateTags() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= settings.tags; id++) {
+            rows.add(new Object[]{id, "tag" + id});
+            flushBatch("INSERT INTO tag (id, name) VALUES (?, ?)", rows, false);
+        }
+        flushBatch("INSERT INTO tag (id, name) VALUES (?, ?)", rows, true);
+    }
+
+    private void generateCertificates(SplittableRandom random) {
+        String sql = "INSERT INTO gift_certificate (id, name, description, price, duration, create_date, last_update_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> rows = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int id = 1; id <= settings.certificates; id++) {
+            Date createDate = Date.valueOf(today.minusDays(random.nextInt(ORDER_DAYS)));
+            rows.add(new Object[]{id, "certificate " + id, "description of certificate " + id,
+                    5 + random.nextInt(49500) / 100.0, 1 + random.nextInt(365), createDate, createDate});
+            flushBatch(sql, rows, false);
+        }
+        flushBatch(sql, rows, true);
+    }
+
+    private void generateCertificateTags(SplittableRandom random) {
+        String sql = "INSERT INTO certificate_tag (certificate_id, tag_id) VALUES (?, ?)";
+        ZipfSampler tagSampler = new ZipfSampler(settings.tags, settings.skew);
+        List<Object[]> rows = new ArrayList<>();
+        Set<Integer> certificateTags = new HashSet<>();
+        for (int certificateId = 1; certificateId <= settings.certificates; certificateId++) {
+            int tagsAmount = 1 + random.nextInt(Math.min(MAX_TAGS_PER_CERTIFICATE, settings.tags));
+            certificateTags.clear();
+            while (certificateTags.size() < tagsAmount) {
+                certificateTags.add(tagSampler.next(random));
+            }
+            for (int tagId : certificateTags) {
+                rows.add(new Object[]{certificateId, tagId});
+            }
+            flushBatch(sql, rows, false);
+        }
+        flushBatch(sql, rows, true);
+    }
+
+    private void generateUsers() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= settings.users; id++) {
+            rows.add(new Object[]{id, "user" + id, "surname" + id});
+            flushBatch("INSERT INTO user (id, name, surname) VALUES (?, ?, ?)", rows, false);
+        }
+        flushBatch("INSERT INTO user (id, name, surname) VALUES (?, ?, ?)", rows, true);
+    }
+
+    private void generateOrders(SplittableRandom random) {
+        String sql = "INSERT INTO certificate_order (id, cost, date, user_id, certificate_id) VALUES (?, ?, ?, ?, ?)";
+        ZipfSampler userSampler = new ZipfSampler(settings.users, settings.skew);
+        ZipfSampler certificateSampler = new ZipfSampler(settings.certificates, settings.skew);
+        List<Object[]> rows = new ArrayList<>();
+        LocalDate firstDate = LocalDate.now().minusDays(ORDER_DAYS);
+        for (int id = 1; id <= settings.orders; id++) {
+            long dayOffset = (long) id * ORDER_DAYS / settings.orders;
+            rows.add(new Object[]{id, 5 + random.nextInt(49500) / 100.0, Date.valueOf(firstDate.plusDays(dayOffset)),
+                    userSampler.next(random), certificateSampler.next(random)});
+            flushBatch(sql, rows, false);
+        }
+        flushBatch(sql, rows, true);
+    }
+
+    private void moveIdGenerator(String sequenceName, int lastId) {
+        jdbcTemplate.update("UPDATE id_generator SET next_val = ? WHERE sequence_name = ? AND next_val <= ?",
+                lastId + 1, sequenceName, lastId);
+    }
+
+    private void flushBatch(String sql, List<Object[]> rows, boolean force) {
+        if (!rows.isEmpty() && (force || rows.size() >= BATCH_SIZE)) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    /**
+     * Amounts of generated rows and distribution skew
+     */
+    public static class Settings {
+        private int tags = 1000;
+        private int certificates = 100_000;
+        private int users = 10_000;
+        private int orders = 1_000_000;
+        private double skew = 1.1;
+        private long seed = 42;
+
+        public Settings tags(int tags) {
+            this.tags = tags;
+            return this;
+        }
+
+        public Settings certificates(int certificates) {
+            this.certificates = certificates;
+            return this;
+        }
+
+        public Settings users(int users) {
+            this.users = users;
+            return this;
+        }
+
+        public Settings orders(int orders) {
+            this.orders = orders;
+            return this;
+        }
+
+        public Settings skew(double skew) {
+            this.skew = skew;
+            return this;
+        }
+
+        public Settings seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public int getTags() {
+            return tags;
+        }
+
+        public int getCertificates() {
+            return certificates;
+        }
+
+        public int getUsers() {
+            return users;
+        }
+
+        public int getOrders() {
+            return orders;
+        }
+
+        public double getSkew() {
+            return skew;
+        }
+
+        /**
+         * Makes settings from --name=value command line arguments.
+         * Arguments that are not passed keep default values
+         *
+         * @param arguments parsed command line arguments
+         * @return generator settings
+         */
+        public static Settings from(Properties arguments) {
+            Settings settings = new Settings();
+            settings.tags = Integer.parseInt(arguments.getProperty("tags", Integer.toString(settings.tags)));
+            settings.certificates = Integer.parseInt(arguments.getProperty("certificates", Integer.toString(settings.certificates)));
+            settings.users = Integer.parseInt(arguments.getProperty("users", Integer.toString(settings.users)));
+            settings.orders = Integer.parseInt(arguments.getProperty("orders", Integer.toString(settings.orders)));
+            settings.skew = Double.parseDouble(arguments.getProperty("skew", Double.toString(settings.skew)));
+            settings.seed = Long.parseLong(arguments.getProperty("seed", Long.toString(settings.seed)));
+            return settings;
+        }
+
+        /**
+         * Parses --name=value command line arguments
+         *
+         * @param args command line arguments
+         * @return arguments values by names
+         */
+        public static Properties parseArguments(String[] args) {
+            Properties arguments = new Properties();
+            for (String arg : args) {
+                if (arg.startsWith("--") && arg.contains("=")) {
+                    int separator = arg.indexOf('=');
+                    arguments.setProperty(arg.substring(2, separator), arg.substring(separator + 1));
+                }
+            }
+            return arguments;
+        }
+
+        @Override
+        public String toString() {
+            return "Settings{" +
+                    "tags=" + tags +
+                    ", certificates=" + certificates +
+                    ", users=" + users +
+                    ", orders=" + orders +
+                    ", skew=" + skew +
+                    ", seed=" + seed +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.epam.esm.load;
+
+import java.util.Arrays;
+
+/**
+ * Records requests latencies of one operation. Recorder is used by one
+ * thread and recorders of all threads are merged for report
+ */
+public class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int size;
+    private int errors;
+
+    /**
+     * Records request latency
+     *
+     * @param latencyNanos request latency in nanoseconds
+     * @param failed       true if request failed
+     */
+    public void record(long latencyNanos, boolean failed) {
+        if (size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2);
+        }
+        latencies[size++] = latencyNanos;
+        if (failed) {
+            errors++;
+        }
+    }
+
+    /**
+     * Adds latencies of passed recorder to this recorder
+     *
+     * @param other recorder of other thread
+     */
+    public void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.size; i++) {
+            record(other.latencies[i], false);
+        }
+        errors += other.errors;
+    }
+
+    public int getCount() {
+        return size;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns latency that is greater than passed part of recorded latencies
+     *
+     * @param percentile percentile from 0 to 100
+     * @return latency in milliseconds
+     */
+    public double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(size - 1, Math.ceil(percentile / 100 * size) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
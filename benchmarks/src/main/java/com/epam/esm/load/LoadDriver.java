@@ -0,0 +1,230 @@
+package com.epam.esm.load;
+
+import com.epam.esm.app.Application;
+import com.epam.esm.concurrent.ThreadFactories;
+import com.epam.esm.dao.UserStatisticsDao;
+import com.epam.esm.index.CertificateTextIndex;
+import com.epam.esm.index.TagIndex;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end load harness. Boots application with dev profile on random port,
+ * fills its database by {@link DatasetGenerator} and replays mixed workload of
+ * certificates and users requests by --threads threads during --durationSeconds
+ * seconds after --warmupSeconds seconds of warmup. Requested ids are skewed the
+ * same way as generated data. Throughput and latency percentiles of each
+ * operation are printed after run. Generator settings are passed the same
+ * way as to {@link DatasetGenerator}. Application may be run with each of
+ * --threadModes comma separated modes (platform, virtual) one after another,
+ * so request handling by platform and virtual threads is compared on the
+ * same dataset and workload. Virtual mode needs runtime with virtual threads
+ */
+public class LoadDriver {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String baseUrl;
+    private final DatasetGenerator.Settings settings;
+    private final int threads;
+    private final long warmupNanos;
+    private final long durationNanos;
+
+    public LoadDriver(String baseUrl, DatasetGenerator.Settings settings, int threads, long warmupSeconds, long durationSeconds) {
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        this.threads = threads;
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+    }
+
+    /**
+     * Operations of replayed workload with their part of all requests
+     */
+    enum Operation {
+        CERTIFICATES_PAGE(30), CERTIFICATES_SEARCH(20), CERTIFICATE(20), USER_ORDERS(15), USERS_PAGE(10), MAKE_ORDER(5);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Properties arguments = DatasetGenerator.Settings.parseArguments(args);
+        DatasetGenerator.Settings settings = DatasetGenerator.Settings.from(arguments);
+        for (String threadMode : arguments.getProperty("threadModes", "platform").split(",")) {
+            run(settings, arguments, threadMode.trim());
+        }
+    }
+
+    private static void run(DatasetGenerator.Settings settings, Properties arguments, String threadMode) throws Exception {
+        ConfigurableApplicationContext context = SpringApplication.run(Application.class,
+                "--spring.profiles.active=dev", "--server.port=0",
+                "--db.virtualThreads.enabled=" + "virtual".equals(threadMode));
+        try {
+            long start = System.nanoTime();
+            new DatasetGenerator(context.getBean(DataSource.class), settings).generate();
+            context.getBean(UserStatisticsDao.class).rebuild();
+            context.getBean(TagIndex.class).rebuild();
+            context.getBean(CertificateTextIndex.class).rebuild();
+            System.out.printf("Generated %s in %d ms%n", settings, (System.nanoTime() - start) / 1_000_000);
+            boolean virtual = context.getBean(ThreadFactories.class).isVirtual();
+            System.out.printf("Requests are handled by %s threads%n", virtual ? "virtual" : "platform");
+            String port = context.getEnvironment().getRequiredProperty("local.server.port");
+            LoadDriver driver = new LoadDriver("http://localhost:" + port, settings,
+                    Integer.parseInt(arguments.getProperty("threads", "16")),
+                    Long.parseLong(arguments.getProperty("warmupSeconds", "10")),
+                    Long.parseLong(arguments.getProperty("durationSeconds", "60")));
+            driver.report(driver.run());
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Runs workload and returns recorded latencies of each operation
+     *
+     * @return latencies of measured requests by operation
+     * @throws Exception if worker thread fails
+     */
+    public Map<Operation, LatencyRecorder> run() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long measureStart = System.nanoTime() + warmupNanos;
+        long measureEnd = measureStart + durationNanos;
+        List<Future<Map<Operation, LatencyRecorder>>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            long seed = i;
+            workers.add(executor.submit(() -> work(new SplittableRandom(seed), measureStart, measureEnd)));
+        }
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Future<Map<Operation, LatencyRecorder>> worker : workers) {
+            worker.get().forEach((operation, recorder) ->
+                    recorders.computeIfAbsent(operation, key -> new LatencyRecorder()).merge(recorder));
+        }
+        executor.shutdown();
+        return recorders;
+    }
+
+    /**
+     * Prints throughput and latency percentiles of each operation and of all operations
+     *
+     * @param recorders latencies of measured requests by operation
+     */
+    public void report(Map<Operation, LatencyRecorder> recorders) {
+        double seconds = durationNanos / 1_000_000_000.0;
+        LatencyRecorder total = new LatencyRecorder();
+        System.out.printf("%-20s %10s %8s %10s %10s %10s %10s %10s%n", "operation", "requests", "errors", "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms");
+        for (Map.Entry<Operation, LatencyRecorder> entry : recorders.entrySet()) {
+            print(entry.getKey().name(), entry.getValue(), seconds);
+            total.merge(entry.getValue());
+        }
+        print("TOTAL", total, seconds);
+    }
+
+    private Map<Operation, LatencyRecorder> work(SplittableRandom random, long measureStart, long measureEnd) {
+        ZipfSampler certificateSampler = new ZipfSampler(settings.getCertificates(), settings.getSkew());
+        ZipfSampler userSampler = new ZipfSampler(settings.getUsers(), settings.getSkew());
+        ZipfSampler tagSampler = new ZipfSampler(settings.getTags(), settings.getSkew());
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        long now;
+        while ((now = System.nanoTime()) < measureEnd) {
+            Operation operation = nextOperation(random);
+            boolean failed;
+            long start = System.nanoTime();
+            try {
+                failed = execute(operation, random, certificateSampler, userSampler, tagSampler) >= 500;
+            } catch (IOException e) {
+                failed = true;
+            }
+            long latency = System.nanoTime() - start;
+            if (now >= measureStart) {
+                recorders.computeIfAbsent(operation, key -> new LatencyRecorder()).record(latency, failed);
+            }
+        }
+        return recorders;
+    }
+
+    private Operation nextOperation(SplittableRandom random) {
+        int value = random.nextInt(100);
+        for (Operation operation : Operation.values()) {
+            value -= operation.weight;
+            if (value < 0) {
+                return operation;
+            }
+        }
+        return Operation.CERTIFICATES_PAGE;
+    }
+
+    private int execute(Operation operation, SplittableRandom random, ZipfSampler certificateSampler,
+                        ZipfSampler userSampler, ZipfSampler tagSampler) throws IOException {
+        switch (operation) {
+            case CERTIFICATES_PAGE:
+                return get("/certificates?offset=" + random.nextInt(Math.max(1, settings.getCertificates() - 10)) + "&limit=10");
+            case CERTIFICATES_SEARCH:
+                return get("/certificates?tagName=tag" + tagSampler.next(random) + "&partOfName=certificate&sortByDate=desc&limit=10");
+            case CERTIFICATE:
+                return get("/certificates/" + certificateSampler.next(random));
+            case USER_ORDERS:
+                return get("/users/" + userSampler.next(random) + "/orders?limit=10");
+            case USERS_PAGE:
+                return get("/users?offset=" + random.nextInt(Math.max(1, settings.getUsers() - 10)) + "&limit=10");
+            default:
+                return post("/certificates/" + certificateSampler.next(random) + "/orders",
+                        "{\"id\":" + userSampler.next(random) + "}");
+        }
+    }
+
+    private int get(String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        return readResponse(connection);
+    }
+
+    private int post(String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return readResponse(connection);
+    }
+
+    private int readResponse(HttpURLConnection connection) throws IOException {
+        int status = connection.getResponseCode();
+        try (InputStream input = status >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+            if (input != null) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                while (input.read(buffer) >= 0) {
+                    // response body is read to reuse keep alive connection
+                }
+            }
+        }
+        return status;
+    }
+
+    private void print(String operation, LatencyRecorder recorder, double seconds) {
+        System.out.printf("%-20s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", operation, recorder.getCount(), recorder.getErrors(),
+                recorder.getCount() / seconds, recorder.percentileMillis(50), recorder.percentileMillis(90),
+                recorder.percentileMillis(99), recorder.percentileMillis(99.9));
+    }
+}
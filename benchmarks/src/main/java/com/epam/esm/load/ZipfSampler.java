@@ -0,0 +1,34 @@
+package com.epam.esm.load;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples ranks from 1 to n by Zipf distribution. Rank k is sampled with
+ * probability proportional to 1 / k^exponent so few first ranks are sampled
+ * most frequently. Exponent 0 gives uniform distribution
+ */
+public class ZipfSampler {
+    private final double[] cumulativeWeights;
+
+    public ZipfSampler(int n, double exponent) {
+        cumulativeWeights = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulativeWeights[rank - 1] = sum;
+        }
+    }
+
+    /**
+     * Samples next rank
+     *
+     * @param random source of randomness
+     * @return rank from 1 to n
+     */
+    public int next(SplittableRandom random) {
+        double value = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, value);
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+}
@@ -0,0 +1,150 @@
+package com.epam.esm.archive;
+
+import com.epam.esm.cache.CountCache;
+import com.epam.esm.concurrent.ThreadFactories;
+import com.epam.esm.model.Order;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Moves cold orders from certificate_order table to certificate_order_archive
+ * table. Orders are cold when they were made more than db.orderArchive.retentionDays
+ * days ago. Orders are moved by batches of db.orderArchive.batchSize orders and each
+ * batch is moved in its own transaction so archiving does not hold long locks.
+ * Archive table has only primary key and user index so it stays compact while
+ * recent orders table holds only recent orders and its indexes. Archiver is optional,
+ * is enabled by db.orderArchive.enabled property and runs every
+ * db.orderArchive.intervalMinutes minutes.
+ */
+@Component
+public class OrderArchiver {
+    private static final Logger logger = LogManager.getLogger(OrderArchiver.class);
+    private static final String ORDER_TABLE = "certificate_order";
+    private static final String ARCHIVE_TABLE = "certificate_order_archive";
+
+    private final SessionFactory sessionFactory;
+    private final CountCache countCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadFactories threadFactories;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int batchSize;
+    private final long intervalMinutes;
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public OrderArchiver(SessionFactory sessionFactory, CountCache countCache, PlatformTransactionManager transactionManager,
+                         ThreadFactories threadFactories,
+                         @Value("${db.orderArchive.enabled}") boolean enabled,
+                         @Value("${db.orderArchive.retentionDays}") int retentionDays,
+                         @Value("${db.orderArchive.batchSize}") int batchSize,
+                         @Value("${db.orderArchive.intervalMinutes}") long intervalMinutes) {
+        this.sessionFactory = sessionFactory;
+        this.countCache = countCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.threadFactories = threadFactories;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.intervalMinutes = intervalMinutes;
+    }
+
+    /**
+     * Schedules archiving if archiver is enabled
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(threadFactories.newThreadFactory("order-archiver"));
+        executor.scheduleWithFixedDelay(this::archiveSafely, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops scheduled archiving
+     */
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Moves orders that were made before retention period to archive
+     *
+     * @return amount of archived orders
+     */
+    public int archive() {
+        return archiveBefore(LocalDate.now().minusDays(retentionDays));
+    }
+
+    /**
+     * Moves orders that were made before passed date to archive
+     *
+     * @param date date before which orders are archived
+     * @return amount of archived orders
+     */
+    public int archiveBefore(LocalDate date) {
+        int archivedOrders = 0;
+        int movedOrders;
+        do {
+            Integer moved = transactionTemplate.execute(status -> moveBatch(date));
+            movedOrders = moved == null ? 0 : moved;
+            archivedOrders += movedOrders;
+        } while (movedOrders == batchSize);
+        return archivedOrders;
+    }
+
+    private int moveBatch(LocalDate date) {
+        Session session = sessionFactory.getCurrentSession();
+        NativeQuery<?> selectIds = session.createNativeQuery("SELECT id FROM certificate_order WHERE date < ?1 ORDER BY id");
+        selectIds.addSynchronizedQuerySpace(ORDER_TABLE);
+        selectIds.setParameter(1, date);
+        selectIds.setMaxResults(batchSize);
+        List<Long> ids = selectIds.list().stream()
+                .map(id -> ((Number) id).longValue())
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        NativeQuery<?> copy = session.createNativeQuery("INSERT INTO certificate_order_archive (id, cost, date, user_id, certificate_id) " +
+                "SELECT id, cost, date, user_id, certificate_id FROM certificate_order WHERE id IN (?1)");
+        copy.addSynchronizedQuerySpace(ARCHIVE_TABLE);
+        copy.setParameterList(1, ids);
+        copy.executeUpdate();
+        NativeQuery<?> delete = session.createNativeQuery("DELETE FROM certificate_order WHERE id IN (?1)");
+        delete.addSynchronizedQuerySpace(ORDER_TABLE);
+        delete.setParameterList(1, ids);
+        delete.executeUpdate();
+        countCache.invalidate(Order.class.getSimpleName());
+        return ids.size();
+    }
+
+    private void archiveSafely() {
+        try {
+            int archivedOrders = archive();
+            logger.info(String.format("Orders were archived %d", archivedOrders));
+        } catch (RuntimeException e) {
+            logger.error("Orders archiving failed", e);
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package com.epam.esm.builder;
 
 import com.epam.esm.model.Certificate;
-import com.epam.esm.model.Tag;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.hibernate.Session;
 import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Join;
-import javax.persistence.criteria.JoinType;
-import javax.persistence.criteria.Order;
-import javax.persistence.criteria.Predicate;
-import javax.persistence.criteria.Root;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 
 /**
@@ -28,10 +37,22 @@ import java.util.Set;
  * For example if passed parameters contains parameters to find certificate
  * by part of name and order by name and date, then all sql query to find all
  * certificates that contains passed parameter value as part of name
- * with order by name and then by name sql query will be built
+ * with order by name and then by name sql query will be built.
+ * Tag names are compared in lower case, so certificates are found by
+ * tag names ignoring case like they are found by tag index.
+ * Built HQL queries are cached by parameters shape that is defined by present
+ * filters, amount of tag names and sort keys with directions. Filter values
+ * are bound as query parameters so queries of the same shape have the same
+ * HQL and hibernate reuses its compiled query plan. Queries are held by Caffeine
+ * cache that is bounded by db.queryCache.maxSize entries, so only least valuable
+ * shapes are evicted when cache is full. Cache hits, misses and hit rate are
+ * taken from cache statistics and are registered as JMX bean under db.queryCache.jmxName like
+ * connection pool and hibernate statistics
  */
 @Component
-public class FindCertificatesQueryBuilder {
+public class FindCertificatesQueryBuilder implements FindCertificatesQueryBuilderMBean {
+    private static final Logger logger = LogManager.getLogger(FindCertificatesQueryBuilder.class);
+
 
     public static final String JOIN_ATTRIBUTE_NAME = "tags";
     public static final String SORT_BY_DATE_PARAMETER_KEY = "sortByDate";
@@ -48,103 +69,262 @@ public class FindCertificatesQueryBuilder {
     public static final String DESCRIPTION_ATTRIBUTE = "description";
     public static final String LIKE_PATTERN = "%%%s%%";
     public static final String ID_ATTRIBUTE = "id";
+    public static final String CERTIFICATE_COLUMNS = "c.id, c.name, c.description, c.price, c.duration, c.createDate, c.lastUpdateDate";
+    public static final String PROJECTION_SELECT = "select " + CERTIFICATE_COLUMNS;
+    public static final String ENTITY_SELECT = "select c";
+
+    private final Cache<String, String> queries;
+    private final String jmxName;
+    private ObjectName registeredName;
+
+    public FindCertificatesQueryBuilder(int maxSize) {
+        this(maxSize, null);
+    }
+
+    @Autowired
+    public FindCertificatesQueryBuilder(@Value("${db.queryCache.maxSize}") int maxSize,
+                                        @Value("${db.queryCache.jmxName}") String jmxName) {
+        this.queries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .executor(Runnable::run)
+                .build();
+        this.jmxName = jmxName;
+    }
+
+    /**
+     * Registers query cache statistics as JMX bean if JMX name is set.
+     * Failed registration is logged and does not stop application
+     */
+    @PostConstruct
+    public void registerMBean() {
+        if (jmxName == null || jmxName.isEmpty()) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(jmxName);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            registeredName = name;
+        } catch (JMException e) {
+            logger.warn("Query cache statistics were not registered as JMX bean " + jmxName, e);
+        }
+    }
+
+    /**
+     * Unregisters query cache statistics JMX bean
+     */
+    @PreDestroy
+    public void unregisterMBean() {
+        if (registeredName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(registeredName);
+        } catch (JMException e) {
+            logger.warn("Query cache statistics JMX bean was not unregistered " + registeredName, e);
+        }
+        registeredName = null;
+    }
 
     /**
      * Build sql find all query that by passed parameters. argument map contains
      * keys that define parameter then appropriate sql query will be built.
-     * If parameters map contains keys for order then sql will be build with order statement
+     * If parameters map contains keys for order then sql will be build with order statement.
+     * Query selects certificate columns in order of {@link #PROJECTION_SELECT} instead
+     * of certificate entities so found certificates are not attached to session
      *
-     * @param findParameters  parameters map that define find certificate parameters
-     * @param criteriaBuilder builder to build HCQL query
+     * @param findParameters parameters map that define find certificate parameters
+     * @param session        session to build query
      * @return built sql find all certificates statement that defined by passed parameters map
      */
-    public Query<Certificate> buildSql(LinkedHashMap<String, String> findParameters, Session session) {
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-        CriteriaQuery<Certificate> criteriaQuery = criteriaBuilder.createQuery(Certificate.class);
-        Root<Certificate> root = criteriaQuery.from(Certificate.class);
-        Join<Certificate, Tag> join = root.join(JOIN_ATTRIBUTE_NAME, JoinType.LEFT);
-        List<Predicate> predicates = new ArrayList<>();
-        List<Order> orders = new ArrayList<>();
-        buildPartOfNameCriteria(findParameters, criteriaBuilder, root, predicates);
-        buildPartOfDescriptionCriteria(findParameters, criteriaBuilder, root, predicates);
-        buildTagNamesCriteria(findParameters, criteriaBuilder, join, predicates);
-        Set<Map.Entry<String, String>> entries = findParameters.entrySet();
-        for (Map.Entry<String, String> entry : entries) {
-            String key = entry.getKey();
-            String value = entry.getValue();
-            buildSortByNameOrder(criteriaBuilder, root, orders, key, value);
-            buildSortByDateOrder(criteriaBuilder, root, orders, key, value);
-        }
-        String tagNames = findParameters.get(TAG_NAME_ATTRIBUTE_KEY);
-        criteriaQuery.select(root).where(predicates.toArray(new Predicate[]{})).groupBy(root.get(ID_ATTRIBUTE));
-        if (tagNames != null) {
-            String[] names = tagNames.split(COMMA);
-            criteriaQuery.having(criteriaBuilder.equal(criteriaBuilder.count(root.get("id")), names.length));
-        }
-        criteriaQuery.orderBy(orders);
+    public Query<Object[]> buildSql(LinkedHashMap<String, String> findParameters, Session session) {
+        return buildSql(findParameters, session, null);
+    }
+
+    /**
+     * Build sql find all query by passed parameters for certificates that have passed ids.
+     * Used when certificates that match passed filters are already found by indexes
+     * so tag names criteria is replaced with certificate ids restriction and tags
+     * are not joined. If passed ids are null then tag names criteria is built.
+     * Query selects certificate columns in order of {@link #PROJECTION_SELECT}
+     *
+     * @param findParameters parameters map that define find certificate parameters
+     * @param session        session to build query
+     * @param certificateIds ids of certificates that have passed tags or null
+     * @return built sql find all certificates statement that defined by passed parameters map
+     */
+    public Query<Object[]> buildSql(LinkedHashMap<String, String> findParameters, Session session, Collection<Long> certificateIds) {
         String offsetValue = findParameters.remove("offset");
         int offset = Integer.parseInt(offsetValue);
         String limitValue = findParameters.remove("limit");
         int limit = Integer.parseInt(limitValue);
-        Query<Certificate> query = session.createQuery(criteriaQuery);
+        Query<Object[]> query = createQuery(PROJECTION_SELECT, findParameters, session, certificateIds, Object[].class);
         query.setFirstResult(offset);
         query.setMaxResults(limit);
         return query;
     }
 
-    private void buildSortByDateOrder(CriteriaBuilder criteriaBuilder, Root<Certificate> root, List<Order> orders, String key, String value) {
-        if (key.equals(SORT_BY_DATE_PARAMETER_KEY)) {
-            if (value.equals(ASCENDING_ORDER_VALUE)) {
-                Order sortByDateAsc = criteriaBuilder.asc(root.get(CREATE_DATE_ATTRIBUTE));
-                orders.add(sortByDateAsc);
-            } else if (value.equals(DESCENDING_ORDER_VALUE)) {
-                Order sortByDateDesc = criteriaBuilder.desc(root.get(CREATE_DATE_ATTRIBUTE));
-                orders.add(sortByDateDesc);
-            }
-        }
+    /**
+     * Build sql find all query by passed parameters without page restriction.
+     * Used to read all matched certificates by cursor. Certificates that are not
+     * sorted by passed parameters are ordered by id so rows order is stable
+     *
+     * @param findParameters parameters map that define find certificate parameters
+     * @param session        session to build query
+     * @return built sql find all certificates statement that defined by passed parameters map
+     */
+    public Query<Certificate> buildExportSql(LinkedHashMap<String, String> findParameters, Session session) {
+        return createQuery(ENTITY_SELECT, findParameters, session, null, Certificate.class);
+    }
+
+    /**
+     * Checks if passed parameters contain parameters to sort certificates.
+     *
+     * @param findParameters parameters map that define find certificate parameters
+     * @return true if certificates are sorted by name or date
+     */
+    public boolean hasSortParameters(Map<String, String> findParameters) {
+        return findParameters.containsKey(SORT_BY_NAME_PARAMETER_KEY)
+                || findParameters.containsKey(SORT_BY_DATE_PARAMETER_KEY);
+    }
+
+    /**
+     * Returns amount of built queries whose HQL was taken from cache
+     *
+     * @return amount of cache hits
+     */
+    @Override
+    public long getHits() {
+        return queries.stats().hitCount();
+    }
+
+    /**
+     * Returns amount of built queries whose HQL was built because
+     * query of the same shape was not built before
+     *
+     * @return amount of cache misses
+     */
+    @Override
+    public long getMisses() {
+        return queries.stats().missCount();
+    }
+
+    /**
+     * Returns part of built queries whose HQL was taken from cache
+     *
+     * @return cache hit rate from 0 to 1 or 0 if no query was built
+     */
+    @Override
+    public double getHitRate() {
+        CacheStats stats = queries.stats();
+        return stats.requestCount() == 0 ? 0 : stats.hitRate();
     }
 
-    private void buildSortByNameOrder(CriteriaBuilder criteriaBuilder, Root<Certificate> root, List<Order> orders, String key, String value) {
-        if (key.equals(SORT_BY_NAME_PARAMETER_KEY)) {
-            if (value.equals(ASCENDING_ORDER_VALUE)) {
-                Order sortByNameAsc = criteriaBuilder.asc(root.get(NAME_ATTRIBUTE));
-                orders.add(sortByNameAsc);
-            } else if (value.equals(DESCENDING_ORDER_VALUE)) {
-                Order sortByNameDesc = criteriaBuilder.desc(root.get(NAME_ATTRIBUTE));
-                orders.add(sortByNameDesc);
+    private <R> Query<R> createQuery(String select, LinkedHashMap<String, String> findParameters, Session session, Collection<Long> certificateIds, Class<R> resultClass) {
+        String partOfName = findParameters.get(PART_OF_NAME_PARAMETER_KEY);
+        String partOfDescription = findParameters.get(PART_OF_DESCRIPTION_PARAMETER_KEY);
+        String tagNames = findParameters.get(TAG_NAME_ATTRIBUTE_KEY);
+        List<String> names = tagNames != null ? toLowerCaseNames(tagNames) : null;
+        StringBuilder shape = new StringBuilder(select);
+        List<Object> values = new ArrayList<>();
+        if (!isNullOrEmptyParameter(partOfName)) {
+            shape.append("|name");
+            values.add(String.format(LIKE_PATTERN, partOfName));
+        }
+        if (!isNullOrEmptyParameter(partOfDescription)) {
+            shape.append("|description");
+            values.add(String.format(LIKE_PATTERN, partOfDescription));
+        }
+        if (certificateIds != null) {
+            shape.append("|ids");
+            values.add(certificateIds);
+        } else if (names != null) {
+            shape.append("|tags=").append(isNullOrEmptyParameter(tagNames) ? 0 : names.size());
+            if (!isNullOrEmptyParameter(tagNames)) {
+                values.addAll(names);
             }
+            values.add((long) names.size());
         }
+        for (Map.Entry<String, String> entry : findParameters.entrySet()) {
+            if (isSortParameter(entry.getKey(), entry.getValue())) {
+                shape.append('|').append(entry.getKey()).append('=').append(entry.getValue());
+            }
+        }
+        int tagNamesAmount = names != null ? names.size() : 0;
+        String hql = findHql(shape.toString(), () -> buildHql(select, findParameters, tagNamesAmount, certificateIds != null));
+        Query<R> query = session.createQuery(hql, resultClass);
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value instanceof Collection) {
+                query.setParameterList(i + 1, (Collection<?>) value);
+            } else {
+                query.setParameter(i + 1, value);
+            }
+        }
+        return query;
+    }
+
+    private String findHql(String shape, Supplier<String> hqlBuilder) {
+        return queries.get(shape, key -> hqlBuilder.get());
     }
 
-    private void buildTagNamesCriteria(LinkedHashMap<String, String> findParameters, CriteriaBuilder criteriaBuilder, Join<Certificate, Tag> join, List<Predicate> predicates) {
+    private String buildHql(String select, LinkedHashMap<String, String> findParameters, int tagNamesAmount, boolean filteredByIds) {
         String tagNames = findParameters.get(TAG_NAME_ATTRIBUTE_KEY);
-        if (isNullOrEmptyParameter(tagNames)) {
-            return;
+        List<String> predicates = new ArrayList<>();
+        List<String> orders = new ArrayList<>();
+        int parameter = 1;
+        if (!isNullOrEmptyParameter(findParameters.get(PART_OF_NAME_PARAMETER_KEY))) {
+            predicates.add(String.format("c.%s like ?%d", NAME_ATTRIBUTE, parameter++));
+        }
+        if (!isNullOrEmptyParameter(findParameters.get(PART_OF_DESCRIPTION_PARAMETER_KEY))) {
+            predicates.add(String.format("c.%s like ?%d", DESCRIPTION_ATTRIBUTE, parameter++));
         }
-        String[] names = tagNames.split(COMMA);
-        CriteriaBuilder.In<Object> inBuilder = criteriaBuilder.in(join.get(TAG_NAME_ATTRIBUTE));
-        for (String name : names) {
-            inBuilder.value(name);
+        if (filteredByIds) {
+            predicates.add(String.format("c.%s in (?%d)", ID_ATTRIBUTE, parameter++));
+        } else if (!isNullOrEmptyParameter(tagNames)) {
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < tagNamesAmount; i++) {
+                names.add("?" + parameter++);
+            }
+            predicates.add(String.format("lower(t.%s) in (%s)", TAG_NAME_ATTRIBUTE, String.join(", ", names)));
+        }
+        for (Map.Entry<String, String> entry : findParameters.entrySet()) {
+            String key = entry.getKey();
+            String value = entry.getValue();
+            if (isSortParameter(key, value)) {
+                String attribute = key.equals(SORT_BY_NAME_PARAMETER_KEY) ? NAME_ATTRIBUTE : CREATE_DATE_ATTRIBUTE;
+                orders.add(String.format("c.%s %s", attribute, value));
+            }
         }
-        predicates.add(inBuilder);
+        orders.add(String.format("c.%s asc", ID_ATTRIBUTE));
+        StringBuilder hql = new StringBuilder(select).append(" from Certificate c");
+        if (!filteredByIds) {
+            hql.append(" left join c.").append(JOIN_ATTRIBUTE_NAME).append(" t");
+        }
+        if (!predicates.isEmpty()) {
+            hql.append(" where ").append(String.join(" and ", predicates));
+        }
+        if (!filteredByIds) {
+            hql.append(" group by c.").append(ID_ATTRIBUTE);
+            if (tagNames != null) {
+                hql.append(" having count(c.").append(ID_ATTRIBUTE).append(") = ?").append(parameter);
+            }
+        }
+        hql.append(" order by ").append(String.join(", ", orders));
+        return hql.toString();
     }
 
-    private void buildPartOfDescriptionCriteria(LinkedHashMap<String, String> findParameters, CriteriaBuilder criteriaBuilder, Root<Certificate> root, List<Predicate> predicates) {
-        String partOfDescription = findParameters.get(PART_OF_DESCRIPTION_PARAMETER_KEY);
-        if (isNullOrEmptyParameter(partOfDescription)) {
-            return;
-        }
-        Predicate partOfDescriptionPredicate = criteriaBuilder.like(root.get(DESCRIPTION_ATTRIBUTE), String.format(LIKE_PATTERN, partOfDescription));
-        predicates.add(partOfDescriptionPredicate);
+    private boolean isSortParameter(String key, String value) {
+        return (key.equals(SORT_BY_NAME_PARAMETER_KEY) || key.equals(SORT_BY_DATE_PARAMETER_KEY))
+                && (value.equals(ASCENDING_ORDER_VALUE) || value.equals(DESCENDING_ORDER_VALUE));
     }
 
-    private void buildPartOfNameCriteria(LinkedHashMap<String, String> findParameters, CriteriaBuilder criteriaBuilder, Root<Certificate> root, List<Predicate> predicates) {
-        String partOfName = findParameters.get(PART_OF_NAME_PARAMETER_KEY);
-        if (isNullOrEmptyParameter(partOfName)) {
-            return;
-        }
-        Predicate partOfNamePredicate = criteriaBuilder.like(root.get(FindCertificatesQueryBuilder.NAME_ATTRIBUTE), String.format(LIKE_PATTERN, partOfName));
-        predicates.add(partOfNamePredicate);
+    private List<String> toLowerCaseNames(String tagNames) {
+        return Arrays.stream(tagNames.split(COMMA))
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .distinct()
+                .collect(Collectors.toList());
     }
 
     private boolean isNullOrEmptyParameter(String parameter) {
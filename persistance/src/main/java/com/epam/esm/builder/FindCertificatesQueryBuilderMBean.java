@@ -0,0 +1,30 @@
+package com.epam.esm.builder;
+
+/**
+ * JMX interface of {@link FindCertificatesQueryBuilder} that exposes
+ * statistics of built HQL queries cache
+ */
+public interface FindCertificatesQueryBuilderMBean {
+
+    /**
+     * Returns amount of built queries whose HQL was taken from cache
+     *
+     * @return amount of cache hits
+     */
+    long getHits();
+
+    /**
+     * Returns amount of built queries whose HQL was built because
+     * query of the same shape was not built before
+     *
+     * @return amount of cache misses
+     */
+    long getMisses();
+
+    /**
+     * Returns part of built queries whose HQL was taken from cache
+     *
+     * @return cache hit rate from 0 to 1 or 0 if no query was built
+     */
+    double getHitRate();
+}
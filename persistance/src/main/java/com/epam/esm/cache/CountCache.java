@@ -0,0 +1,86 @@
+package com.epam.esm.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Cache of entities amounts. Counting is one of most expensive queries so
+ * counted amount is saved by entity name and filter and reused until entity
+ * is changed or until amount time to live is expired. Entity amounts are
+ * invalidated when entity is saved, updated or deleted. Invalidation is also
+ * repeated after transaction completion so that amounts counted by concurrent
+ * transactions before changes were committed or rolled back are not kept.
+ * Amounts are held by Caffeine cache that is bounded by db.countCache.maxSize
+ * entries, so only least valuable amounts are evicted when cache is full.
+ */
+@Component
+public class CountCache {
+    private final Cache<String, Integer> counts;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CountCache(@Value("${db.countCache.timeToLiveMillis}") long timeToLiveMillis,
+                      @Value("${db.countCache.maxSize}") int maxSize) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(timeToLiveMillis, TimeUnit.MILLISECONDS)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Returns cached amount of entities that match passed filter.
+     * If there is no cached amount or amount is expired then amount is
+     * counted by passed counter and saved
+     *
+     * @param entityName name of counted entity
+     * @param filter     filter that counted entities match
+     * @param counter    counts entities amount
+     * @return entities amount
+     */
+    public int get(String entityName, String filter, IntSupplier counter) {
+        String key = entityName + ":" + filter;
+        Integer count = counts.getIfPresent(key);
+        if (count != null) {
+            return count;
+        }
+        long currentGeneration = generation.get();
+        int amount = counter.getAsInt();
+        if (generation.get() == currentGeneration) {
+            counts.put(key, amount);
+        }
+        return amount;
+    }
+
+    /**
+     * Invalidates all cached amounts of passed entities
+     *
+     * @param entityNames names of entities whose amounts are changed
+     */
+    public void invalidate(String... entityNames) {
+        evict(entityNames);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(entityNames);
+                }
+            });
+        }
+    }
+
+    private void evict(String... entityNames) {
+        generation.incrementAndGet();
+        for (String entityName : entityNames) {
+            String prefix = entityName + ":";
+            counts.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.epam.esm.concurrent;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates threads of background workers and request executors. If
+ * db.virtualThreads.enabled property is set and runtime supports virtual
+ * threads then virtual threads are created, so threads that block on jdbc
+ * calls release their carrier threads. Otherwise daemon platform threads
+ * are created. Virtual threads are created by reflection because
+ * application is compiled for runtimes that do not have them.
+ */
+@Component
+public class ThreadFactories {
+    private static final Logger logger = LogManager.getLogger(ThreadFactories.class);
+
+    private final boolean virtual;
+
+    public ThreadFactories(@Value("${db.virtualThreads.enabled}") boolean virtualThreadsEnabled) {
+        boolean supported = virtualThreadsEnabled && isVirtualThreadsSupported();
+        if (virtualThreadsEnabled && !supported) {
+            logger.warn("Virtual threads are not supported by " + System.getProperty("java.version") + " runtime, platform threads are used");
+        }
+        this.virtual = supported;
+    }
+
+    /**
+     * Checks if created threads are virtual
+     *
+     * @return true if virtual threads are created
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Makes factory of threads that have passed name
+     *
+     * @param name name of created threads
+     * @return virtual threads factory or daemon platform threads factory
+     */
+    public ThreadFactory newThreadFactory(String name) {
+        if (virtual) {
+            return virtualThreadFactory(name);
+        }
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Makes executor that starts new virtual thread for each task.
+     * Used instead of bounded pools of platform threads because
+     * virtual threads are cheap to create and block
+     *
+     * @param name name of created threads
+     * @return executor that starts virtual thread for each task
+     * @throws IllegalStateException if virtual threads are not enabled
+     */
+    public ExecutorService newThreadPerTaskExecutor(String name) {
+        if (!virtual) {
+            throw new IllegalStateException("Virtual threads are not enabled");
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, virtualThreadFactory(name));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Thread per task executor cannot be created", e);
+        }
+    }
+
+    private static boolean isVirtualThreadsSupported() {
+        try {
+            virtualThreadFactory("virtual-threads-check");
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class).invoke(builder, name);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (InvocationTargetException | ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Virtual threads cannot be created", e);
+        }
+    }
+}
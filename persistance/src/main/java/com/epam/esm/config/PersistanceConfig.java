@@ -1,21 +1,26 @@
 package com.epam.esm.config;
 
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.flywaydb.core.Flyway;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
-import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
-import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.hibernate5.HibernateTransactionManager;
 import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
 import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
+import java.util.Properties;
 
 @Configuration
 @ComponentScan("com.epam.esm")
@@ -25,38 +30,171 @@ public class PersistanceConfig {
     @Autowired
     private Environment env;
 
+    /**
+     * Makes production data source that routes read only transactions to replica
+     * database and other transactions to primary database. Routing data source is
+     * wrapped by lazy connection proxy so target connection is taken when transaction
+     * read only flag is already set.
+     *
+     * @return routing production data source
+     */
     @Bean
+    @Primary
     @Profile("prod")
     public DataSource getDataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(env.getRequiredProperty("spring.datasource.driver-class-name"));
-        dataSource.setUrl(env.getRequiredProperty("spring.datasource.url"));
-        dataSource.setUsername(env.getRequiredProperty("spring.datasource.username"));
-        dataSource.setPassword(env.getRequiredProperty("spring.datasource.password"));
-        return dataSource;
+        return routingDataSource(primaryDataSource(), replicaDataSource());
+    }
+
+    /**
+     * Wraps routing between passed primary and replica data sources
+     * by lazy connection proxy
+     *
+     * @param primary primary data source
+     * @param replica replica data source
+     * @return lazy routing data source
+     */
+    static DataSource routingDataSource(DataSource primary, DataSource replica) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica));
+    }
+
+    /**
+     * Makes pooled data source for primary production database. Pool sizes, connection validation,
+     * prepared statements caching and abandoned connections detection are configured
+     * by db.properties. Data source and its connection pool are registered as JMX beans
+     * under db.jmxName so that active and idle connections amount and borrow wait time
+     * can be monitored.
+     *
+     * @return pooled primary production data source
+     */
+    @Bean(destroyMethod = "close")
+    @Profile("prod")
+    public DataSource primaryDataSource() {
+        return createPooledDataSource("spring.datasource", env.getRequiredProperty("db.jmxName"));
+    }
+
+    /**
+     * Makes pooled data source for replica production database. Pool is configured
+     * like primary pool and is registered as JMX bean under db.replica.jmxName.
+     *
+     * @return pooled replica production data source
+     */
+    @Bean(destroyMethod = "close")
+    @Profile("prod")
+    public DataSource replicaDataSource() {
+        return createPooledDataSource("spring.datasource.replica", env.getRequiredProperty("db.replica.jmxName"));
     }
 
+    /**
+     * Makes in memory development database data source. Database url is taken
+     * from spring.datasource.url and runs H2 in MySQL compatibility mode so that
+     * MySQL statements such as INSERT ... ON DUPLICATE KEY UPDATE behave the same
+     * way as in production database
+     *
+     * @return development data source
+     */
     @Bean
     @Profile("dev")
     public DataSource dataSource() {
-        EmbeddedDatabaseBuilder builder = new EmbeddedDatabaseBuilder();
-        return builder.setType(EmbeddedDatabaseType.H2)
-                .addScript("schema.sql")
-                .build();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(env.getRequiredProperty("spring.datasource.url"),
+                env.getRequiredProperty("spring.datasource.username"), env.getRequiredProperty("spring.datasource.password"));
+        dataSource.setDriverClassName(env.getRequiredProperty("spring.datasource.driver-class-name"));
+        return dataSource;
+    }
+
+    /**
+     * Makes Flyway schema migrations that are applied on startup before session
+     * factory is created. Versioned scripts are taken from db.migration.locations
+     * and are written to run on both H2 and MySQL. Databases that were created
+     * before migrations were introduced are baselined at db.migration.baselineVersion
+     * so that only later scripts are applied to them.
+     *
+     * @param dataSource data source of migrated database
+     * @return configured Flyway migrations
+     */
+    @Bean(initMethod = "migrate")
+    public Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations(env.getRequiredProperty("db.migration.locations", String[].class))
+                .baselineOnMigrate(env.getRequiredProperty("db.migration.baselineOnMigrate", Boolean.class))
+                .baselineVersion(env.getRequiredProperty("db.migration.baselineVersion"))
+                .load();
     }
 
     @Bean
+    @DependsOn("flyway")
     public LocalSessionFactoryBean sessionFactoryBean(DataSource dataSource) {
         LocalSessionFactoryBean sessionFactoryBean = new LocalSessionFactoryBean();
         sessionFactoryBean.setDataSource(dataSource);
         sessionFactoryBean.setPackagesToScan("com.epam.esm");
+        sessionFactoryBean.setHibernateProperties(hibernateProperties());
         return sessionFactoryBean;
     }
 
+    /**
+     * Makes hibernate properties that enable second level and query cache.
+     * Cache regions are held in process by Caffeine JCache provider that
+     * bounds region size and entries time to live. Region settings are
+     * described in application.conf. Cache statistics are collected and
+     * exposed as JMX beans. Inserts and updates are ordered and sent by
+     * jdbc batches of db.batchSize statements.
+     *
+     * @return hibernate properties
+     */
+    private Properties hibernateProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.cache.use_second_level_cache", env.getRequiredProperty("db.cache.useSecondLevelCache"));
+        properties.setProperty("hibernate.cache.use_query_cache", env.getRequiredProperty("db.cache.useQueryCache"));
+        properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+        properties.setProperty("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+        properties.setProperty("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+        properties.setProperty("hibernate.generate_statistics", env.getRequiredProperty("db.cache.generateStatistics"));
+        properties.setProperty("hibernate.jdbc.batch_size", env.getRequiredProperty("db.batchSize"));
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.order_updates", "true");
+        properties.setProperty("hibernate.jdbc.batch_versioned_data", "true");
+        return properties;
+    }
+
+    /**
+     * Makes transaction manager that uses hibernate dialect. Read only transactions
+     * get manual flush mode and sessions that are opened for read only transactions
+     * load entities as read only so hibernate does not keep their snapshots
+     *
+     * @param localSessionFactoryBean session factory
+     * @return transaction manager
+     */
     @Bean
     public PlatformTransactionManager hibernateTransactionManager(LocalSessionFactoryBean localSessionFactoryBean) {
         JpaTransactionManager transactionManager = new JpaTransactionManager();
         transactionManager.setEntityManagerFactory(localSessionFactoryBean.getObject());
+        transactionManager.setJpaDialect(new HibernateJpaDialect());
         return transactionManager;
     }
+
+    private BasicDataSource createPooledDataSource(String prefix, String jmxName) {
+        BasicDataSource dataSource = new BasicDataSource();
+        dataSource.setDriverClassName(env.getRequiredProperty("spring.datasource.driver-class-name"));
+        dataSource.setUrl(env.getRequiredProperty(prefix + ".url"));
+        dataSource.setUsername(env.getRequiredProperty(prefix + ".username"));
+        dataSource.setPassword(env.getRequiredProperty(prefix + ".password"));
+        dataSource.setInitialSize(env.getRequiredProperty("db.initialSize", Integer.class));
+        dataSource.setMaxTotal(env.getRequiredProperty("db.maxSize", Integer.class));
+        dataSource.setMinIdle(env.getRequiredProperty("db.minIdle", Integer.class));
+        dataSource.setMaxIdle(env.getRequiredProperty("db.maxIdle", Integer.class));
+        dataSource.setMaxWaitMillis(env.getRequiredProperty("db.maxWaitMillis", Long.class));
+        dataSource.setValidationQuery(env.getRequiredProperty("db.validationQuery"));
+        dataSource.setValidationQueryTimeout(env.getRequiredProperty("db.validationQueryTimeout", Integer.class));
+        dataSource.setTestOnBorrow(env.getRequiredProperty("db.testOnBorrow", Boolean.class));
+        dataSource.setTestWhileIdle(env.getRequiredProperty("db.testWhileIdle", Boolean.class));
+        dataSource.setTimeBetweenEvictionRunsMillis(env.getRequiredProperty("db.timeBetweenEvictionRunsMillis", Long.class));
+        dataSource.setPoolPreparedStatements(env.getRequiredProperty("db.poolPreparedStatements", Boolean.class));
+        dataSource.setMaxOpenPreparedStatements(env.getRequiredProperty("db.maxOpenPreparedStatements", Integer.class));
+        dataSource.setRemoveAbandonedOnBorrow(env.getRequiredProperty("db.removeAbandonedOnBorrow", Boolean.class));
+        dataSource.setRemoveAbandonedOnMaintenance(env.getRequiredProperty("db.removeAbandonedOnMaintenance", Boolean.class));
+        dataSource.setRemoveAbandonedTimeout(env.getRequiredProperty("db.removeAbandonedTimeout", Integer.class));
+        dataSource.setLogAbandoned(env.getRequiredProperty("db.logAbandoned", Boolean.class));
+        dataSource.setJmxName(jmxName);
+        return dataSource;
+    }
 }
@@ -0,0 +1,45 @@
+package com.epam.esm.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data source that sends connections of read only transactions to replica
+ * data source and all other connections to primary data source. Transaction
+ * read only flag is known only after transaction begin so routing data source
+ * must be wrapped by lazy connection proxy that takes target connection
+ * when first statement is executed.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Target data sources keys
+     */
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(Route.PRIMARY, primary);
+        targetDataSources.put(Route.REPLICA, replica);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Chooses replica data source for read only transactions
+     * and primary data source otherwise
+     *
+     * @return key of current target data source
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
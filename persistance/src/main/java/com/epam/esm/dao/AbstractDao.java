@@ -1,13 +1,25 @@
 package com.epam.esm.dao;
 
+import com.epam.esm.cache.CountCache;
 import com.epam.esm.model.Entity;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 
 
 /**
@@ -22,6 +34,12 @@ import org.springframework.transaction.annotation.Transactional;
 public abstract class AbstractDao<T extends Entity> implements Dao<T> {
     @Autowired
     protected SessionFactory sessionFactory;
+    @Autowired
+    protected CountCache countCache;
+    @Value("${db.batchSize}")
+    protected int batchSize;
+    @Value("${db.export.fetchSize}")
+    protected int exportFetchSize;
     private final String entityName;
 
     public AbstractDao(String entityName) {
@@ -38,6 +56,7 @@ public abstract class AbstractDao<T extends Entity> implements Dao<T> {
     public T save(T entity) {
         Session session = sessionFactory.getCurrentSession();
         session.persist(entity);
+        invalidateCounts();
         return entity;
     }
 
@@ -51,6 +70,7 @@ public abstract class AbstractDao<T extends Entity> implements Dao<T> {
     public T update(T entity) {
         Session session = sessionFactory.getCurrentSession();
         session.saveOrUpdate(entity);
+        invalidateCounts();
         return entity;
     }
 
@@ -63,18 +83,217 @@ public abstract class AbstractDao<T extends Entity> implements Dao<T> {
     public void delete(T entity) {
         Session session = sessionFactory.getCurrentSession();
         session.delete(entity);
+        invalidateCounts();
+    }
+
+    /**
+     * Performs entities save operation. Session is flushed and cleared after each
+     * batch so entities are inserted by jdbc batches and session does not hold all saved
+     * entities. Entities that were loaded by current session before are detached.
+     *
+     * @param entities entities that need to be saved
+     * @return saved entities with assigned ids
+     */
+    @Override
+    public List<T> saveAll(List<T> entities) {
+        Session session = sessionFactory.getCurrentSession();
+        for (int i = 0; i < entities.size(); i++) {
+            session.persist(entities.get(i));
+            flushBatch(session, i + 1);
+        }
+        session.flush();
+        invalidateCounts();
+        return entities;
+    }
+
+    /**
+     * Performs entities update operation. Session is flushed and cleared after each
+     * batch so entities are updated by jdbc batches. Entities that were loaded by
+     * current session before are detached.
+     *
+     * @param entities entities that need to be updated
+     * @return updated entities
+     */
+    @Override
+    public List<T> updateAll(List<T> entities) {
+        Session session = sessionFactory.getCurrentSession();
+        for (int i = 0; i < entities.size(); i++) {
+            session.saveOrUpdate(entities.get(i));
+            flushBatch(session, i + 1);
+        }
+        session.flush();
+        invalidateCounts();
+        return entities;
+    }
+
+    /**
+     * Performs entities delete operation. Entities are deleted by bulk delete
+     * statements and each statement deletes batch size entities. Cached entities
+     * are evicted from second level cache because bulk statements bypass it
+     *
+     * @param ids ids of entities that need to be deleted
+     */
+    @Override
+    public void deleteAllById(List<Long> ids) {
+        Session session = sessionFactory.getCurrentSession();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batchIds = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            Query<?> query = session.createQuery(String.format("delete from %s where id in (?1)", entityName));
+            query.setParameterList(1, batchIds);
+            query.executeUpdate();
+        }
+        sessionFactory.getCache().evictEntityData(sessionFactory.getMetamodel().getImportedClassName(entityName));
+        invalidateCounts();
+    }
+
+    /**
+     * Passes all entities ordered by id to consumer. Entities are read
+     * by forward only cursor that fetches db.export.fetchSize rows at once.
+     * Session is cleared after each fetched rows so memory does not depend
+     * on entities amount. Entities are attached while consumer handles them
+     * so their lazy associations may be loaded
+     *
+     * @param consumer consumer of exported entities
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<T> consumer) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<?> query = session.createQuery(exportQuery());
+        scroll(query, consumer);
+    }
+
+    /**
+     * Finds version of entity that have passed id. Only version column
+     * is selected so entity is not loaded
+     *
+     * @param id id of entity whose version need to be found
+     * @return Optional that contains entity version if entity with passed id exists
+     * or empty optional otherwise
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> findVersion(long id) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Long> query = session.createQuery(String.format("select e.version from %s e where e.id = ?1", entityName), Long.class);
+        query.setParameter(1, id);
+        return query.uniqueResultOptional().map(String::valueOf);
+    }
+
+    /**
+     * Finds version of entities page. Only ids and versions of entities on
+     * page are selected and hashed together with cached total entities amount
+     *
+     * @param offset current page offset
+     * @param limit  current page limit
+     * @return version of entities on passed page
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String findPageVersion(int offset, int limit) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Object[]> query = session.createQuery(String.format("select e.id, e.version from %s e order by e.id", entityName), Object[].class);
+        query.setFirstResult(offset);
+        query.setMaxResults(limit);
+        return hashVersions(getTotalElements(), query.list());
     }
 
     /**
-     * Counts all entities rand returns saved entities amount
+     * Counts all entities rand returns saved entities amount.
+     * Amount is taken from count cache if it was already counted
      *
      * @return saved entities amount
      */
     @Override
+    @Transactional(readOnly = true)
     public int getTotalElements() {
+        return countCached("all", () -> {
+            Session session = sessionFactory.getCurrentSession();
+            Query<Long> query = session.createQuery(String.format("select count(*) from %s", entityName), Long.class);
+            Long totalElements = query.uniqueResult();
+            return totalElements.intValue();
+        });
+    }
+
+    /**
+     * Returns cached amount of entities that match passed filter
+     * or counts it by passed counter if amount is not cached
+     *
+     * @param filter  filter that counted entities match
+     * @param counter counts entities amount
+     * @return entities amount
+     */
+    protected int countCached(String filter, IntSupplier counter) {
+        return countCache.get(entityName, filter, counter);
+    }
+
+    /**
+     * Invalidates cached amounts of entities that are changed
+     * when dao entity is saved, updated or deleted
+     */
+    protected void invalidateCounts() {
+        countCache.invalidate(entityName);
+    }
+
+    /**
+     * Hashes passed total entities amount and version rows of entities
+     * on page to single page version
+     *
+     * @param totalElements total entities amount
+     * @param rows          version columns of entities on page
+     * @return page version
+     */
+    protected String hashVersions(int totalElements, List<Object[]> rows) {
+        StringBuilder versions = new StringBuilder().append(totalElements);
+        for (Object[] row : rows) {
+            versions.append(';');
+            for (Object column : row) {
+                versions.append(column).append(',');
+            }
+        }
+        return DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns query that selects all exported entities in stable order.
+     * Overridden to fetch associations that are always exported with entity
+     *
+     * @return HQL query of exported entities
+     */
+    protected String exportQuery() {
+        return String.format("from %s order by id", entityName);
+    }
+
+    /**
+     * Reads entities of passed query by forward only cursor and passes them
+     * to consumer. Rows are fetched by db.export.fetchSize and session is
+     * cleared after each fetch size rows
+     *
+     * @param query    query of exported entities
+     * @param consumer consumer of exported entities
+     */
+    @SuppressWarnings("unchecked")
+    protected void scroll(Query<?> query, Consumer<T> consumer) {
         Session session = sessionFactory.getCurrentSession();
-        Query<Long> query = session.createQuery(String.format("select count(*) from %s", entityName), Long.class);
-        Long totalElements = query.uniqueResult();
-        return totalElements.intValue();
+        query.setFetchSize(exportFetchSize);
+        query.setReadOnly(true);
+        query.setCacheMode(CacheMode.IGNORE);
+        int exportedEntities = 0;
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                consumer.accept((T) results.get(0));
+                if (++exportedEntities % exportFetchSize == 0) {
+                    session.clear();
+                }
+            }
+        }
+        session.clear();
+    }
+
+    private void flushBatch(Session session, int processedEntities) {
+        if (processedEntities % batchSize == 0) {
+            session.flush();
+            session.clear();
+        }
     }
 }
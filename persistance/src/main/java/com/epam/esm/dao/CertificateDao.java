@@ -5,6 +5,7 @@ import com.epam.esm.model.Certificate;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Dao layer interface that defines additional operations
@@ -24,6 +25,23 @@ public interface CertificateDao extends Dao<Certificate> {
      */
     List<Certificate> findWithParameters(LinkedHashMap<String, String> findParameters, int offset, int limit);
 
+    /**
+     * Counts certificates that match passed parameters
+     *
+     * @param findParameters parameters by which need to count certificates
+     * @return amount of certificates that match passed parameters
+     */
+    int getTotalElementsWithParameters(LinkedHashMap<String, String> findParameters);
+
+    /**
+     * Passes all certificates that match passed parameters to consumer
+     * one by one without holding all certificates in memory
+     *
+     * @param findParameters parameters by which need to find certificates
+     * @param consumer       consumer of exported certificates
+     */
+    void exportWithParameters(LinkedHashMap<String, String> findParameters, Consumer<Certificate> consumer);
+
     /**
      * Finds certificate by passed order id.
      *
@@ -1,16 +1,33 @@
 package com.epam.esm.dao;
 
 import com.epam.esm.builder.FindCertificatesQueryBuilder;
+import com.epam.esm.index.CertificateTextIndex;
+import com.epam.esm.index.TagIndex;
 import com.epam.esm.model.Certificate;
 import com.epam.esm.model.Order;
+import com.epam.esm.model.Tag;
+import org.hibernate.FlushMode;
 import org.hibernate.Session;
+import org.hibernate.graph.RootGraph;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Realisation of abstract dao for certificate that use gift_certificate table to
@@ -20,18 +37,167 @@ import java.util.Optional;
  */
 @Repository
 public class CertificateJdbcDao extends AbstractDao<Certificate> implements CertificateDao {
+    private static final String SAVED_TAG_IDS_QUERY = "SELECT tag_id FROM certificate_tag WHERE certificate_id = ?1";
+    private static final String VERSION_COLUMNS = "c.version, count(t.id), coalesce(sum(t.id), 0), coalesce(sum(t.version), 0)";
+    private static final String VERSION_JOINS = "from Certificate c left join c.tags t";
     private final FindCertificatesQueryBuilder builder;
+    private final TagIndex tagIndex;
+    private final CertificateTextIndex textIndex;
+    private final UserStatisticsDao userStatisticsDao;
+    private final int indexMaxIds;
 
     @Autowired
-    public CertificateJdbcDao(FindCertificatesQueryBuilder builder) {
+    public CertificateJdbcDao(FindCertificatesQueryBuilder builder, TagIndex tagIndex, CertificateTextIndex textIndex, UserStatisticsDao userStatisticsDao, @Value("${db.index.maxIdsInQuery}") int indexMaxIds) {
         super(Certificate.class.getSimpleName());
         this.builder = builder;
+        this.userStatisticsDao = userStatisticsDao;
+        this.tagIndex = tagIndex;
+        this.textIndex = textIndex;
+        this.indexMaxIds = indexMaxIds;
+    }
+
+    /**
+     * Perform certificate save operation. Certificate tags, name and
+     * description are added to indexes after save is committed
+     *
+     * @param entity certificate that need to be saved
+     * @return saved certificate with assigned id
+     */
+    @Override
+    public Certificate save(Certificate entity) {
+        Certificate savedCertificate = super.save(entity);
+        tagIndex.refreshCertificateAfterCommit(savedCertificate.getId());
+        textIndex.refreshCertificateAfterCommit(savedCertificate.getId());
+        return savedCertificate;
+    }
+
+    /**
+     * Performs certificate update operation. Certificate tags, name and
+     * description are changed in indexes after update is committed.
+     * Tags statistics of users that ordered certificate are recomputed
+     * only if certificate tags are changed
+     *
+     * @param entity certificate that need to be updated
+     * @return updated certificate
+     */
+    @Override
+    public Certificate update(Certificate entity) {
+        boolean tagsChanged = !findSavedTagIds(entity.getId()).equals(getTagIds(entity));
+        Certificate updatedCertificate = super.update(entity);
+        if (tagsChanged) {
+            sessionFactory.getCurrentSession().flush();
+            userStatisticsDao.recomputeCertificateCustomersTags(updatedCertificate.getId());
+        }
+        tagIndex.refreshCertificateAfterCommit(updatedCertificate.getId());
+        textIndex.refreshCertificateAfterCommit(updatedCertificate.getId());
+        return updatedCertificate;
+    }
+
+    /**
+     * Performs certificate delete operation. Certificate is removed
+     * from indexes after delete is committed. Certificate orders are
+     * subtracted from users statistics before they are deleted with certificate
+     *
+     * @param entity certificate that need to be deleted
+     */
+    @Override
+    public void delete(Certificate entity) {
+        userStatisticsDao.removeCertificateOrders(entity.getId());
+        super.delete(entity);
+        tagIndex.removeCertificateAfterCommit(entity.getId());
+        textIndex.removeCertificateAfterCommit(entity.getId());
+    }
+
+    /**
+     * Finds version of certificate that have passed id. Certificate representation
+     * contains certificate tags so version is made of certificate version, tags amount,
+     * sum of tags ids and sum of tags versions. Tag rename changes certificate version
+     *
+     * @param id id of certificate whose version need to be found
+     * @return Optional that contains certificate version if certificate with passed id exists
+     * or empty optional otherwise
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> findVersion(long id) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Object[]> query = session.createQuery(String.format("select %s %s where c.id = ?1 group by c.id, c.version",
+                VERSION_COLUMNS, VERSION_JOINS), Object[].class);
+        query.setParameter(1, id);
+        return query.uniqueResultOptional().map(row -> String.format("%s-%s-%s-%s", row));
+    }
+
+    /**
+     * Finds version of certificates page. Ids and versions of certificates
+     * on page are selected with their tags versions and hashed together
+     * with cached total certificates amount
+     *
+     * @param offset current page offset
+     * @param limit  current page limit
+     * @return version of certificates on passed page
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String findPageVersion(int offset, int limit) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Object[]> query = session.createQuery(String.format("select c.id, %s %s group by c.id, c.version order by c.id",
+                VERSION_COLUMNS, VERSION_JOINS), Object[].class);
+        query.setFirstResult(offset);
+        query.setMaxResults(limit);
+        return hashVersions(getTotalElements(), query.list());
+    }
+
+    /**
+     * Performs certificates save operation by jdbc batches.
+     * Indexes are rebuilt after save is committed
+     *
+     * @param entities certificates that need to be saved
+     * @return saved certificates with assigned ids
+     */
+    @Override
+    public List<Certificate> saveAll(List<Certificate> entities) {
+        List<Certificate> savedCertificates = super.saveAll(entities);
+        rebuildIndexesAfterCommit();
+        return savedCertificates;
+    }
+
+    /**
+     * Performs certificates update operation by jdbc batches.
+     * Indexes are rebuilt after update is committed. Users statistics
+     * are recomputed because certificates tags may be changed
+     *
+     * @param entities certificates that need to be updated
+     * @return updated certificates
+     */
+    @Override
+    public List<Certificate> updateAll(List<Certificate> entities) {
+        List<Certificate> updatedCertificates = super.updateAll(entities);
+        userStatisticsDao.rebuild();
+        rebuildIndexesAfterCommit();
+        return updatedCertificates;
+    }
+
+    /**
+     * Performs certificates delete operation by bulk delete statements.
+     * Indexes are rebuilt after delete is committed. Users statistics are
+     * recomputed because certificates orders are deleted with certificates
+     *
+     * @param ids ids of certificates that need to be deleted
+     */
+    @Override
+    public void deleteAllById(List<Long> ids) {
+        super.deleteAllById(ids);
+        userStatisticsDao.rebuild();
+        rebuildIndexesAfterCommit();
     }
 
     /**
      * Finds certificates that matches passed parameters
      * such as tag names, part of name , part of description.
-     * Also make sorting based on passed sorting parameters
+     * Also make sorting based on passed sorting parameters.
+     * If filters are answered by tag and text indexes then only certificates
+     * found by indexes are queried. If certificates are not sorted and all filters
+     * are answered by indexes then only certificates on page are queried
      *
      * @param findParameters parameters by which need to find certificates
      * @param offset         current page offset
@@ -39,12 +205,69 @@ public class CertificateJdbcDao extends AbstractDao<Certificate> implements Cert
      * @return certificates that match passed parameters
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Certificate> findWithParameters(LinkedHashMap<String, String> findParameters, int offset, int limit) {
         findParameters.put("offset", Integer.toString(offset));
         findParameters.put("limit", Integer.toString(limit));
         Session session = sessionFactory.getCurrentSession();
-        Query<Certificate> query = builder.buildSql(findParameters, session);
-        return query.list();
+        IndexSearch search = searchIndexes(findParameters);
+        if (search == null || search.certificates.getCardinality() > indexMaxIds) {
+            Query<Object[]> query = builder.buildSql(findParameters, session, null);
+            return fillTags(query.list());
+        }
+        if (search.certificates.isEmpty()) {
+            removePageParameters(findParameters);
+            return Collections.emptyList();
+        }
+        if (!search.exact || builder.hasSortParameters(findParameters)) {
+            List<Long> certificateIds = new ArrayList<>();
+            search.certificates.forEach((int id) -> certificateIds.add((long) id));
+            Query<Object[]> query = builder.buildSql(findParameters, session, certificateIds);
+            return fillTags(query.list());
+        }
+        removePageParameters(findParameters);
+        List<Long> pageIds = tagIndex.page(search.certificates, offset, limit);
+        if (pageIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Query<Object[]> query = session.createQuery(String.format("select %s from Certificate c where c.id in (?1) order by c.id", FindCertificatesQueryBuilder.CERTIFICATE_COLUMNS), Object[].class);
+        query.setParameterList(1, pageIds);
+        return fillTags(query.list());
+    }
+
+    /**
+     * Counts certificates that match passed parameters. Amount is exact if certificates
+     * are not filtered or all filters are answered by tag and text indexes.
+     * Otherwise amount of all certificates is returned
+     *
+     * @param findParameters parameters by which need to count certificates
+     * @return amount of certificates that match passed parameters
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public int getTotalElementsWithParameters(LinkedHashMap<String, String> findParameters) {
+        if (findParameters == null) {
+            return getTotalElements();
+        }
+        IndexSearch search = searchIndexes(findParameters);
+        return search != null && search.exact ? search.certificates.getCardinality() : getTotalElements();
+    }
+
+    /**
+     * Passes all certificates that match passed parameters to consumer.
+     * Certificates are read by cursor with the same filters and sorting
+     * as certificates pages. Tags of certificates are loaded by batches
+     * when consumer reads them
+     *
+     * @param findParameters parameters by which need to find certificates
+     * @param consumer       consumer of exported certificates
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportWithParameters(LinkedHashMap<String, String> findParameters, Consumer<Certificate> consumer) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Certificate> query = builder.buildExportSql(findParameters, session);
+        scroll(query, consumer);
     }
 
     /**
@@ -56,6 +279,7 @@ public class CertificateJdbcDao extends AbstractDao<Certificate> implements Cert
      * or empty optional otherwise
      */
     @Override
+    @Transactional(readOnly = true)
     public Optional<Certificate> findByOrderId(long orderId) {
         Session session = sessionFactory.getCurrentSession();
         Order order = session.get(Order.class, orderId);
@@ -70,12 +294,32 @@ public class CertificateJdbcDao extends AbstractDao<Certificate> implements Cert
      * @return entities on passed page
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Certificate> findPage(int offset, int limit) {
         Session session = sessionFactory.getCurrentSession();
-        Query<Certificate> query = session.createQuery("from Certificate", Certificate.class);
+        Query<Object[]> query = session.createQuery(String.format("select %s from Certificate c order by c.id", FindCertificatesQueryBuilder.CERTIFICATE_COLUMNS), Object[].class);
         query.setFirstResult(offset);
         query.setMaxResults(limit);
-        return query.list();
+        return fillTags(query.list());
+    }
+
+    /**
+     * Finds and returns entities page that goes after entity with passed id.
+     * Entity id is used as page cursor so database seeks to page start
+     * instead of skipping offset rows
+     *
+     * @param lastId id of last entity on previous page
+     * @param limit  current page limit
+     * @return entities on page after passed id
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Certificate> findPageAfter(long lastId, int limit) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Object[]> query = session.createQuery(String.format("select %s from Certificate c where c.id > ?1 order by c.id", FindCertificatesQueryBuilder.CERTIFICATE_COLUMNS), Object[].class);
+        query.setParameter(1, lastId);
+        query.setMaxResults(limit);
+        return fillTags(query.list());
     }
 
     /**
@@ -86,9 +330,102 @@ public class CertificateJdbcDao extends AbstractDao<Certificate> implements Cert
      * or empty optional otherwise
      */
     @Override
+    @Transactional(readOnly = true)
     public Optional<Certificate> findById(long id) {
         Session session = sessionFactory.getCurrentSession();
-        Certificate certificate = session.get(Certificate.class, id);
+        RootGraph<?> tagsGraph = session.getEntityGraph(Certificate.TAGS_GRAPH);
+        Map<String, Object> hints = new HashMap<>();
+        hints.put("javax.persistence.fetchgraph", tagsGraph);
+        Certificate certificate = session.find(Certificate.class, id, hints);
         return Optional.ofNullable(certificate);
     }
+
+    /**
+     * Invalidates cached certificates amounts. Certificate tags and orders amounts
+     * are also invalidated because certificate update changes certificate tags and
+     * certificate delete deletes certificate orders
+     */
+    @Override
+    protected void invalidateCounts() {
+        countCache.invalidate(Certificate.class.getSimpleName(), Tag.class.getSimpleName(), Order.class.getSimpleName());
+    }
+
+    /**
+     * Builds certificates page from selected columns and sets tags of all page
+     * certificates by one more query. Page certificates are not attached to session
+     * so reading page does not keep entities snapshots
+     *
+     * @param rows selected certificates columns
+     * @return certificates page with tags
+     */
+    private List<Certificate> fillTags(List<Object[]> rows) {
+        Session session = sessionFactory.getCurrentSession();
+        return CertificateProjections.fillTags(session, CertificateProjections.toCertificates(rows));
+    }
+
+    private Set<Long> findSavedTagIds(long certificateId) {
+        NativeQuery<?> query = sessionFactory.getCurrentSession().createNativeQuery(SAVED_TAG_IDS_QUERY);
+        query.setParameter(1, certificateId);
+        query.setHibernateFlushMode(FlushMode.MANUAL);
+        return query.list().stream().map(id -> ((Number) id).longValue()).collect(Collectors.toSet());
+    }
+
+    private Set<Long> getTagIds(Certificate certificate) {
+        return certificate.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
+    }
+
+    private void rebuildIndexesAfterCommit() {
+        tagIndex.rebuildAfterCommit();
+        textIndex.rebuildAfterCommit();
+    }
+
+    private IndexSearch searchIndexes(LinkedHashMap<String, String> findParameters) {
+        String tagNames = findParameters.get(FindCertificatesQueryBuilder.TAG_NAME_ATTRIBUTE_KEY);
+        String partOfName = findParameters.get(FindCertificatesQueryBuilder.PART_OF_NAME_PARAMETER_KEY);
+        String partOfDescription = findParameters.get(FindCertificatesQueryBuilder.PART_OF_DESCRIPTION_PARAMETER_KEY);
+        boolean filteredByTags = isNotEmpty(tagNames);
+        if (filteredByTags && !tagIndex.isAvailable()) {
+            return null;
+        }
+        RoaringBitmap certificates = filteredByTags ? tagIndex.findCertificatesWithAllTags(Arrays.asList(tagNames.split(FindCertificatesQueryBuilder.COMMA))) : null;
+        boolean exact = true;
+        if (isNotEmpty(partOfName)) {
+            if (textIndex.canFind(partOfName)) {
+                certificates = intersect(certificates, textIndex.findByPartOfName(partOfName));
+            } else {
+                exact = false;
+            }
+        }
+        if (isNotEmpty(partOfDescription)) {
+            if (textIndex.canFind(partOfDescription)) {
+                certificates = intersect(certificates, textIndex.findByPartOfDescription(partOfDescription));
+            } else {
+                exact = false;
+            }
+        }
+        return certificates == null ? null : new IndexSearch(certificates, exact);
+    }
+
+    private RoaringBitmap intersect(RoaringBitmap certificates, RoaringBitmap foundCertificates) {
+        return certificates == null ? foundCertificates : RoaringBitmap.and(certificates, foundCertificates);
+    }
+
+    private boolean isNotEmpty(String parameter) {
+        return parameter != null && !parameter.isEmpty();
+    }
+
+    private void removePageParameters(LinkedHashMap<String, String> findParameters) {
+        findParameters.remove("offset");
+        findParameters.remove("limit");
+    }
+
+    private static class IndexSearch {
+        private final RoaringBitmap certificates;
+        private final boolean exact;
+
+        private IndexSearch(RoaringBitmap certificates, boolean exact) {
+            this.certificates = certificates;
+            this.exact = exact;
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package com.epam.esm.dao;
+
+import com.epam.esm.builder.FindCertificatesQueryBuilder;
+import com.epam.esm.model.Certificate;
+import com.epam.esm.model.Tag;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Builds certificates of list pages from selected columns instead of loading
+ * managed entities. Built certificates and their tags are not attached to
+ * session so hibernate does not keep their snapshots and does not check them
+ * on flush. Built certificates must not be passed to update operations.
+ * Rows must contain columns in order of {@link FindCertificatesQueryBuilder#CERTIFICATE_COLUMNS}
+ */
+final class CertificateProjections {
+    static final int CERTIFICATE_COLUMNS_AMOUNT = 7;
+    private static final String CERTIFICATES_TAGS_QUERY = "select c.id, t.id, t.name from Certificate c join c.tags t where c.id in (?1)";
+
+    private CertificateProjections() {
+    }
+
+    /**
+     * Builds certificate from certificate columns that start at passed index of row
+     *
+     * @param row  selected row
+     * @param from index of certificate id column
+     * @return built certificate without tags
+     */
+    static Certificate toCertificate(Object[] row, int from) {
+        return new Certificate((Long) row[from], (String) row[from + 1], (String) row[from + 2],
+                ((Number) row[from + 3]).doubleValue(), ((Number) row[from + 4]).intValue(),
+                (LocalDateTime) row[from + 5], (LocalDateTime) row[from + 6]);
+    }
+
+    /**
+     * Builds certificates from rows of certificate columns
+     *
+     * @param rows selected rows
+     * @return built certificates without tags
+     */
+    static List<Certificate> toCertificates(List<Object[]> rows) {
+        return rows.stream().map(row -> toCertificate(row, 0)).collect(Collectors.toList());
+    }
+
+    /**
+     * Sets tags to all passed certificates. Tags of all certificates are
+     * selected by one query
+     *
+     * @param session      current session
+     * @param certificates built certificates
+     * @return passed certificates with tags
+     */
+    static List<Certificate> fillTags(Session session, List<Certificate> certificates) {
+        if (certificates.isEmpty()) {
+            return certificates;
+        }
+        Map<Long, List<Tag>> tagsByCertificate = new HashMap<>();
+        List<Long> certificateIds = certificates.stream().map(Certificate::getId).distinct().collect(Collectors.toList());
+        Query<Object[]> query = session.createQuery(CERTIFICATES_TAGS_QUERY, Object[].class);
+        query.setParameterList(1, certificateIds);
+        for (Object[] row : query.list()) {
+            Tag tag = new Tag((Long) row[1], (String) row[2]);
+            tagsByCertificate.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(tag);
+        }
+        certificates.forEach(certificate -> certificate.setTags(tagsByCertificate.getOrDefault(certificate.getId(), new ArrayList<>())));
+        return certificates;
+    }
+}
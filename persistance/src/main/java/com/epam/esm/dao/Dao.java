@@ -4,6 +4,7 @@ import com.epam.esm.model.Entity;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Dao layer base interface that defines standard CRUD
@@ -21,6 +22,17 @@ public interface Dao<T extends Entity> {
      */
     List<T> findPage(int offset, int limit);
 
+    /**
+     * Finds and returns entities page that goes after entity with passed id.
+     * Entity id is used as page cursor so database seeks to page start
+     * instead of skipping offset rows
+     *
+     * @param lastId id of last entity on previous page
+     * @param limit  current page limit
+     * @return entities on page after passed id
+     */
+    List<T> findPageAfter(long lastId, int limit);
+
     /**
      * Finds and returns entity that have passed id
      *
@@ -30,6 +42,27 @@ public interface Dao<T extends Entity> {
      */
     Optional<T> findById(long id);
 
+    /**
+     * Finds version of entity that have passed id. Version changes when
+     * entity representation changes so it is used to check if entity
+     * was changed without reading entity
+     *
+     * @param id id of entity whose version need to be found
+     * @return Optional that contains entity version if entity with passed id exists
+     * or empty optional otherwise
+     */
+    Optional<String> findVersion(long id);
+
+    /**
+     * Finds version of entities page. Version changes when entities on page,
+     * their versions or total entities amount change
+     *
+     * @param offset current page offset
+     * @param limit  current page limit
+     * @return version of entities on passed page
+     */
+    String findPageVersion(int offset, int limit);
+
     /**
      * Perform entity save operation. And assigns calculates by database id to saved entity
      *
@@ -53,10 +86,43 @@ public interface Dao<T extends Entity> {
      */
     void delete(T entity);
 
+    /**
+     * Performs entities save operation. Entities are inserted by jdbc batches
+     * and are assigned ids without database round trip for each entity
+     *
+     * @param entities entities that need to be saved
+     * @return saved entities with assigned ids
+     */
+    List<T> saveAll(List<T> entities);
+
+    /**
+     * Performs entities update operation. Entities are updated by jdbc batches
+     *
+     * @param entities entities that need to be updated
+     * @return updated entities
+     */
+    List<T> updateAll(List<T> entities);
+
+    /**
+     * Performs entities delete operation. Deletes entities that have passed ids
+     * by batches of delete statements
+     *
+     * @param ids ids of entities that need to be deleted
+     */
+    void deleteAllById(List<Long> ids);
+
     /**
      * Counts all entities rand returns saved entities amount
      *
      * @return saved entities amount
      */
     int getTotalElements();
+
+    /**
+     * Passes all saved entities ordered by id to consumer one by one
+     * without holding all entities in memory
+     *
+     * @param consumer consumer of exported entities
+     */
+    void exportAll(Consumer<T> consumer);
 }
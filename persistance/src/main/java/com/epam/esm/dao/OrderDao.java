@@ -3,6 +3,7 @@ package com.epam.esm.dao;
 import com.epam.esm.model.Order;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface OrderDao extends Dao<Order> {
     /**
@@ -23,6 +24,16 @@ public interface OrderDao extends Dao<Order> {
      */
     List<Order> findUserOrdersPage(long userId, int offset, int limit);
 
+    /**
+     * Finds and returns passed user orders page that goes after order with passed id
+     *
+     * @param userId user id which orders need to be found
+     * @param lastId id of last order on previous page
+     * @param limit  current page limit
+     * @return user orders page after passed order id
+     */
+    List<Order> findUserOrdersPageAfter(long userId, long lastId, int limit);
+
     /**
      * Counts user orders amount.
      *
@@ -40,12 +51,22 @@ public interface OrderDao extends Dao<Order> {
     int getCertificateOrdersTotalElements(long certificateId);
 
     /**
-     * Sets user to saved order.
+     * Passes passed user orders ordered by id to consumer
+     * one by one without holding all orders in memory
+     *
+     * @param userId   id of user whose orders need to be exported
+     * @param consumer consumer of exported orders
+     */
+    void exportUserOrders(long userId, Consumer<Order> consumer);
+
+    /**
+     * Saves passed order as passed user order.
      *
-     * @param userId  id of user that need to be saved to order
-     * @param orderId order id that need to be set to user
+     * @param userId id of user that made order
+     * @param order  order that need to be saved
+     * @return saved order
      */
-    void setUserToOrder(long userId, long orderId);
+    Order saveUserOrder(long userId, Order order);
 
     /**
      * Finds certificate order by passed certificate id
@@ -55,4 +76,14 @@ public interface OrderDao extends Dao<Order> {
      * or empty order otherwise
      */
     List<Order> findCertificateOrders(long certificateId, int offset, int limit);
+
+    /**
+     * Finds certificate orders page that goes after order with passed id
+     *
+     * @param certificateId whose orders need to be found
+     * @param lastId        id of last order on previous page
+     * @param limit         current page limit
+     * @return certificate orders page after passed order id
+     */
+    List<Order> findCertificateOrdersAfter(long certificateId, long lastId, int limit);
 }
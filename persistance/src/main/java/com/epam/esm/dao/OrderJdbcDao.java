@@ -1,19 +1,52 @@
 package com.epam.esm.dao;
 
+import com.epam.esm.builder.FindCertificatesQueryBuilder;
+import com.epam.esm.model.Certificate;
 import com.epam.esm.model.Order;
-import com.epam.esm.model.User;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
+import org.hibernate.type.DoubleType;
+import org.hibernate.type.IntegerType;
+import org.hibernate.type.LocalDateTimeType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.StringType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Repository
 public class OrderJdbcDao extends AbstractDao<Order> implements OrderDao {
+    private static final String USER_ORDERS_QUERY = "select o.id, o.cost, o.orderDate, %s from Order o join o.certificate c where user_id = ?1 order by o.id";
+    private static final String USER_ORDERS_AFTER_QUERY = "select o.id, o.cost, o.orderDate, %s from Order o join o.certificate c where user_id = ?1 and o.id > ?2 order by o.id";
+    private static final String CERTIFICATE_ORDERS_QUERY = "select o.id, o.cost, o.orderDate, %s from Order o join o.certificate c where c.id = ?1 order by o.id";
+    private static final String CERTIFICATE_ORDERS_AFTER_QUERY = "select o.id, o.cost, o.orderDate, %s from Order o join o.certificate c where c.id = ?1 and o.id > ?2 order by o.id";
+    private static final String USER_ARCHIVE_CONDITION = "o.user_id = ?1";
+    private static final String USER_ARCHIVE_AFTER_CONDITION = "o.user_id = ?1 AND o.id > ?2";
+    private static final String CERTIFICATE_ARCHIVE_CONDITION = "o.certificate_id = ?1";
+    private static final String CERTIFICATE_ARCHIVE_AFTER_CONDITION = "o.certificate_id = ?1 AND o.id > ?2";
+    private static final String ARCHIVE_TABLE = "certificate_order_archive";
+    private static final String ARCHIVED_ORDERS_QUERY = "SELECT o.id AS order_id, o.cost AS order_cost, o.date AS order_date, " +
+            "c.id AS id, c.name AS name, c.description AS description, c.price AS price, c.duration AS duration, " +
+            "c.create_date AS create_date, c.last_update_date AS last_update_date " +
+            "FROM certificate_order_archive o JOIN gift_certificate c ON c.id = o.certificate_id WHERE %s ORDER BY o.id";
 
-    public OrderJdbcDao() {
+    private final UserStatisticsDao userStatisticsDao;
+
+    @Autowired
+    public OrderJdbcDao(UserStatisticsDao userStatisticsDao) {
         super(Order.class.getSimpleName());
+        this.userStatisticsDao = userStatisticsDao;
     }
 
     /**
@@ -24,6 +57,7 @@ public class OrderJdbcDao extends AbstractDao<Order> implements OrderDao {
      * @return entities on passed page
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Order> findPage(int offset, int limit) {
         Session session = sessionFactory.getCurrentSession();
         Query<Order> query = session.createQuery("from Order", Order.class);
@@ -33,35 +67,74 @@ public class OrderJdbcDao extends AbstractDao<Order> implements OrderDao {
     }
 
     /**
-     * Finds and returns entity that have passed id
+     * Finds and returns entities page that goes after entity with passed id.
+     * Entity id is used as page cursor so database seeks to page start
+     * instead of skipping offset rows
+     *
+     * @param lastId id of last entity on previous page
+     * @param limit  current page limit
+     * @return entities on page after passed id
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Order> findPageAfter(long lastId, int limit) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Order> query = session.createQuery("from Order where id > ?1 order by id", Order.class);
+        query.setParameter(1, lastId);
+        query.setMaxResults(limit);
+        return query.list();
+    }
+
+    /**
+     * Finds and returns entity that have passed id. If order is
+     * archived then archived order that is not attached to session is returned
      *
      * @param id id of entity that need to be found
      * @return Optional that contains entity if entity with passed id exists
      * or empty optional otherwise
      */
     @Override
+    @Transactional(readOnly = true)
     public Optional<Order> findById(long id) {
         Session session = sessionFactory.getCurrentSession();
         Order order = session.get(Order.class, id);
-        return Optional.ofNullable(order);
+        if (order != null) {
+            return Optional.of(order);
+        }
+        NativeQuery<?> query = createArchivedOrdersQuery(session, "o.id = ?1");
+        query.setParameter(1, id);
+        return toOrders(session, query.list()).stream().findFirst();
     }
 
     /**
-     * Finds and returns user orders by user id
+     * Finds and returns user orders by user id. Archived orders go before
+     * recent orders and are not attached to session
      *
      * @param userId id of user which orders need to be found
      * @return list of user orders
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Order> findAllUserOrders(long userId) {
         Session session = sessionFactory.getCurrentSession();
+        List<Order> orders = new ArrayList<>();
+        if (getUserArchivedOrdersTotalElements(userId) > 0) {
+            NativeQuery<?> archiveQuery = createArchivedOrdersQuery(session, USER_ARCHIVE_CONDITION);
+            archiveQuery.setParameter(1, userId);
+            orders.addAll(toOrders(session, archiveQuery.list()));
+        }
         Query<Order> query = session.createQuery("from Order where user_id = ?1", Order.class);
         query.setParameter(1, userId);
-        return query.list();
+        orders.addAll(query.list());
+        return orders;
     }
 
     /**
-     * Finds and returns passed user passed orders page
+     * Finds and returns passed user passed orders page. Archived orders go before
+     * recent orders so archive is queried only if page starts among archived orders
+     * and recent orders are queried only if page is not filled by archived orders.
+     * Orders and their certificates are built from selected columns and are not
+     * attached to session
      *
      * @param userId user id which orders need to be found
      * @param offset current page offset
@@ -69,74 +142,259 @@ public class OrderJdbcDao extends AbstractDao<Order> implements OrderDao {
      * @return user orders passed page
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Order> findUserOrdersPage(long userId, int offset, int limit) {
-        Session session = sessionFactory.getCurrentSession();
-        Query<Order> query = session.createQuery("from Order where user_id = ?1", Order.class);
-        query.setParameter(1, userId);
-        query.setFirstResult(offset);
-        query.setMaxResults(limit);
-        return query.list();
+        return findOrdersPage(USER_ORDERS_QUERY, USER_ARCHIVE_CONDITION, userId, getUserArchivedOrdersTotalElements(userId), offset, limit);
     }
 
     /**
-     * Counts user orders amount.
+     * Finds and returns passed user orders page that goes after order with passed id.
+     * Archived and recent orders that go after passed id are merged by id.
+     * Orders and their certificates are not attached to session
+     *
+     * @param userId user id which orders need to be found
+     * @param lastId id of last order on previous page
+     * @param limit  current page limit
+     * @return user orders page after passed order id
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Order> findUserOrdersPageAfter(long userId, long lastId, int limit) {
+        boolean archived = getUserArchivedOrdersTotalElements(userId) > 0;
+        return findOrdersPageAfter(USER_ORDERS_AFTER_QUERY, USER_ARCHIVE_AFTER_CONDITION, userId, archived, lastId, limit);
+    }
+
+    /**
+     * Counts user orders amount. Archived orders are counted too
      *
      * @param userId id of user which orders amount need to be count
      * @return amount of user orders
      */
     @Override
+    @Transactional(readOnly = true)
     public int getUserOrdersTotalElements(long userId) {
+        int recentOrders = countCached("user=" + userId, () -> {
+            Session session = sessionFactory.getCurrentSession();
+            Query<Long> query = session.createQuery("select count(*) from Order where user_id = ?1", Long.class);
+            query.setParameter(1, userId);
+            Long userOrdersTotalElements = query.uniqueResult();
+            return userOrdersTotalElements.intValue();
+        });
+        return recentOrders + getUserArchivedOrdersTotalElements(userId);
+    }
+
+    /**
+     * Passes passed user orders ordered by id to consumer. Archived orders go
+     * before recent orders like on user orders pages. Archived orders are read
+     * by forward only cursor and passed by fetch size chunks so their certificates
+     * tags are loaded by one query for chunk. Recent orders are read with their
+     * certificates by forward only cursor like exported orders
+     *
+     * @param userId   id of user whose orders need to be exported
+     * @param consumer consumer of exported orders
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUserOrders(long userId, Consumer<Order> consumer) {
         Session session = sessionFactory.getCurrentSession();
-        Query<Long> query = session.createQuery("select count(*) from Order where user_id = ?1", Long.class);
+        if (getUserArchivedOrdersTotalElements(userId) > 0) {
+            NativeQuery<?> archiveQuery = createArchivedOrdersQuery(session, USER_ARCHIVE_CONDITION);
+            archiveQuery.setParameter(1, userId);
+            scrollArchivedOrders(session, archiveQuery, consumer);
+        }
+        Query<?> query = session.createQuery("select o from Order o join fetch o.certificate where o.userId = ?1 order by o.id");
         query.setParameter(1, userId);
-        Long userOrdersTotalElements = query.uniqueResult();
-        return userOrdersTotalElements.intValue();
+        scroll(query, consumer);
     }
 
     /**
-     * Sets user to saved order.
+     * Saves passed order as passed user order. User id is written by order
+     * insert because user orders collection does not write order user column.
+     * Order cost and ordered certificate tags are added to user statistics
+     * in the same transaction
      *
-     * @param userId  id of user that need to be saved to order
-     * @param orderId order id that need to be set to user
+     * @param userId id of user that made order
+     * @param order  order that need to be saved
+     * @return saved order
      */
     @Override
-    public void setUserToOrder(long userId, long orderId) {
-        Session session = sessionFactory.getCurrentSession();
-        User user = session.get(User.class, userId);
-        Order order = session.get(Order.class, orderId);
-        user.getOrders().add(order);
-        session.update(user);
+    public Order saveUserOrder(long userId, Order order) {
+        order.setUserId(userId);
+        sessionFactory.getCurrentSession().persist(order);
+        userStatisticsDao.addUserOrder(userId, order.getCertificate().getId(), order.getCost());
+        invalidateCounts();
+        return order;
     }
 
     /**
-     * Finds certificate order by passed certificate id
+     * Finds passed certificate orders page. Archived orders go before recent
+     * orders like on user orders pages. Orders and their certificates are
+     * built from selected columns and are not attached to session
      *
-     * @param certificateId whose order need to be found
-     * @return order that contains certificate with passed id
-     * or empty order otherwise
+     * @param certificateId whose orders need to be found
+     * @param offset        current page offset
+     * @param limit         current page limit
+     * @return certificate orders passed page
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Order> findCertificateOrders(long certificateId, int offset, int limit) {
-        Session session = sessionFactory.getCurrentSession();
-        Query<Order> query = session.createQuery("from Order where certificate.id = ?1", Order.class);
-        query.setParameter(1, certificateId);
-        query.setFirstResult(offset);
-        query.setMaxResults(limit);
-        return query.list();
+        int archivedOrders = getCertificateArchivedOrdersTotalElements(certificateId);
+        return findOrdersPage(CERTIFICATE_ORDERS_QUERY, CERTIFICATE_ARCHIVE_CONDITION, certificateId, archivedOrders, offset, limit);
     }
 
     /**
-     * compute certificate orders amount
+     * Finds certificate orders page that goes after order with passed id.
+     * Archived and recent orders that go after passed id are merged by id
+     *
+     * @param certificateId whose orders need to be found
+     * @param lastId        id of last order on previous page
+     * @param limit         current page limit
+     * @return certificate orders page after passed order id
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Order> findCertificateOrdersAfter(long certificateId, long lastId, int limit) {
+        boolean archived = getCertificateArchivedOrdersTotalElements(certificateId) > 0;
+        return findOrdersPageAfter(CERTIFICATE_ORDERS_AFTER_QUERY, CERTIFICATE_ARCHIVE_AFTER_CONDITION, certificateId, archived, lastId, limit);
+    }
+
+    /**
+     * compute certificate orders amount. Archived orders are counted too
      *
      * @param certificateId certificate id
      * @return certificate orders amount
      */
     @Override
+    @Transactional(readOnly = true)
     public int getCertificateOrdersTotalElements(long certificateId) {
+        int recentOrders = countCached("certificate=" + certificateId, () -> {
+            Session session = sessionFactory.getCurrentSession();
+            Query<Long> query = session.createQuery("select count(*) from Order where certificate.id = ?1", Long.class);
+            query.setParameter(1, certificateId);
+            Long totalElements = query.uniqueResult();
+            return totalElements.intValue();
+        });
+        return recentOrders + getCertificateArchivedOrdersTotalElements(certificateId);
+    }
+
+    /**
+     * Returns query that selects all orders with their certificates
+     * so certificates are not loaded by separate query for each order
+     *
+     * @return HQL query of exported orders
+     */
+    @Override
+    protected String exportQuery() {
+        return "select o from Order o join fetch o.certificate order by o.id";
+    }
+
+    private List<Order> findOrdersPage(String recentQuery, String archiveCondition, long ownerId, int archivedOrders, int offset, int limit) {
+        Session session = sessionFactory.getCurrentSession();
+        List<Object[]> rows = new ArrayList<>();
+        if (offset < archivedOrders) {
+            NativeQuery<?> archiveQuery = createArchivedOrdersQuery(session, archiveCondition);
+            archiveQuery.setParameter(1, ownerId);
+            archiveQuery.setFirstResult(offset);
+            archiveQuery.setMaxResults(limit);
+            rows.addAll(toRows(archiveQuery.list()));
+        }
+        if (rows.size() < limit) {
+            Query<Object[]> query = session.createQuery(String.format(recentQuery, FindCertificatesQueryBuilder.CERTIFICATE_COLUMNS), Object[].class);
+            query.setParameter(1, ownerId);
+            query.setFirstResult(Math.max(0, offset - archivedOrders));
+            query.setMaxResults(limit - rows.size());
+            rows.addAll(query.list());
+        }
+        return toOrders(session, rows);
+    }
+
+    private List<Order> findOrdersPageAfter(String recentQuery, String archiveCondition, long ownerId, boolean archived, long lastId, int limit) {
         Session session = sessionFactory.getCurrentSession();
-        Query<Long> query = session.createQuery("select count(*) from Order where certificate.id = ?1", Long.class);
-        query.setParameter(1, certificateId);
-        Long totalElements = query.uniqueResult();
-        return totalElements.intValue();
+        List<Object[]> rows = new ArrayList<>();
+        if (archived) {
+            NativeQuery<?> archiveQuery = createArchivedOrdersQuery(session, archiveCondition);
+            archiveQuery.setParameter(1, ownerId);
+            archiveQuery.setParameter(2, lastId);
+            archiveQuery.setMaxResults(limit);
+            rows.addAll(toRows(archiveQuery.list()));
+        }
+        Query<Object[]> query = session.createQuery(String.format(recentQuery, FindCertificatesQueryBuilder.CERTIFICATE_COLUMNS), Object[].class);
+        query.setParameter(1, ownerId);
+        query.setParameter(2, lastId);
+        query.setMaxResults(limit);
+        rows.addAll(query.list());
+        rows.sort(Comparator.comparingLong(row -> (Long) row[0]));
+        return toOrders(session, rows.subList(0, Math.min(limit, rows.size())));
+    }
+
+    private void scrollArchivedOrders(Session session, NativeQuery<?> query, Consumer<Order> consumer) {
+        query.setFetchSize(exportFetchSize);
+        List<Object[]> rows = new ArrayList<>(exportFetchSize);
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                rows.add(results.get());
+                if (rows.size() == exportFetchSize) {
+                    toOrders(session, rows).forEach(consumer);
+                    rows.clear();
+                    session.clear();
+                }
+            }
+        }
+        toOrders(session, rows).forEach(consumer);
+        session.clear();
+    }
+
+    private int getUserArchivedOrdersTotalElements(long userId) {
+        return countArchivedOrders("archive user=" + userId, "user_id", userId);
+    }
+
+    private int getCertificateArchivedOrdersTotalElements(long certificateId) {
+        return countArchivedOrders("archive certificate=" + certificateId, "certificate_id", certificateId);
+    }
+
+    private int countArchivedOrders(String key, String ownerColumn, long ownerId) {
+        return countCached(key, () -> {
+            Session session = sessionFactory.getCurrentSession();
+            NativeQuery<?> query = session.createNativeQuery(String.format("SELECT COUNT(*) FROM certificate_order_archive WHERE %s = ?1", ownerColumn));
+            query.addSynchronizedQuerySpace(ARCHIVE_TABLE);
+            query.setParameter(1, ownerId);
+            return ((Number) query.uniqueResult()).intValue();
+        });
+    }
+
+    private NativeQuery<?> createArchivedOrdersQuery(Session session, String condition) {
+        NativeQuery<?> query = session.createNativeQuery(String.format(ARCHIVED_ORDERS_QUERY, condition));
+        query.addScalar("order_id", LongType.INSTANCE);
+        query.addScalar("order_cost", DoubleType.INSTANCE);
+        query.addScalar("order_date", LocalDateTimeType.INSTANCE);
+        query.addScalar("id", LongType.INSTANCE);
+        query.addScalar("name", StringType.INSTANCE);
+        query.addScalar("description", StringType.INSTANCE);
+        query.addScalar("price", DoubleType.INSTANCE);
+        query.addScalar("duration", IntegerType.INSTANCE);
+        query.addScalar("create_date", LocalDateTimeType.INSTANCE);
+        query.addScalar("last_update_date", LocalDateTimeType.INSTANCE);
+        query.addSynchronizedQuerySpace(ARCHIVE_TABLE);
+        return query;
+    }
+
+    private List<Object[]> toRows(List<?> rows) {
+        return rows.stream().map(row -> (Object[]) row).collect(Collectors.toList());
+    }
+
+    private List<Order> toOrders(Session session, List<?> rows) {
+        List<Order> orders = new ArrayList<>();
+        List<Certificate> certificates = new ArrayList<>();
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            Order order = new Order((Long) columns[0], ((Number) columns[1]).doubleValue(), (LocalDateTime) columns[2]);
+            Certificate certificate = CertificateProjections.toCertificate(columns, 3);
+            order.setCertificate(certificate);
+            orders.add(order);
+            certificates.add(certificate);
+        }
+        CertificateProjections.fillTags(session, certificates);
+        return orders;
     }
 }
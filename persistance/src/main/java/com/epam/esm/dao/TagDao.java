@@ -2,6 +2,7 @@ package com.epam.esm.dao;
 
 import com.epam.esm.model.Tag;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,26 @@ public interface TagDao extends Dao<Tag> {
      */
     Optional<Tag> findByName(String name);
 
+    /**
+     * Finds tags that have passed names by one query.
+     * Names that have no tags are skipped
+     *
+     * @param names names of tags that need to be found
+     * @return found tags
+     */
+    List<Tag> findByNames(Collection<String> names);
+
+    /**
+     * Replaces passed tags with saved tags that have the same names
+     * and saves tags whose names are not saved yet. Saved tags are found
+     * by one query and missing tags are inserted by one jdbc batch.
+     * Tags with repeated names are resolved once
+     *
+     * @param tags tags that need to be resolved
+     * @return saved tags in order of passed tags names
+     */
+    List<Tag> resolveOrCreate(List<Tag> tags);
+
     /**
      * Finds and returns specified certificate tags page
      *
@@ -1,13 +1,25 @@
 package com.epam.esm.dao;
 
+import com.epam.esm.index.TagIndex;
 import com.epam.esm.model.Certificate;
 import com.epam.esm.model.Tag;
+import org.hibernate.FlushMode;
 import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Realisation of abstract dao class for tag. Performs sql queries to
@@ -15,9 +27,74 @@ import java.util.Optional;
  */
 @Repository
 public class TagJdbcDao extends AbstractDao<Tag> implements TagDao {
+    private static final String CERTIFICATE_TAGS_ROLE = Certificate.class.getName() + ".tags";
+    private static final String SAVED_NAME_QUERY = "SELECT name FROM tag WHERE id = ?1";
 
-    public TagJdbcDao() {
+    private final TagIndex tagIndex;
+
+    @Autowired
+    public TagJdbcDao(TagIndex tagIndex) {
         super(Tag.class.getSimpleName());
+        this.tagIndex = tagIndex;
+    }
+
+    /**
+     * Performs tag update operation. Saved tag name is read before update
+     * so renamed tag certificates are moved to new name in tag index after commit
+     *
+     * @param entity tag that need to be updated
+     * @return updated tag
+     */
+    @Override
+    public Tag update(Tag entity) {
+        Optional<String> savedName = findSavedName(entity.getId());
+        Tag updatedTag = super.update(entity);
+        savedName.filter(name -> !name.equals(updatedTag.getName()))
+                .ifPresent(name -> tagIndex.renameTagAfterCommit(name, updatedTag.getName()));
+        return updatedTag;
+    }
+
+    /**
+     * Performs tags update operation. Tag index is rebuilt after commit
+     * as tags may be renamed
+     *
+     * @param entities tags that need to be updated
+     * @return updated tags
+     */
+    @Override
+    public List<Tag> updateAll(List<Tag> entities) {
+        List<Tag> updatedTags = super.updateAll(entities);
+        tagIndex.rebuildAfterCommit();
+        return updatedTags;
+    }
+
+    /**
+     * Performs tag delete operation. Certificate tag links are deleted by database
+     * so cached certificates tags collections are evicted to not refer deleted tag.
+     * Collections are evicted once more after commit to drop collections that were
+     * cached by concurrent transactions while delete was not committed.
+     * Tag is removed from tag index after commit
+     *
+     * @param entity tag that need to be deleted
+     */
+    @Override
+    public void delete(Tag entity) {
+        super.delete(entity);
+        evictCertificateTags();
+        tagIndex.removeTagAfterCommit(entity.getName());
+    }
+
+    /**
+     * Performs tags delete operation by bulk delete statements. Cached certificates
+     * tags collections are evicted and tag index is rebuilt after commit
+     *
+     * @param ids ids of tags that need to be deleted
+     */
+    @Override
+    public void deleteAllById(List<Long> ids) {
+        super.deleteAllById(ids);
+        evictCertificateTags();
+        tagIndex.rebuildAfterCommit();
     }
 
     /**
@@ -28,6 +105,7 @@ public class TagJdbcDao extends AbstractDao<Tag> implements TagDao {
      * @return entities on passed page
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Tag> findPage(int offset, int limit) {
         Session session = sessionFactory.getCurrentSession();
         Query<Tag> query = session.createQuery("from Tag", Tag.class);
@@ -36,6 +114,25 @@ public class TagJdbcDao extends AbstractDao<Tag> implements TagDao {
         return query.list();
     }
 
+    /**
+     * Finds and returns entities page that goes after entity with passed id.
+     * Entity id is used as page cursor so database seeks to page start
+     * instead of skipping offset rows
+     *
+     * @param lastId id of last entity on previous page
+     * @param limit  current page limit
+     * @return entities on page after passed id
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Tag> findPageAfter(long lastId, int limit) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Tag> query = session.createQuery("from Tag where id > ?1 order by id", Tag.class);
+        query.setParameter(1, lastId);
+        query.setMaxResults(limit);
+        return query.list();
+    }
+
     /**
      * Finds and returns entity that have passed id
      *
@@ -44,6 +141,7 @@ public class TagJdbcDao extends AbstractDao<Tag> implements TagDao {
      * or empty optional otherwise
      */
     @Override
+    @Transactional(readOnly = true)
     public Optional<Tag> findById(long id) {
         Session session = sessionFactory.getCurrentSession();
         Tag tag = session.get(Tag.class, id);
@@ -59,13 +157,61 @@ public class TagJdbcDao extends AbstractDao<Tag> implements TagDao {
      * or empty tag otherwise
      */
     @Override
+    @Transactional(readOnly = true)
     public Optional<Tag> findByName(String name) {
         Session session = sessionFactory.getCurrentSession();
         Query<Tag> query = session.createQuery("from Tag where name = ?1", Tag.class);
         query.setParameter(1, name);
+        query.setCacheable(true);
         return query.uniqueResultOptional();
     }
 
+    /**
+     * Finds tags that have passed names by one in query.
+     * Names that have no tags are skipped
+     *
+     * @param names names of tags that need to be found
+     * @return found tags
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Tag> findByNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Session session = sessionFactory.getCurrentSession();
+        Query<Tag> query = session.createQuery("from Tag where name in (?1)", Tag.class);
+        query.setParameterList(1, names);
+        return query.list();
+    }
+
+    /**
+     * Replaces passed tags with saved tags that have the same names
+     * and saves tags whose names are not saved yet. Missing tags are
+     * persisted and flushed together so they are inserted by one jdbc
+     * batch. Session is not cleared so entities that were loaded before
+     * stay attached
+     *
+     * @param tags tags that need to be resolved
+     * @return saved tags in order of passed tags names
+     */
+    @Override
+    public List<Tag> resolveOrCreate(List<Tag> tags) {
+        Map<String, Tag> tagsByName = new LinkedHashMap<>();
+        tags.forEach(tag -> tagsByName.putIfAbsent(tag.getName(), tag));
+        findByNames(tagsByName.keySet()).forEach(tag -> tagsByName.put(tag.getName(), tag));
+        List<Tag> missingTags = tagsByName.values().stream()
+                .filter(tag -> tag.getId() == 0)
+                .collect(Collectors.toList());
+        if (!missingTags.isEmpty()) {
+            Session session = sessionFactory.getCurrentSession();
+            missingTags.forEach(session::persist);
+            session.flush();
+            invalidateCounts();
+        }
+        return new ArrayList<>(tagsByName.values());
+    }
+
     /**
      * Finds and returns specified certificate tags page
      *
@@ -75,6 +221,7 @@ public class TagJdbcDao extends AbstractDao<Tag> implements TagDao {
      * @return list of tags on specified page
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Tag> findCertificateTagsPage(long certificateId, int offset, int limit) {
         Session session = sessionFactory.getCurrentSession();
         Query<Tag> query = session.createQuery("select t from Certificate c join c.tags t where c.id = ?1", Tag.class);
@@ -91,6 +238,7 @@ public class TagJdbcDao extends AbstractDao<Tag> implements TagDao {
      * @return list of certificate tags
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Tag> findAllCertificateTags(long certificateId) {
         Session session = sessionFactory.getCurrentSession();
         Query<Certificate> query = session.createQuery("from Certificate where id = ?1", Certificate.class);
@@ -106,11 +254,14 @@ public class TagJdbcDao extends AbstractDao<Tag> implements TagDao {
      * @return amount of specified certificate tags
      */
     @Override
+    @Transactional(readOnly = true)
     public int getCertificateTagsTotalElements(long certificateId) {
-        Session session = sessionFactory.getCurrentSession();
-        Certificate certificate = session.get(Certificate.class, certificateId);
-        List<Tag> certificateTags = certificate.getTags();
-        return certificateTags.size();
+        return countCached("certificate=" + certificateId, () -> {
+            Session session = sessionFactory.getCurrentSession();
+            Certificate certificate = session.get(Certificate.class, certificateId);
+            List<Tag> certificateTags = certificate.getTags();
+            return certificateTags.size();
+        });
     }
 
     /**
@@ -122,6 +273,7 @@ public class TagJdbcDao extends AbstractDao<Tag> implements TagDao {
      * or empty optional otherwise
      */
     @Override
+    @Transactional(readOnly = true)
     public Optional<Tag> findCertificateTag(long certificateId, long tagId) {
         Session session = sessionFactory.getCurrentSession();
         Query<Tag> query = session.createQuery("select t from Certificate c join c.tags t where c.id = ?1 and t.id = ?2", Tag.class);
@@ -129,4 +281,23 @@ public class TagJdbcDao extends AbstractDao<Tag> implements TagDao {
         query.setParameter(2, tagId);
         return query.uniqueResultOptional();
     }
+
+    private Optional<String> findSavedName(long tagId) {
+        NativeQuery<?> query = sessionFactory.getCurrentSession().createNativeQuery(SAVED_NAME_QUERY);
+        query.setParameter(1, tagId);
+        query.setHibernateFlushMode(FlushMode.MANUAL);
+        return query.uniqueResultOptional().map(String.class::cast);
+    }
+
+    private void evictCertificateTags() {
+        sessionFactory.getCache().evictCollectionData(CERTIFICATE_TAGS_ROLE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sessionFactory.getCache().evictCollectionData(CERTIFICATE_TAGS_ROLE);
+                }
+            });
+        }
+    }
 }
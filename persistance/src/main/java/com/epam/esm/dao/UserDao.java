@@ -3,6 +3,8 @@ package com.epam.esm.dao;
 import com.epam.esm.model.Tag;
 import com.epam.esm.model.User;
 
+import java.util.List;
+
 public interface UserDao extends Dao<User> {
 
     /**
@@ -22,6 +24,16 @@ public interface UserDao extends Dao<User> {
      */
     Tag findRichestUserPopularTag();
 
+    /**
+     * Finds and returns user popular tags. Popular tags are tags
+     * that are used most frequently among user orders
+     *
+     * @param userId id of user whose popular tags need to be found
+     * @param k      maximum amount of tags
+     * @return user popular tags from most popular one
+     */
+    List<Tag> findUserPopularTags(long userId, int k);
+
     /**
      * Finds user that has order with passed id
      *
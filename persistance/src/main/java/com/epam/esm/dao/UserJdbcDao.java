@@ -1,25 +1,29 @@
 package com.epam.esm.dao;
 
-import com.epam.esm.model.Certificate;
 import com.epam.esm.model.Order;
 import com.epam.esm.model.Tag;
 import com.epam.esm.model.User;
 import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Join;
-import javax.persistence.criteria.Root;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class UserJdbcDao extends AbstractDao<User> implements UserDao {
+    private static final String VERSION_COLUMNS = "u.version, count(o.id), coalesce(max(o.id), 0), coalesce(sum(c.version), 0)";
+    private static final String VERSION_JOINS = "from User u left join u.orders o left join o.certificate c";
 
-    public UserJdbcDao() {
+    private final UserStatisticsDao userStatisticsDao;
+
+    @Autowired
+    public UserJdbcDao(UserStatisticsDao userStatisticsDao) {
         super(User.class.getSimpleName());
+        this.userStatisticsDao = userStatisticsDao;
     }
 
     /**
@@ -30,6 +34,7 @@ public class UserJdbcDao extends AbstractDao<User> implements UserDao {
      * @return entities on passed page
      */
     @Override
+    @Transactional(readOnly = true)
     public List<User> findPage(int offset, int limit) {
         Session session = sessionFactory.getCurrentSession();
         Query<User> query = session.createQuery("from User", User.class);
@@ -38,6 +43,25 @@ public class UserJdbcDao extends AbstractDao<User> implements UserDao {
         return query.list();
     }
 
+    /**
+     * Finds and returns entities page that goes after entity with passed id.
+     * Entity id is used as page cursor so database seeks to page start
+     * instead of skipping offset rows
+     *
+     * @param lastId id of last entity on previous page
+     * @param limit  current page limit
+     * @return entities on page after passed id
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findPageAfter(long lastId, int limit) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<User> query = session.createQuery("from User where id > ?1 order by id", User.class);
+        query.setParameter(1, lastId);
+        query.setMaxResults(limit);
+        return query.list();
+    }
+
     /**
      * Finds and returns entity that have passed id
      *
@@ -46,28 +70,66 @@ public class UserJdbcDao extends AbstractDao<User> implements UserDao {
      * or empty optional otherwise
      */
     @Override
+    @Transactional(readOnly = true)
     public Optional<User> findById(long id) {
         Session session = sessionFactory.getCurrentSession();
         User user = session.get(User.class, id);
         return Optional.ofNullable(user);
     }
 
+    /**
+     * Finds version of user that have passed id. User representation contains
+     * user orders and their certificates so version is made of user version,
+     * user orders amount, last user order id and sum of ordered certificates versions
+     *
+     * @param id id of user whose version need to be found
+     * @return Optional that contains user version if user with passed id exists
+     * or empty optional otherwise
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> findVersion(long id) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Object[]> query = session.createQuery(String.format("select %s %s where u.id = ?1 group by u.id, u.version",
+                VERSION_COLUMNS, VERSION_JOINS), Object[].class);
+        query.setParameter(1, id);
+        return query.uniqueResultOptional().map(row -> String.format("%s-%s-%s-%s", row));
+    }
+
+    /**
+     * Finds version of users page. Ids and versions of users on page
+     * are selected with their orders versions and hashed together with
+     * cached total users amount
+     *
+     * @param offset current page offset
+     * @param limit  current page limit
+     * @return version of users on passed page
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String findPageVersion(int offset, int limit) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Object[]> query = session.createQuery(String.format("select u.id, %s %s group by u.id, u.version order by u.id",
+                VERSION_COLUMNS, VERSION_JOINS), Object[].class);
+        query.setFirstResult(offset);
+        query.setMaxResults(limit);
+        return hashVersions(getTotalElements(), query.list());
+    }
+
     /**
      * Finds and returns riches user.
      * Riches user is the user that has maximum of orders cost.
+     * Richest user id is taken from maintained users statistics
      *
      * @return user that has maximum orders cost
      */
     @Override
+    @Transactional(readOnly = true)
     public User findRichestUser() {
         Session session = sessionFactory.getCurrentSession();
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-        CriteriaQuery<User> criteriaQuery = criteriaBuilder.createQuery(User.class);
-        Root<User> root = criteriaQuery.from(User.class);
-        Join<User, Order> join = root.join("orders");
-        criteriaQuery.select(root).groupBy(root.get("id")).orderBy(criteriaBuilder.desc(criteriaBuilder.sum(join.get("cost"))));
-        Query<User> query = session.createQuery(criteriaQuery);
-        return query.list().get(0);
+        return userStatisticsDao.findRichestUserId()
+                .map(id -> session.get(User.class, id))
+                .orElseThrow(() -> new IndexOutOfBoundsException("There are no users orders"));
     }
 
     /**
@@ -78,33 +140,59 @@ public class UserJdbcDao extends AbstractDao<User> implements UserDao {
      * @return popular tag
      */
     @Override
+    @Transactional(readOnly = true)
     public Tag findRichestUserPopularTag() {
         User richestUser = findRichestUser();
+        return findUserPopularTags(richestUser.getId(), 1).get(0);
+    }
+
+    /**
+     * Finds and returns user popular tags. Popular tags ids are taken
+     * from maintained users statistics and tags are loaded by ids
+     *
+     * @param userId id of user whose popular tags need to be found
+     * @param k      maximum amount of tags
+     * @return user popular tags from most popular one
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Tag> findUserPopularTags(long userId, int k) {
+        List<Long> tagIds = userStatisticsDao.findPopularTagIds(userId, k);
         Session session = sessionFactory.getCurrentSession();
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-        CriteriaQuery<Tag> criteriaQuery = criteriaBuilder.createQuery(Tag.class);
-        Root<User> root = criteriaQuery.from(User.class);
-        Join<Certificate, Tag> join = root.join("orders").join("certificate").join("tags");
-        criteriaQuery.select(join).where(criteriaBuilder.equal(root.get("id"), richestUser.getId())).groupBy(join).orderBy(criteriaBuilder.desc(criteriaBuilder.count(join)));
-        Query<Tag> query = session.createQuery(criteriaQuery);
-        System.out.println(query.getQueryString());
-        System.out.println(query.list());
-        return query.list().get(0);
+        return session.byMultipleIds(Tag.class).multiLoad(tagIds);
     }
 
     /**
-     * Finds user that has order with passed id
+     * Finds user that has order with passed id. If order is archived
+     * then user is found by archived order user id
      *
      * @param id order id
      * @return user that has order with passed id
      */
     @Override
+    @Transactional(readOnly = true)
     public User findByOrderId(long id) {
         Session session = sessionFactory.getCurrentSession();
         Query<User> query = session.createQuery("select u from User u join u.orders o where o.id = ?1", User.class);
         query.setParameter(1, id);
-        return query.uniqueResult();
+        User user = query.uniqueResult();
+        if (user != null) {
+            return user;
+        }
+        NativeQuery<?> archiveQuery = session.createNativeQuery("SELECT user_id FROM certificate_order_archive WHERE id = ?1");
+        archiveQuery.addSynchronizedQuerySpace("certificate_order_archive");
+        archiveQuery.setParameter(1, id);
+        return archiveQuery.uniqueResultOptional()
+                .map(userId -> session.get(User.class, ((Number) userId).longValue()))
+                .orElse(null);
     }
-}
-
 
+    /**
+     * Invalidates cached users amounts. User orders amounts are
+     * also invalidated because user delete deletes user orders
+     */
+    @Override
+    protected void invalidateCounts() {
+        countCache.invalidate(User.class.getSimpleName(), Order.class.getSimpleName());
+    }
+}
@@ -0,0 +1,77 @@
+package com.epam.esm.dao;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Dao layer interface that defines operations with maintained
+ * users statistics. Statistics are changed together with orders
+ * so that statistics queries do not aggregate orders history.
+ */
+public interface UserStatisticsDao {
+
+    /**
+     * Adds order to user statistics. Order cost is added to total cost
+     * of user orders and ordered certificate tags counters are incremented
+     *
+     * @param userId        id of user that made order
+     * @param certificateId id of ordered certificate
+     * @param cost          order cost
+     */
+    void addUserOrder(long userId, long certificateId, double cost);
+
+    /**
+     * Removes orders of passed certificate from users statistics. Must be
+     * called before certificate orders are deleted. Users that have no
+     * other orders are removed from statistics
+     *
+     * @param certificateId id of certificate whose orders are deleted
+     */
+    void removeCertificateOrders(long certificateId);
+
+    /**
+     * Recomputes tags counters of users that ordered passed certificate.
+     * Used when certificate tags are changed
+     *
+     * @param certificateId id of certificate whose tags are changed
+     */
+    void recomputeCertificateCustomersTags(long certificateId);
+
+    /**
+     * Finds ids of users that ordered passed certificate
+     *
+     * @param certificateId id of ordered certificate
+     * @return ids of users that ordered certificate
+     */
+    List<Long> findCertificateCustomerIds(long certificateId);
+
+    /**
+     * Recomputes statistics of passed users from their orders.
+     * Used when users orders or ordered certificates tags are changed
+     *
+     * @param userIds ids of users whose statistics need to be recomputed
+     */
+    void recomputeUsers(List<Long> userIds);
+
+    /**
+     * Finds id of user that has maximum of total orders cost
+     *
+     * @return optional id of richest user or empty optional
+     * if there are no orders
+     */
+    Optional<Long> findRichestUserId();
+
+    /**
+     * Finds ids of tags that are most frequently used among user orders
+     *
+     * @param userId id of user whose tags need to be found
+     * @param k      maximum amount of tags
+     * @return ids of user popular tags from most popular one
+     */
+    List<Long> findPopularTagIds(long userId, int k);
+
+    /**
+     * Recomputes all users statistics from orders
+     */
+    void rebuild();
+}
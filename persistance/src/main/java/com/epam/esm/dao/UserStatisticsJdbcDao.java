@@ -0,0 +1,245 @@
+package com.epam.esm.dao;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Realisation of users statistics dao. Uses user_spend table that holds total
+ * cost of orders of each user and user_tag_count table that holds how many
+ * user orders have each tag. Tables are changed when order is made so that
+ * richest user and user popular tags are found by index instead of aggregating
+ * all orders. Statistics are computed from both recent and archived orders.
+ * Native queries declare changed tables so that hibernate caches
+ * of other tables are not invalidated.
+ */
+@Repository
+@Transactional
+public class UserStatisticsJdbcDao implements UserStatisticsDao {
+    private static final String USER_SPEND_TABLE = "user_spend";
+    private static final String USER_TAG_COUNT_TABLE = "user_tag_count";
+    private static final String USERS_ORDERS = "(SELECT user_id, certificate_id, cost FROM certificate_order WHERE user_id IN (?1) " +
+            "UNION ALL SELECT user_id, certificate_id, cost FROM certificate_order_archive WHERE user_id IN (?1)) o";
+    private static final String ALL_USERS_SPEND = "(SELECT user_id, SUM(cost) AS cost FROM certificate_order GROUP BY user_id " +
+            "UNION ALL SELECT user_id, SUM(cost) AS cost FROM certificate_order_archive GROUP BY user_id) o";
+    private static final String ALL_USERS_CERTIFICATES = "(SELECT user_id, certificate_id, COUNT(*) AS order_count FROM certificate_order GROUP BY user_id, certificate_id " +
+            "UNION ALL SELECT user_id, certificate_id, COUNT(*) AS order_count FROM certificate_order_archive GROUP BY user_id, certificate_id) o";
+    private static final String CERTIFICATE_ORDERS = "(SELECT user_id, cost FROM certificate_order WHERE certificate_id = ?1 " +
+            "UNION ALL SELECT user_id, cost FROM certificate_order_archive WHERE certificate_id = ?1)";
+    private static final String CERTIFICATE_CUSTOMERS = "(SELECT user_id FROM certificate_order WHERE certificate_id = ?1 " +
+            "UNION SELECT user_id FROM certificate_order_archive WHERE certificate_id = ?1)";
+
+    private final SessionFactory sessionFactory;
+    private final boolean rebuildOnStartup;
+
+    @Autowired
+    public UserStatisticsJdbcDao(SessionFactory sessionFactory, @Value("${db.userStatistics.rebuildOnStartup}") boolean rebuildOnStartup) {
+        this.sessionFactory = sessionFactory;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    /**
+     * Adds order to user statistics. User total cost and user tags counters
+     * are changed by upsert statements so concurrent first orders of one user
+     * do not insert the same rows twice
+     *
+     * @param userId        id of user that made order
+     * @param certificateId id of ordered certificate
+     * @param cost          order cost
+     */
+    @Override
+    public void addUserOrder(long userId, long certificateId, double cost) {
+        NativeQuery<?> upsertSpend = createUpdate("INSERT INTO user_spend (user_id, total_cost) VALUES (?1, ?2) " +
+                "ON DUPLICATE KEY UPDATE total_cost = total_cost + VALUES(total_cost)", USER_SPEND_TABLE);
+        upsertSpend.setParameter(1, userId);
+        upsertSpend.setParameter(2, cost);
+        upsertSpend.executeUpdate();
+        NativeQuery<?> upsertTagCounts = createUpdate("INSERT INTO user_tag_count (user_id, tag_id, order_count) " +
+                "SELECT ?1, ct.tag_id, 1 FROM certificate_tag ct WHERE ct.certificate_id = ?2 " +
+                "ON DUPLICATE KEY UPDATE order_count = order_count + 1", USER_TAG_COUNT_TABLE);
+        upsertTagCounts.setParameter(1, userId);
+        upsertTagCounts.setParameter(2, certificateId);
+        upsertTagCounts.executeUpdate();
+    }
+
+    /**
+     * Removes orders of passed certificate from users statistics. Costs and
+     * tags counters of certificate orders are subtracted from statistics of
+     * certificate customers by set based statements. Users that have no
+     * other orders and counters that drop to zero are deleted so
+     * that they are not found as richest user or popular tags
+     *
+     * @param certificateId id of certificate whose orders are deleted
+     */
+    @Override
+    public void removeCertificateOrders(long certificateId) {
+        NativeQuery<?> subtractSpend = createUpdate("UPDATE user_spend SET total_cost = total_cost - " +
+                "(SELECT SUM(o.cost) FROM " + CERTIFICATE_ORDERS + " o WHERE o.user_id = user_spend.user_id) " +
+                "WHERE user_id IN " + CERTIFICATE_CUSTOMERS, USER_SPEND_TABLE);
+        subtractSpend.setParameter(1, certificateId);
+        subtractSpend.executeUpdate();
+        NativeQuery<?> deleteSpend = createUpdate("DELETE FROM user_spend WHERE user_id IN " + CERTIFICATE_CUSTOMERS + " " +
+                "AND NOT EXISTS (SELECT 1 FROM certificate_order r WHERE r.user_id = user_spend.user_id AND r.certificate_id <> ?1) " +
+                "AND NOT EXISTS (SELECT 1 FROM certificate_order_archive a WHERE a.user_id = user_spend.user_id AND a.certificate_id <> ?1)", USER_SPEND_TABLE);
+        deleteSpend.setParameter(1, certificateId);
+        deleteSpend.executeUpdate();
+        NativeQuery<?> subtractTagCounts = createUpdate("UPDATE user_tag_count SET order_count = order_count - " +
+                "(SELECT COUNT(*) FROM " + CERTIFICATE_ORDERS + " o WHERE o.user_id = user_tag_count.user_id) " +
+                "WHERE user_id IN " + CERTIFICATE_CUSTOMERS + " " +
+                "AND tag_id IN (SELECT ct.tag_id FROM certificate_tag ct WHERE ct.certificate_id = ?1)", USER_TAG_COUNT_TABLE);
+        subtractTagCounts.setParameter(1, certificateId);
+        subtractTagCounts.executeUpdate();
+        NativeQuery<?> deleteTagCounts = createUpdate("DELETE FROM user_tag_count WHERE user_id IN " + CERTIFICATE_CUSTOMERS + " " +
+                "AND order_count <= 0", USER_TAG_COUNT_TABLE);
+        deleteTagCounts.setParameter(1, certificateId);
+        deleteTagCounts.executeUpdate();
+    }
+
+    /**
+     * Recomputes tags counters of users that ordered passed certificate.
+     * Customers are selected by subquery so their ids are not loaded
+     * and only orders of these customers are aggregated
+     *
+     * @param certificateId id of certificate whose tags are changed
+     */
+    @Override
+    public void recomputeCertificateCustomersTags(long certificateId) {
+        NativeQuery<?> deleteTagCounts = createUpdate("DELETE FROM user_tag_count WHERE user_id IN " + CERTIFICATE_CUSTOMERS, USER_TAG_COUNT_TABLE);
+        deleteTagCounts.setParameter(1, certificateId);
+        deleteTagCounts.executeUpdate();
+        NativeQuery<?> insertTagCounts = createUpdate("INSERT INTO user_tag_count (user_id, tag_id, order_count) " +
+                "SELECT o.user_id, ct.tag_id, COUNT(*) FROM " +
+                "(SELECT user_id, certificate_id FROM certificate_order WHERE user_id IN " + CERTIFICATE_CUSTOMERS + " " +
+                "UNION ALL SELECT user_id, certificate_id FROM certificate_order_archive WHERE user_id IN " + CERTIFICATE_CUSTOMERS + ") o " +
+                "JOIN certificate_tag ct ON ct.certificate_id = o.certificate_id " +
+                "GROUP BY o.user_id, ct.tag_id", USER_TAG_COUNT_TABLE);
+        insertTagCounts.setParameter(1, certificateId);
+        insertTagCounts.executeUpdate();
+    }
+
+    /**
+     * Finds ids of users that ordered passed certificate
+     *
+     * @param certificateId id of ordered certificate
+     * @return ids of users that ordered certificate
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findCertificateCustomerIds(long certificateId) {
+        Session session = sessionFactory.getCurrentSession();
+        NativeQuery<?> query = session.createNativeQuery("SELECT c.user_id FROM " + CERTIFICATE_CUSTOMERS + " c ORDER BY c.user_id");
+        query.setParameter(1, certificateId);
+        return toIds(query.list());
+    }
+
+    /**
+     * Recomputes statistics of passed users from their orders.
+     * Used when users orders or ordered certificates tags are changed
+     *
+     * @param userIds ids of users whose statistics need to be recomputed
+     */
+    @Override
+    public void recomputeUsers(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        NativeQuery<?> deleteSpend = createUpdate("DELETE FROM user_spend WHERE user_id IN (?1)", USER_SPEND_TABLE);
+        deleteSpend.setParameterList(1, userIds);
+        deleteSpend.executeUpdate();
+        NativeQuery<?> insertSpend = createUpdate("INSERT INTO user_spend (user_id, total_cost) " +
+                "SELECT user_id, SUM(cost) FROM " + USERS_ORDERS + " GROUP BY user_id", USER_SPEND_TABLE);
+        insertSpend.setParameterList(1, userIds);
+        insertSpend.executeUpdate();
+        NativeQuery<?> deleteTagCounts = createUpdate("DELETE FROM user_tag_count WHERE user_id IN (?1)", USER_TAG_COUNT_TABLE);
+        deleteTagCounts.setParameterList(1, userIds);
+        deleteTagCounts.executeUpdate();
+        NativeQuery<?> insertTagCounts = createUpdate("INSERT INTO user_tag_count (user_id, tag_id, order_count) " +
+                "SELECT o.user_id, ct.tag_id, COUNT(*) FROM " + USERS_ORDERS + " " +
+                "JOIN certificate_tag ct ON ct.certificate_id = o.certificate_id " +
+                "GROUP BY o.user_id, ct.tag_id", USER_TAG_COUNT_TABLE);
+        insertTagCounts.setParameterList(1, userIds);
+        insertTagCounts.executeUpdate();
+    }
+
+    /**
+     * Finds id of user that has maximum of total orders cost
+     *
+     * @return optional id of richest user or empty optional
+     * if there are no orders
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findRichestUserId() {
+        Session session = sessionFactory.getCurrentSession();
+        NativeQuery<?> query = session.createNativeQuery("SELECT user_id FROM user_spend ORDER BY total_cost DESC, user_id");
+        query.setMaxResults(1);
+        return toIds(query.list()).stream().findFirst();
+    }
+
+    /**
+     * Finds ids of tags that are most frequently used among user orders
+     *
+     * @param userId id of user whose tags need to be found
+     * @param k      maximum amount of tags
+     * @return ids of user popular tags from most popular one
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findPopularTagIds(long userId, int k) {
+        Session session = sessionFactory.getCurrentSession();
+        NativeQuery<?> query = session.createNativeQuery("SELECT tag_id FROM user_tag_count WHERE user_id = ?1 ORDER BY order_count DESC, tag_id");
+        query.setParameter(1, userId);
+        query.setMaxResults(k);
+        return toIds(query.list());
+    }
+
+    /**
+     * Recomputes total costs of all users orders and all users tags counters.
+     * Recent and archived orders are aggregated separately before their
+     * results are merged, so union of whole order tables is not materialized
+     */
+    @Override
+    public void rebuild() {
+        createUpdate("DELETE FROM user_spend", USER_SPEND_TABLE).executeUpdate();
+        createUpdate("INSERT INTO user_spend (user_id, total_cost) " +
+                "SELECT user_id, SUM(cost) FROM " + ALL_USERS_SPEND + " GROUP BY user_id", USER_SPEND_TABLE).executeUpdate();
+        createUpdate("DELETE FROM user_tag_count", USER_TAG_COUNT_TABLE).executeUpdate();
+        createUpdate("INSERT INTO user_tag_count (user_id, tag_id, order_count) " +
+                "SELECT o.user_id, ct.tag_id, SUM(o.order_count) FROM " + ALL_USERS_CERTIFICATES + " " +
+                "JOIN certificate_tag ct ON ct.certificate_id = o.certificate_id " +
+                "GROUP BY o.user_id, ct.tag_id", USER_TAG_COUNT_TABLE).executeUpdate();
+    }
+
+    /**
+     * Recomputes statistics on startup if db.userStatistics.rebuildOnStartup is set
+     *
+     * @param event context refreshed event
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuildOnStartup(ContextRefreshedEvent event) {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    private NativeQuery<?> createUpdate(String sql, String changedTable) {
+        Session session = sessionFactory.getCurrentSession();
+        NativeQuery<?> query = session.createNativeQuery(sql);
+        query.addSynchronizedQuerySpace(changedTable);
+        return query;
+    }
+
+    private List<Long> toIds(List<?> rows) {
+        return rows.stream().map(id -> ((Number) id).longValue()).collect(Collectors.toList());
+    }
+}
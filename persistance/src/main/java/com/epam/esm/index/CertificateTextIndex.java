@@ -0,0 +1,192 @@
+package com.epam.esm.index;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In memory trigram index of certificates names and descriptions. Finds
+ * certificates whose name or description contains passed part without
+ * scanning gift_certificate table. Parts are matched case insensitive.
+ * Parts that are shorter than three characters or contain like wildcards
+ * can't be found by index and must be found by sql query.
+ * Index is optional and is enabled by db.textIndex.enabled property.
+ * Index is built on startup and is changed after certificate change
+ * transaction is committed.
+ */
+@Component
+public class CertificateTextIndex {
+    private static final String CERTIFICATES_QUERY = "select c.id, c.name, c.description from Certificate c";
+    private static final String CERTIFICATE_QUERY = "select c.name, c.description from Certificate c where c.id = ?1";
+
+    private final SessionFactory sessionFactory;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private TrigramIndex names = new TrigramIndex();
+    private TrigramIndex descriptions = new TrigramIndex();
+    private volatile boolean built;
+
+    @Autowired
+    public CertificateTextIndex(SessionFactory sessionFactory, @Value("${db.textIndex.enabled}") boolean enabled) {
+        this.sessionFactory = sessionFactory;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Builds index from all saved certificates if index is enabled
+     */
+    @PostConstruct
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        TrigramIndex rebuiltNames = new TrigramIndex();
+        TrigramIndex rebuiltDescriptions = new TrigramIndex();
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Query<?> query = session.createQuery(CERTIFICATES_QUERY);
+            try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    int id = Math.toIntExact((Long) results.get(0));
+                    rebuiltNames.put(id, (String) results.get(1));
+                    rebuiltDescriptions.put(id, (String) results.get(2));
+                }
+            }
+        }
+        rebuiltNames.optimize();
+        rebuiltDescriptions.optimize();
+        lock.writeLock().lock();
+        try {
+            names = rebuiltNames;
+            descriptions = rebuiltDescriptions;
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if passed part may be found by index
+     *
+     * @param part part of name or description
+     * @return true if index is available and part may be found by index
+     */
+    public boolean canFind(String part) {
+        return enabled && built && part != null && part.length() >= TrigramIndex.GRAM_LENGTH
+                && part.indexOf('%') < 0 && part.indexOf('_') < 0;
+    }
+
+    /**
+     * Finds ids of certificates whose name contains passed part
+     *
+     * @param partOfName part of certificate name
+     * @return bitmap of found certificates ids
+     */
+    public RoaringBitmap findByPartOfName(String partOfName) {
+        lock.readLock().lock();
+        try {
+            return names.findContaining(partOfName);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds ids of certificates whose description contains passed part
+     *
+     * @param partOfDescription part of certificate description
+     * @return bitmap of found certificates ids
+     */
+    public RoaringBitmap findByPartOfDescription(String partOfDescription) {
+        lock.readLock().lock();
+        try {
+            return descriptions.findContaining(partOfDescription);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds index after current transaction commit. Used after
+     * bulk changes when rereading each changed certificate is too costly
+     */
+    public void rebuildAfterCommit() {
+        runAfterCommit(this::rebuild);
+    }
+
+    /**
+     * Rereads certificate name and description after current transaction commit
+     *
+     * @param certificateId id of saved or updated certificate
+     */
+    public void refreshCertificateAfterCommit(long certificateId) {
+        runAfterCommit(() -> refreshCertificate(certificateId));
+    }
+
+    /**
+     * Removes certificate from index after current transaction commit
+     *
+     * @param certificateId id of deleted certificate
+     */
+    public void removeCertificateAfterCommit(long certificateId) {
+        runAfterCommit(() -> {
+            int id = Math.toIntExact(certificateId);
+            lock.writeLock().lock();
+            try {
+                names.remove(id);
+                descriptions.remove(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void refreshCertificate(long certificateId) {
+        Object[] certificate;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Query<Object[]> query = session.createQuery(CERTIFICATE_QUERY, Object[].class);
+            query.setParameter(1, certificateId);
+            certificate = query.uniqueResult();
+        }
+        int id = Math.toIntExact(certificateId);
+        lock.writeLock().lock();
+        try {
+            if (certificate == null) {
+                names.remove(id);
+                descriptions.remove(id);
+            } else {
+                names.put(id, (String) certificate[0]);
+                descriptions.put(id, (String) certificate[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!enabled || !built) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
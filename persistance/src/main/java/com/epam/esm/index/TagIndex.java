@@ -0,0 +1,252 @@
+package com.epam.esm.index;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In memory inverted index from tag name to compressed bitmap of ids of
+ * certificates that have that tag. Certificates that have all passed tags
+ * are found by bitmaps intersection without joining certificate_tag table.
+ * Index is optional and is enabled by db.tagIndex.enabled property.
+ * Index is built on startup and is changed after certificate or tag
+ * change transaction is committed. Changed certificate tags are read from
+ * database so index contains committed certificate tags. Tag names are
+ * stored in lower case so tags are matched ignoring case like they are
+ * matched by lower cased names in certificates search query.
+ */
+@Component
+public class TagIndex {
+    private static final String CERTIFICATE_TAGS_QUERY = "select c.id, t.name from Certificate c join c.tags t";
+    private static final String CERTIFICATE_TAG_NAMES_QUERY = "select t.name from Certificate c join c.tags t where c.id = ?1";
+
+    private final SessionFactory sessionFactory;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, RoaringBitmap> certificatesByTag = new HashMap<>();
+    private volatile boolean built;
+
+    @Autowired
+    public TagIndex(SessionFactory sessionFactory, @Value("${db.tagIndex.enabled}") boolean enabled) {
+        this.sessionFactory = sessionFactory;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Builds index from all saved certificate tags if index is enabled
+     */
+    @PostConstruct
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, RoaringBitmap> rebuiltIndex = new HashMap<>();
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Query<?> query = session.createQuery(CERTIFICATE_TAGS_QUERY);
+            try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    long certificateId = (Long) results.get(0);
+                    String tagName = toKey((String) results.get(1));
+                    rebuiltIndex.computeIfAbsent(tagName, name -> new RoaringBitmap()).add(toIndexId(certificateId));
+                }
+            }
+        }
+        rebuiltIndex.values().forEach(RoaringBitmap::runOptimize);
+        lock.writeLock().lock();
+        try {
+            certificatesByTag = rebuiltIndex;
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if index is enabled and built so it may be used to find certificates
+     *
+     * @return true if index may be used
+     */
+    public boolean isAvailable() {
+        return enabled && built;
+    }
+
+    /**
+     * Finds ids of certificates that have all passed tags
+     *
+     * @param tagNames names of tags that certificates must have
+     * @return bitmap of ids of certificates that have all passed tags
+     */
+    public RoaringBitmap findCertificatesWithAllTags(Collection<String> tagNames) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap certificates = null;
+            for (String tagName : tagNames) {
+                RoaringBitmap tagCertificates = certificatesByTag.get(toKey(tagName));
+                if (tagCertificates == null) {
+                    return new RoaringBitmap();
+                }
+                certificates = certificates == null ? tagCertificates.clone() : RoaringBitmap.and(certificates, tagCertificates);
+            }
+            return certificates == null ? new RoaringBitmap() : certificates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of found certificates on specified page in ascending order
+     *
+     * @param certificates bitmap of found certificates ids
+     * @param offset       current page offset
+     * @param limit        current page limit
+     * @return ids of certificates on page
+     */
+    public List<Long> page(RoaringBitmap certificates, int offset, int limit) {
+        List<Long> ids = new ArrayList<>();
+        if (offset >= certificates.getCardinality()) {
+            return ids;
+        }
+        PeekableIntIterator iterator = certificates.getIntIterator();
+        iterator.advanceIfNeeded(certificates.select(offset));
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add((long) iterator.next());
+        }
+        return ids;
+    }
+
+    /**
+     * Rebuilds index after current transaction commit. Used after
+     * bulk changes when rereading each changed certificate is too costly
+     */
+    public void rebuildAfterCommit() {
+        runAfterCommit(this::rebuild);
+    }
+
+    /**
+     * Rereads certificate tags after current transaction commit
+     *
+     * @param certificateId id of saved or updated certificate
+     */
+    public void refreshCertificateAfterCommit(long certificateId) {
+        runAfterCommit(() -> refreshCertificate(certificateId));
+    }
+
+    /**
+     * Removes certificate from index after current transaction commit
+     *
+     * @param certificateId id of deleted certificate
+     */
+    public void removeCertificateAfterCommit(long certificateId) {
+        runAfterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeCertificate(toIndexId(certificateId));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes tag from index after current transaction commit
+     *
+     * @param tagName name of deleted tag
+     */
+    public void removeTagAfterCommit(String tagName) {
+        runAfterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                certificatesByTag.remove(toKey(tagName));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Moves certificates of renamed tag to its new name after current transaction commit
+     *
+     * @param oldName name of tag before update
+     * @param newName name of tag after update
+     */
+    public void renameTagAfterCommit(String oldName, String newName) {
+        runAfterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                RoaringBitmap certificates = certificatesByTag.remove(toKey(oldName));
+                if (certificates != null) {
+                    certificatesByTag.merge(toKey(newName), certificates, (saved, renamed) -> RoaringBitmap.or(saved, renamed));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void refreshCertificate(long certificateId) {
+        List<String> tagNames;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Query<String> query = session.createQuery(CERTIFICATE_TAG_NAMES_QUERY, String.class);
+            query.setParameter(1, certificateId);
+            tagNames = query.list();
+        }
+        int indexId = toIndexId(certificateId);
+        lock.writeLock().lock();
+        try {
+            removeCertificate(indexId);
+            for (String tagName : tagNames) {
+                certificatesByTag.computeIfAbsent(toKey(tagName), name -> new RoaringBitmap()).add(indexId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeCertificate(int indexId) {
+        certificatesByTag.values().forEach(certificates -> certificates.remove(indexId));
+        certificatesByTag.values().removeIf(RoaringBitmap::isEmpty);
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!isAvailable()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private String toKey(String tagName) {
+        return tagName.toLowerCase(Locale.ROOT);
+    }
+
+    private int toIndexId(long certificateId) {
+        return Math.toIntExact(certificateId);
+    }
+}
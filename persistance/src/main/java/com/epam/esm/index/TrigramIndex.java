@@ -0,0 +1,107 @@
+package com.epam.esm.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index of one text field. Every text is split to all its three
+ * characters substrings and id of text owner is added to bitmap of each
+ * substring. Substring query candidates are intersection of query trigrams
+ * bitmaps. Candidates are verified by indexed text so found ids exactly match query.
+ * Texts are indexed and matched in lower case. Class is not thread safe.
+ */
+class TrigramIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<String, RoaringBitmap> idsByTrigram = new HashMap<>();
+    private final Map<Integer, String> texts = new HashMap<>();
+
+    /**
+     * Adds text to index or replaces indexed text of passed id
+     *
+     * @param id   id of text owner
+     * @param text text that need to be indexed
+     */
+    void put(int id, String text) {
+        remove(id);
+        if (text == null) {
+            return;
+        }
+        String normalizedText = normalize(text);
+        texts.put(id, normalizedText);
+        for (String trigram : trigrams(normalizedText)) {
+            idsByTrigram.computeIfAbsent(trigram, key -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    /**
+     * Removes indexed text of passed id
+     *
+     * @param id id of text owner
+     */
+    void remove(int id) {
+        String text = texts.remove(id);
+        if (text == null) {
+            return;
+        }
+        for (String trigram : trigrams(text)) {
+            RoaringBitmap ids = idsByTrigram.get(trigram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    idsByTrigram.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds ids of texts that contain passed substring. Substring
+     * must have at least three characters
+     *
+     * @param part substring that texts must contain
+     * @return ids of texts that contain passed substring
+     */
+    RoaringBitmap findContaining(String part) {
+        String normalizedPart = normalize(part);
+        RoaringBitmap candidates = null;
+        for (String trigram : trigrams(normalizedPart)) {
+            RoaringBitmap ids = idsByTrigram.get(trigram);
+            if (ids == null) {
+                return new RoaringBitmap();
+            }
+            candidates = candidates == null ? ids.clone() : RoaringBitmap.and(candidates, ids);
+        }
+        RoaringBitmap found = new RoaringBitmap();
+        if (candidates == null) {
+            return found;
+        }
+        candidates.forEach((int id) -> {
+            if (texts.get(id).contains(normalizedPart)) {
+                found.add(id);
+            }
+        });
+        return found;
+    }
+
+    void optimize() {
+        idsByTrigram.values().forEach(RoaringBitmap::runOptimize);
+    }
+
+    private Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return trigrams;
+    }
+
+    private String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,238 @@
+package com.epam.esm.ingest;
+
+import com.epam.esm.concurrent.ThreadFactories;
+import com.epam.esm.dao.OrderDao;
+import com.epam.esm.model.Certificate;
+import com.epam.esm.model.Order;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit queue of users orders. Submitted orders are saved by one
+ * writer thread that takes up to db.orderIngestion.batchSize orders or
+ * orders submitted during db.orderIngestion.maxDelayMillis after first
+ * taken order and saves them in one transaction. Future of submitted order
+ * is completed after transaction is committed. If batch transaction fails
+ * then orders of batch are saved one by one so that one invalid order does
+ * not fail other orders. Queue is bounded and order submit fails when queue
+ * is full or stopped. Every submitted order future is completed by writer
+ * with saved order or with save failure, so callers may wait for real order
+ * outcome. Queue is optional and is enabled by db.orderIngestion.enabled property.
+ */
+@Component
+public class OrderIngestionQueue {
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final OrderDao orderDao;
+    private final SessionFactory sessionFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadFactories threadFactories;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final long maxDelayMillis;
+    private final BlockingQueue<PendingOrder> queue;
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public OrderIngestionQueue(OrderDao orderDao, SessionFactory sessionFactory, PlatformTransactionManager transactionManager,
+                               ThreadFactories threadFactories,
+                               @Value("${db.orderIngestion.enabled}") boolean enabled,
+                               @Value("${db.orderIngestion.queueCapacity}") int capacity,
+                               @Value("${db.orderIngestion.batchSize}") int batchSize,
+                               @Value("${db.orderIngestion.maxDelayMillis}") long maxDelayMillis) {
+        this.orderDao = orderDao;
+        this.sessionFactory = sessionFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.threadFactories = threadFactories;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxDelayMillis = maxDelayMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Starts writer thread if queue is enabled
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = threadFactories.newThreadFactory("order-ingestion").newThread(this::write);
+        writer.start();
+    }
+
+    /**
+     * Stops writer thread after all submitted orders are saved. Orders
+     * that are left in queue by writer are failed
+     *
+     * @throws InterruptedException if thread is interrupted while waiting writer
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join();
+        }
+        failQueued(new RejectedExecutionException("Order ingestion queue is stopped"));
+    }
+
+    /**
+     * Checks if orders may be submitted to queue
+     *
+     * @return true if queue is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns maximum amount of not saved orders
+     *
+     * @return queue capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Submits order to be saved as passed user order. Order certificate
+     * must be saved before
+     *
+     * @param userId id of user that made order
+     * @param order  order that need to be saved
+     * @return future that is completed by saved order after its transaction commit
+     * @throws RejectedExecutionException if queue is full or stopped
+     */
+    public CompletableFuture<Order> submit(long userId, Order order) {
+        PendingOrder pendingOrder = new PendingOrder(userId, order);
+        if (!running || !queue.offer(pendingOrder)) {
+            throw new RejectedExecutionException(String.format("Order ingestion queue is full or stopped, capacity %d", capacity));
+        }
+        if (!running && queue.remove(pendingOrder)) {
+            throw new RejectedExecutionException("Order ingestion queue is stopped");
+        }
+        return pendingOrder.future;
+    }
+
+    private void write() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingOrder next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                fail(batch, e);
+                failQueued(e);
+                return;
+            }
+            try {
+                flush(batch);
+            } catch (Throwable e) {
+                fail(batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingOrder> batch) {
+        try {
+            save(batch);
+            batch.forEach(PendingOrder::complete);
+        } catch (Throwable batchException) {
+            for (PendingOrder pendingOrder : batch) {
+                pendingOrder.reset();
+                try {
+                    save(Collections.singletonList(pendingOrder));
+                    pendingOrder.complete();
+                } catch (Throwable e) {
+                    pendingOrder.reset();
+                    pendingOrder.future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private void fail(List<PendingOrder> batch, Throwable cause) {
+        for (PendingOrder pendingOrder : batch) {
+            if (!pendingOrder.future.isDone()) {
+                pendingOrder.reset();
+                pendingOrder.future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    private void failQueued(Throwable cause) {
+        List<PendingOrder> queued = new ArrayList<>();
+        queue.drainTo(queued);
+        fail(queued, cause);
+    }
+
+    private void save(List<PendingOrder> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (PendingOrder pendingOrder : batch) {
+                Order order = pendingOrder.order;
+                long certificateId = pendingOrder.certificate.getId();
+                order.setCertificate(sessionFactory.getCurrentSession().load(Certificate.class, certificateId));
+                orderDao.saveUserOrder(pendingOrder.userId, order);
+            }
+        });
+    }
+
+    private static class PendingOrder {
+        private final long userId;
+        private final Order order;
+        private final Certificate certificate;
+        private final CompletableFuture<Order> future = new CompletableFuture<>();
+
+        private PendingOrder(long userId, Order order) {
+            this.userId = userId;
+            this.order = order;
+            this.certificate = order.getCertificate();
+        }
+
+        private void complete() {
+            order.setCertificate(certificate);
+            future.complete(order);
+        }
+
+        private void reset() {
+            order.setId(0);
+            order.setCertificate(certificate);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.epam.esm.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.Table;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -15,7 +20,11 @@ import java.util.Objects;
 
 @javax.persistence.Entity
 @Table(name = "gift_certificate")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "certificate")
+@NamedEntityGraph(name = Certificate.TAGS_GRAPH, attributeNodes = @NamedAttributeNode("tags"))
 public class Certificate extends Entity {
+    public static final String TAGS_GRAPH = "Certificate.tags";
+
     @Column(name = "name")
     private String name;
     @Column(name = "description")
@@ -29,6 +38,8 @@ public class Certificate extends Entity {
     @Column(name = "last_update_date")
     private LocalDateTime lastUpdateDate;
     @ManyToMany(cascade = CascadeType.PERSIST)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "certificate-tags")
+    @BatchSize(size = 50)
     @JoinTable(name = "certificate_tag",
             joinColumns = {@JoinColumn(name = "certificate_id")},
             inverseJoinColumns = {@JoinColumn(name = "tag_id")})
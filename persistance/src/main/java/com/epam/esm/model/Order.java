@@ -1,5 +1,7 @@
 package com.epam.esm.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.OneToOne;
@@ -16,6 +18,8 @@ public class Order extends Entity {
     private LocalDateTime orderDate;
     @OneToOne(targetEntity = Certificate.class, cascade = CascadeType.ALL)
     private Certificate certificate;
+    @Column(name = "user_id")
+    private long userId;
 
     public Order() {
     }
@@ -55,6 +59,15 @@ public class Order extends Entity {
         this.certificate = certificate;
     }
 
+    @JsonIgnore
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
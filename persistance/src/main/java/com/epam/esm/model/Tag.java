@@ -1,11 +1,15 @@
 package com.epam.esm.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.Column;
 import javax.persistence.Table;
 import java.util.Objects;
 
 @javax.persistence.Entity
 @Table(name = "tag")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tag")
 public class Tag extends Entity {
     @Column(name = "name")
     private String name;
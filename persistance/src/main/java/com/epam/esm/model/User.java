@@ -1,5 +1,6 @@
 package com.epam.esm.model;
 
+import org.hibernate.annotations.BatchSize;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.JoinColumn;
@@ -16,7 +17,8 @@ public class User extends Entity {
     @Column(name = "surname")
     private String surname;
     @OneToMany(targetEntity = Order.class, cascade = CascadeType.ALL)
-    @JoinColumn(name = "user_id")
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    @BatchSize(size = 50)
     private List<Order> orders;
 
     public User() {
@@ -1,14 +1,24 @@
-INSERT INTO tag  values (1, 'spotify');
-INSERT INTO tag  values (2, 'music');
-INSERT INTO tag  values (3, 'art');
+INSERT INTO tag  values (1, 'spotify', 0);
+INSERT INTO tag  values (2, 'music', 0);
+INSERT INTO tag  values (3, 'art', 0);
 
-INSERT INTO gift_certificate values (1, 'free music listen certificate', 'spotify free music listening', 200.50, 20, null, null);
+INSERT INTO gift_certificate values (1, 'free music listen certificate', 'spotify free music listening', 200.50, 20, null, null, 0);
 
 INSERT INTO certificate_tag values(1, 1, 1);
 INSERT INTO certificate_tag values(2, 1, 2);
 INSERT INTO certificate_tag values(3, 1, 3);
 
-INSERT INTO user values (1, 'user', 'test');
+INSERT INTO user values (1, 'user', 'test', 0);
 
-INSERT INTO certificate_order values(1, 200.50, null, 1, 1);
+INSERT INTO certificate_order values(1, 200.50, null, 1, 1, 0);
 
+INSERT INTO user_spend values(1, 200.50);
+
+INSERT INTO user_tag_count values(1, 1, 1);
+INSERT INTO user_tag_count values(1, 2, 1);
+INSERT INTO user_tag_count values(1, 3, 1);
+
+UPDATE id_generator SET next_val = 4 WHERE sequence_name = 'tag' AND next_val < 4;
+UPDATE id_generator SET next_val = 2 WHERE sequence_name = 'gift_certificate' AND next_val < 2;
+UPDATE id_generator SET next_val = 2 WHERE sequence_name = 'user' AND next_val < 2;
+UPDATE id_generator SET next_val = 2 WHERE sequence_name = 'certificate_order' AND next_val < 2;
@@ -39,4 +39,4 @@ CREATE TABLE IF NOT EXISTS certificate_order (
     REFERENCES gift_certificate(id) ON DELETE CASCADE,
     CONSTRAINT user_fk FOREIGN KEY (user_id)
     REFERENCES user (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
@@ -0,0 +1,20 @@
+CREATE TABLE IF NOT EXISTS id_generator (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'tag', COALESCE(MAX(id), 0) + 1 FROM tag
+WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE sequence_name = 'tag');
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'gift_certificate', COALESCE(MAX(id), 0) + 1 FROM gift_certificate
+WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE sequence_name = 'gift_certificate');
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'user', COALESCE(MAX(id), 0) + 1 FROM user
+WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE sequence_name = 'user');
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'certificate_order', COALESCE(MAX(id), 0) + 1 FROM certificate_order
+WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE sequence_name = 'certificate_order');
@@ -0,0 +1,21 @@
+CREATE TABLE IF NOT EXISTS user_spend (
+    user_id INT NOT NULL PRIMARY KEY,
+    total_cost DECIMAL(12,2) NOT NULL,
+    CONSTRAINT user_spend_fk FOREIGN KEY (user_id)
+    REFERENCES user (id) ON DELETE CASCADE
+);
+
+CREATE INDEX user_spend_total_cost_idx ON user_spend (total_cost);
+
+CREATE TABLE IF NOT EXISTS user_tag_count (
+    user_id INT NOT NULL,
+    tag_id INT NOT NULL,
+    order_count INT NOT NULL,
+    PRIMARY KEY (user_id, tag_id),
+    CONSTRAINT user_tag_count_user_fk FOREIGN KEY (user_id)
+    REFERENCES user (id) ON DELETE CASCADE,
+    CONSTRAINT user_tag_count_tag_fk FOREIGN KEY (tag_id)
+    REFERENCES tag (id) ON DELETE CASCADE
+);
+
+CREATE INDEX user_tag_count_order_count_idx ON user_tag_count (user_id, order_count);
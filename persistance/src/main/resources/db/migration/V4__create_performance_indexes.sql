@@ -0,0 +1,9 @@
+CREATE UNIQUE INDEX tag_name_idx ON tag (name);
+
+CREATE INDEX gift_certificate_name_idx ON gift_certificate (name);
+
+CREATE INDEX gift_certificate_create_date_idx ON gift_certificate (create_date);
+
+CREATE INDEX certificate_order_user_date_idx ON certificate_order (user_id, date);
+
+CREATE INDEX certificate_tag_tag_certificate_idx ON certificate_tag (tag_id, certificate_id);
@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS certificate_order_archive (
+    id INT NOT NULL PRIMARY KEY,
+    cost DECIMAL(10,2) NOT NULL,
+    date DATE,
+    user_id INT NOT NULL,
+    certificate_id INT NOT NULL,
+    CONSTRAINT certificate_order_archive_certificate_fk FOREIGN KEY (certificate_id)
+    REFERENCES gift_certificate(id) ON DELETE CASCADE,
+    CONSTRAINT certificate_order_archive_user_fk FOREIGN KEY (user_id)
+    REFERENCES user (id) ON DELETE CASCADE
+);
+
+CREATE INDEX certificate_order_archive_user_idx ON certificate_order_archive (user_id, id);
+
+CREATE INDEX certificate_order_date_idx ON certificate_order (date);
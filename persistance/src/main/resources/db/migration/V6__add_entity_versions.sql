@@ -0,0 +1,7 @@
+ALTER TABLE tag ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE gift_certificate ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE user ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE certificate_order ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1 @@
+CREATE INDEX certificate_order_archive_certificate_idx ON certificate_order_archive (certificate_id, id);
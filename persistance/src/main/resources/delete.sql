@@ -1,3 +1,6 @@
+delete from user_tag_count;
+delete from user_spend;
+delete from certificate_order_archive;
 delete from tag;
 delete from certificate_tag;
 delete from gift_certificate;
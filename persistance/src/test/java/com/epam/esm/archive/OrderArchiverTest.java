@@ -0,0 +1,150 @@
+package com.epam.esm.archive;
+
+import com.epam.esm.config.PersistanceConfig;
+import com.epam.esm.dao.OrderDao;
+import com.epam.esm.dao.UserDao;
+import com.epam.esm.model.Certificate;
+import com.epam.esm.model.Order;
+import com.epam.esm.model.User;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = PersistanceConfig.class)
+@ActiveProfiles("dev")
+@Sql(scripts = {"classpath:delete.sql", "classpath:data.sql"})
+@Transactional
+class OrderArchiverTest {
+    @Autowired
+    private OrderArchiver archiver;
+    @Autowired
+    private OrderDao orderDao;
+    @Autowired
+    private UserDao userDao;
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Test
+    public void archiveBefore_shouldMoveOnlyOrdersMadeBeforePassedDate() {
+        long archivedId = saveUserOrder(LocalDateTime.of(2020, 1, 1, 0, 0));
+        saveUserOrder(LocalDateTime.of(2021, 6, 1, 0, 0));
+
+        int archivedOrders = archiver.archiveBefore(LocalDate.of(2021, 1, 1));
+        sessionFactory.getCurrentSession().clear();
+
+        assertEquals(1, archivedOrders);
+        assertNull(sessionFactory.getCurrentSession().get(Order.class, archivedId));
+        Optional<Order> archivedOrder = orderDao.findById(archivedId);
+        assertTrue(archivedOrder.isPresent());
+        assertEquals(200.50, archivedOrder.get().getCost());
+        assertEquals(1L, archivedOrder.get().getCertificate().getId());
+    }
+
+    @Test
+    public void findUserOrdersPage_shouldMergeArchivedAndRecentOrders() {
+        long archivedId = saveUserOrder(LocalDateTime.of(2020, 1, 1, 0, 0));
+        archiver.archiveBefore(LocalDate.of(2021, 1, 1));
+        sessionFactory.getCurrentSession().clear();
+
+        List<Order> orders = orderDao.findUserOrdersPage(1, 0, 10);
+        List<Order> recentOrders = orderDao.findUserOrdersPage(1, 1, 10);
+        List<Order> ordersAfter = orderDao.findUserOrdersPageAfter(1, 0, 10);
+
+        assertEquals(2, orderDao.getUserOrdersTotalElements(1));
+        assertEquals(2, orders.size());
+        assertEquals(archivedId, orders.get(0).getId());
+        assertEquals(1L, orders.get(1).getId());
+        assertEquals(3, orders.get(0).getCertificate().getTags().size());
+        assertEquals(1, recentOrders.size());
+        assertEquals(1L, recentOrders.get(0).getId());
+        assertEquals(2, ordersAfter.size());
+        assertEquals(1L, ordersAfter.get(0).getId());
+        assertEquals(archivedId, ordersAfter.get(1).getId());
+    }
+
+    @Test
+    public void findCertificateOrders_shouldMergeArchivedAndRecentOrders() {
+        long archivedId = saveUserOrder(LocalDateTime.of(2020, 1, 1, 0, 0));
+        archiver.archiveBefore(LocalDate.of(2021, 1, 1));
+        sessionFactory.getCurrentSession().clear();
+
+        List<Order> orders = orderDao.findCertificateOrders(1, 0, 10);
+        List<Order> recentOrders = orderDao.findCertificateOrders(1, 1, 10);
+        List<Order> ordersAfter = orderDao.findCertificateOrdersAfter(1, 0, 10);
+        List<Order> archivedOrdersAfter = orderDao.findCertificateOrdersAfter(1, 1, 10);
+
+        assertEquals(2, orderDao.getCertificateOrdersTotalElements(1));
+        assertEquals(2, orders.size());
+        assertEquals(archivedId, orders.get(0).getId());
+        assertEquals(1L, orders.get(1).getId());
+        assertEquals(3, orders.get(0).getCertificate().getTags().size());
+        assertEquals(1, recentOrders.size());
+        assertEquals(1L, recentOrders.get(0).getId());
+        assertEquals(2, ordersAfter.size());
+        assertEquals(1L, ordersAfter.get(0).getId());
+        assertEquals(archivedId, ordersAfter.get(1).getId());
+        assertEquals(1, archivedOrdersAfter.size());
+        assertEquals(archivedId, archivedOrdersAfter.get(0).getId());
+    }
+
+    @Test
+    public void findAllUserOrders_shouldReturnArchivedAndRecentOrders() {
+        long archivedId = saveUserOrder(LocalDateTime.of(2020, 1, 1, 0, 0));
+        archiver.archiveBefore(LocalDate.of(2021, 1, 1));
+        sessionFactory.getCurrentSession().clear();
+
+        List<Order> orders = orderDao.findAllUserOrders(1);
+
+        assertEquals(Arrays.asList(archivedId, 1L), orders.stream().map(Order::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void exportUserOrders_shouldExportArchivedAndRecentOrders() {
+        long archivedId = saveUserOrder(LocalDateTime.of(2020, 1, 1, 0, 0));
+        archiver.archiveBefore(LocalDate.of(2021, 1, 1));
+        sessionFactory.getCurrentSession().clear();
+        List<Order> exportedOrders = new ArrayList<>();
+
+        orderDao.exportUserOrders(1, exportedOrders::add);
+
+        assertEquals(Arrays.asList(archivedId, 1L), exportedOrders.stream().map(Order::getId).collect(Collectors.toList()));
+        assertEquals(1L, exportedOrders.get(0).getCertificate().getId());
+    }
+
+    @Test
+    public void findByOrderId_shouldReturnArchivedOrderUser() {
+        long archivedId = saveUserOrder(LocalDateTime.of(2020, 1, 1, 0, 0));
+        archiver.archiveBefore(LocalDate.of(2021, 1, 1));
+        sessionFactory.getCurrentSession().clear();
+
+        User user = userDao.findByOrderId(archivedId);
+
+        assertNotNull(user);
+        assertEquals(1L, user.getId());
+    }
+
+    private long saveUserOrder(LocalDateTime orderDate) {
+        Session session = sessionFactory.getCurrentSession();
+        Certificate certificate = session.get(Certificate.class, 1L);
+        Order order = new Order(certificate.getPrice(), certificate);
+        order.setOrderDate(orderDate);
+        orderDao.saveUserOrder(1, order);
+        session.flush();
+        return order.getId();
+    }
+}
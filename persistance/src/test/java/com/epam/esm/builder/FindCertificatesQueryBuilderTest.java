@@ -0,0 +1,132 @@
+package com.epam.esm.builder;
+
+import com.epam.esm.config.PersistanceConfig;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = PersistanceConfig.class)
+@ActiveProfiles("dev")
+@Sql(scripts = {"classpath:delete.sql", "classpath:data.sql"})
+@Transactional
+class FindCertificatesQueryBuilderTest {
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Test
+    public void buildSql_shouldTakeQueryFromCacheIfOnlyFilterValuesDiffer() {
+        FindCertificatesQueryBuilder builder = new FindCertificatesQueryBuilder(100);
+        Session session = sessionFactory.getCurrentSession();
+
+        List<Object[]> found = builder.buildSql(parameters("music", "spotify,art"), session).list();
+        List<Object[]> notFound = builder.buildSql(parameters("movie", "spotify,music"), session).list();
+
+        assertEquals(1, found.size());
+        assertEquals(1L, found.get(0)[0]);
+        assertTrue(notFound.isEmpty());
+        assertEquals(1, builder.getHits());
+        assertEquals(1, builder.getMisses());
+        assertEquals(0.5, builder.getHitRate());
+    }
+
+    @Test
+    public void buildSql_shouldBuildNewQueryIfTagNamesAmountDiffers() {
+        FindCertificatesQueryBuilder builder = new FindCertificatesQueryBuilder(100);
+        Session session = sessionFactory.getCurrentSession();
+
+        List<Object[]> twoTags = builder.buildSql(parameters("music", "spotify,art"), session).list();
+        List<Object[]> threeTags = builder.buildSql(parameters("music", "spotify,art,music"), session).list();
+
+        assertEquals(1, twoTags.size());
+        assertEquals(1, threeTags.size());
+        assertEquals(0, builder.getHits());
+        assertEquals(2, builder.getMisses());
+    }
+
+    @Test
+    public void buildSql_shouldBuildNewQueryIfSortDirectionDiffers() {
+        FindCertificatesQueryBuilder builder = new FindCertificatesQueryBuilder(100);
+        Session session = sessionFactory.getCurrentSession();
+        LinkedHashMap<String, String> ascending = parameters("music", null);
+        ascending.put(FindCertificatesQueryBuilder.SORT_BY_NAME_PARAMETER_KEY, "asc");
+        LinkedHashMap<String, String> descending = parameters("music", null);
+        descending.put(FindCertificatesQueryBuilder.SORT_BY_NAME_PARAMETER_KEY, "desc");
+
+        builder.buildSql(ascending, session).list();
+        builder.buildSql(descending, session).list();
+
+        assertEquals(0, builder.getHits());
+        assertEquals(2, builder.getMisses());
+    }
+
+    @Test
+    public void buildSql_shouldKeepFrequentlyUsedQueryWhenCacheIsFull() {
+        FindCertificatesQueryBuilder builder = new FindCertificatesQueryBuilder(10);
+        Session session = sessionFactory.getCurrentSession();
+        for (int i = 1; i < 10; i++) {
+            builder.buildSql(parameters("music", tagNames(i)), session);
+        }
+        for (int i = 0; i < 5; i++) {
+            builder.buildSql(parameters("music", null), session);
+        }
+        for (int i = 10; i < 30; i++) {
+            builder.buildSql(parameters("music", tagNames(i)), session);
+        }
+        builder.buildSql(parameters("music", null), session);
+
+        assertEquals(30, builder.getMisses());
+        assertEquals(5, builder.getHits());
+    }
+
+    @Test
+    public void registerMBean_shouldExposeQueryCacheStatisticsByJmx() throws JMException {
+        FindCertificatesQueryBuilder builder = new FindCertificatesQueryBuilder(100, "com.epam.esm:type=FindCertificatesQueryBuilder,name=test");
+        ObjectName name = new ObjectName("com.epam.esm:type=FindCertificatesQueryBuilder,name=test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Session session = sessionFactory.getCurrentSession();
+        builder.registerMBean();
+        try {
+            builder.buildSql(parameters("music", null), session).list();
+            builder.buildSql(parameters("art", null), session).list();
+
+            assertEquals(1L, server.getAttribute(name, "Hits"));
+            assertEquals(1L, server.getAttribute(name, "Misses"));
+            assertEquals(0.5, server.getAttribute(name, "HitRate"));
+        } finally {
+            builder.unregisterMBean();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    private LinkedHashMap<String, String> parameters(String partOfName, String tagNames) {
+        LinkedHashMap<String, String> parameters = new LinkedHashMap<>();
+        parameters.put(FindCertificatesQueryBuilder.PART_OF_NAME_PARAMETER_KEY, partOfName);
+        if (tagNames != null) {
+            parameters.put(FindCertificatesQueryBuilder.TAG_NAME_ATTRIBUTE_KEY, tagNames);
+        }
+        parameters.put("offset", "0");
+        parameters.put("limit", "10");
+        return parameters;
+    }
+
+    private String tagNames(int amount) {
+        return IntStream.range(0, amount).mapToObj(i -> "tag" + i).collect(Collectors.joining(","));
+    }
+}
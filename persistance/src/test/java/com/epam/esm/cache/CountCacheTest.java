@@ -0,0 +1,82 @@
+package com.epam.esm.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountCacheTest {
+    private CountCache cache;
+    private AtomicInteger counterCalls;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new CountCache(60000, 100);
+        counterCalls = new AtomicInteger();
+    }
+
+    @Test
+    public void get_shouldCountOnlyOnceForSameEntityAndFilter() {
+        int firstAmount = cache.get("Certificate", "all", () -> counterCalls.incrementAndGet());
+        int secondAmount = cache.get("Certificate", "all", () -> counterCalls.incrementAndGet());
+
+        assertEquals(1, firstAmount);
+        assertEquals(1, secondAmount);
+        assertEquals(1, counterCalls.get());
+    }
+
+    @Test
+    public void get_shouldCountSeparatelyForDifferentFilters() {
+        cache.get("Order", "user=1", () -> counterCalls.incrementAndGet());
+        cache.get("Order", "user=2", () -> counterCalls.incrementAndGet());
+
+        assertEquals(2, counterCalls.get());
+    }
+
+    @Test
+    public void invalidate_shouldMakeCountAgainForInvalidatedEntity() {
+        cache.get("Order", "user=1", () -> counterCalls.incrementAndGet());
+        cache.invalidate("Order");
+        int amount = cache.get("Order", "user=1", () -> counterCalls.incrementAndGet());
+
+        assertEquals(2, amount);
+        assertEquals(2, counterCalls.get());
+    }
+
+    @Test
+    public void invalidate_shouldNotInvalidateOtherEntitiesCounts() {
+        cache.get("Tag", "all", () -> counterCalls.incrementAndGet());
+        cache.invalidate("Order");
+        cache.get("Tag", "all", () -> counterCalls.incrementAndGet());
+
+        assertEquals(1, counterCalls.get());
+    }
+
+    @Test
+    public void get_shouldCountAgainIfCountIsExpired() {
+        CountCache expiringCache = new CountCache(0, 100);
+        expiringCache.get("User", "all", () -> counterCalls.incrementAndGet());
+        expiringCache.get("User", "all", () -> counterCalls.incrementAndGet());
+
+        assertEquals(2, counterCalls.get());
+    }
+
+    @Test
+    public void get_shouldKeepFrequentlyUsedCountWhenCacheIsFull() {
+        CountCache smallCache = new CountCache(60000, 10);
+        for (int i = 0; i < 9; i++) {
+            smallCache.get("Order", "user=" + i, () -> 0);
+        }
+        for (int i = 0; i < 5; i++) {
+            smallCache.get("Certificate", "all", () -> counterCalls.incrementAndGet());
+        }
+        for (int i = 9; i < 30; i++) {
+            smallCache.get("Order", "user=" + i, () -> 0);
+        }
+        smallCache.get("Certificate", "all", () -> counterCalls.incrementAndGet());
+
+        assertEquals(1, counterCalls.get());
+    }
+}
@@ -0,0 +1,82 @@
+package com.epam.esm.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ThreadFactoriesTest {
+
+    @Test
+    public void newThreadFactory_shouldCreateNamedDaemonThreadsIfVirtualThreadsAreDisabled() {
+        ThreadFactories threadFactories = new ThreadFactories(false);
+        Thread thread = threadFactories.newThreadFactory("worker").newThread(() -> {
+        });
+
+        assertFalse(threadFactories.isVirtual());
+        assertEquals("worker", thread.getName());
+        assertTrue(thread.isDaemon());
+    }
+
+    @Test
+    public void newThreadPerTaskExecutor_shouldThrowExceptionIfVirtualThreadsAreDisabled() {
+        ThreadFactories threadFactories = new ThreadFactories(false);
+
+        assertThrows(IllegalStateException.class, () -> threadFactories.newThreadPerTaskExecutor("worker"));
+    }
+
+    @Test
+    public void newThreadFactory_shouldCreateNamedVirtualThreadsIfVirtualThreadsAreEnabled() throws ReflectiveOperationException {
+        assumeTrue(isVirtualThreadsSupported(), "Runtime does not support virtual threads");
+        ThreadFactories threadFactories = new ThreadFactories(true);
+        Thread thread = threadFactories.newThreadFactory("worker").newThread(() -> {
+        });
+
+        assertTrue(threadFactories.isVirtual());
+        assertEquals("worker", thread.getName());
+        assertTrue(isVirtual(thread));
+    }
+
+    @Test
+    public void newThreadPerTaskExecutor_shouldRunTasksOnVirtualThreadsIfVirtualThreadsAreEnabled() throws Exception {
+        assumeTrue(isVirtualThreadsSupported(), "Runtime does not support virtual threads");
+        ExecutorService executor = new ThreadFactories(true).newThreadPerTaskExecutor("worker");
+        try {
+            assertTrue(executor.submit(() -> isVirtual(Thread.currentThread())).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void newThreadFactory_shouldFallBackToPlatformThreadsIfRuntimeDoesNotSupportVirtualThreads() throws ReflectiveOperationException {
+        assumeFalse(isVirtualThreadsSupported(), "Runtime supports virtual threads");
+        ThreadFactories threadFactories = new ThreadFactories(true);
+        Thread thread = threadFactories.newThreadFactory("worker").newThread(() -> {
+        });
+
+        assertFalse(threadFactories.isVirtual());
+        assertEquals("worker", thread.getName());
+        assertTrue(thread.isDaemon());
+        assertThrows(IllegalStateException.class, () -> threadFactories.newThreadPerTaskExecutor("worker"));
+    }
+
+    private static boolean isVirtualThreadsSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual").invoke(null);
+            return true;
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) throws ReflectiveOperationException {
+        return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+}
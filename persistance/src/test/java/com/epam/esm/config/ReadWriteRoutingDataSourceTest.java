@@ -0,0 +1,99 @@
+package com.epam.esm.config;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+    private static final String NODE_QUERY = "SELECT name FROM node";
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private LocalSessionFactoryBean sessionFactoryBean;
+    private SessionFactory sessionFactory;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        primary = createDatabase("primary");
+        replica = createDatabase("replica");
+        DataSource dataSource = PersistanceConfig.routingDataSource(primary, replica);
+        sessionFactoryBean = new LocalSessionFactoryBean();
+        sessionFactoryBean.setDataSource(dataSource);
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.setProperty("hibernate.cache.use_second_level_cache", "false");
+        sessionFactoryBean.setHibernateProperties(properties);
+        sessionFactoryBean.afterPropertiesSet();
+        sessionFactory = sessionFactoryBean.getObject();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new PersistanceConfig().hibernateTransactionManager(sessionFactoryBean));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        sessionFactoryBean.destroy();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    public void getConnection_shouldUseReplicaInReadOnlyTransaction() {
+        transactionTemplate.setReadOnly(true);
+
+        String node = transactionTemplate.execute(status -> findNode());
+
+        assertEquals("replica", node);
+    }
+
+    @Test
+    public void getConnection_shouldUsePrimaryInReadWriteTransaction() {
+        String node = transactionTemplate.execute(status -> findNode());
+
+        assertEquals("primary", node);
+    }
+
+    @Test
+    public void getConnection_shouldUsePrimaryInReadOnlyTransactionThatJoinsReadWriteTransaction() {
+        TransactionTemplate readOnlyTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTemplate.setReadOnly(true);
+
+        String node = transactionTemplate.execute(status -> readOnlyTemplate.execute(readOnlyStatus -> findNode()));
+
+        assertEquals("primary", node);
+    }
+
+    @Test
+    public void getConnection_shouldUsePrimaryOutsideTransaction() {
+        String node = jdbcTemplate.queryForObject(NODE_QUERY, String.class);
+
+        assertEquals("primary", node);
+    }
+
+    private String findNode() {
+        return (String) sessionFactory.getCurrentSession().createNativeQuery(NODE_QUERY).getSingleResult();
+    }
+
+    private EmbeddedDatabase createDatabase(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name)
+                .build();
+        new JdbcTemplate(database).execute(String.format("CREATE TABLE node (name VARCHAR(20)); INSERT INTO node VALUES ('%s')", name));
+        return database;
+    }
+}
@@ -1,8 +1,11 @@
 package com.epam.esm.dao;
 
+import com.epam.esm.builder.FindCertificatesQueryBuilder;
 import com.epam.esm.config.PersistanceConfig;
 import com.epam.esm.model.Certificate;
 import com.epam.esm.model.Tag;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -10,6 +13,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +27,8 @@ class CertificateJdbcDaoTest {
 
     @Autowired
     private CertificateJdbcDao dao;
+    @Autowired
+    private SessionFactory sessionFactory;
 
     @Test
     public void findAll_shouldReturnSavedAllSavedCertificates() {
@@ -45,6 +51,60 @@ class CertificateJdbcDaoTest {
         assertEquals("art", tags.get(2).getName());
     }
 
+    @Test
+    public void findPage_shouldLoadCertificatesWithTagsByTwoStatements() {
+        for (long id = 2; id <= 4; id++) {
+            executeUpdate(String.format("INSERT INTO gift_certificate VALUES (%d, 'certificate %d', 'description', 10.0, 10, null, null, 0)", id, id));
+            executeUpdate(String.format("INSERT INTO certificate_tag VALUES (%d, %d, 1)", id * 2, id));
+            executeUpdate(String.format("INSERT INTO certificate_tag VALUES (%d, %d, %d)", id * 2 + 1, id, id - 1));
+        }
+        sessionFactory.getCurrentSession().clear();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        List<Certificate> certificates = dao.findPage(0, 10);
+        certificates.forEach(certificate -> certificate.getTags().size());
+
+        assertEquals(4, certificates.size());
+        certificates.subList(1, 4).forEach(certificate -> assertEquals(2, certificate.getTags().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findPage_shouldReturnCertificatesThatAreNotAttachedToSession() {
+        List<Certificate> certificates = dao.findPage(0, 10);
+
+        Certificate certificate = certificates.get(0);
+        assertFalse(sessionFactory.getCurrentSession().contains(certificate));
+        assertFalse(sessionFactory.getCurrentSession().contains(certificate.getTags().get(0)));
+    }
+
+    @Test
+    public void findWithParameters_shouldFindCertificatesByTagNamesIgnoringCase() {
+        LinkedHashMap<String, String> parameters = new LinkedHashMap<>();
+        parameters.put(FindCertificatesQueryBuilder.TAG_NAME_ATTRIBUTE_KEY, "SPOTIFY,Music,music");
+
+        List<Certificate> certificates = dao.findWithParameters(parameters, 0, 10);
+
+        assertEquals(1, certificates.size());
+        assertEquals(1L, certificates.get(0).getId());
+        assertEquals(1, dao.getTotalElementsWithParameters(parameters));
+    }
+
+    @Test
+    public void findPageAfter_shouldReturnCertificatesThatGoAfterPassedId() {
+        List<Certificate> certificates = dao.findPageAfter(0, 10);
+
+        assertEquals(1, certificates.size());
+        assertEquals(1L, certificates.get(0).getId());
+    }
+
+    @Test
+    public void findPageAfter_shouldReturnEmptyListIfLastCertificateIdPassed() {
+        List<Certificate> certificates = dao.findPageAfter(1, 10);
+
+        assertTrue(certificates.isEmpty());
+    }
 
     @Test
     public void findById_shouldReturnSavedCertificateIfSavedCertificateIdPassed() {
@@ -85,6 +145,68 @@ class CertificateJdbcDaoTest {
         assertEquals(3000.0, updatedCertificate.getPrice());
     }
 
+    @Test
+    public void update_shouldNotRecomputeTagsStatisticsIfTagsAreNotChanged() {
+        executeUpdate("UPDATE user_tag_count SET order_count = 5");
+        Certificate foundCertificate = dao.findById(1L).get();
+        foundCertificate.setPrice(3000.0);
+        dao.update(foundCertificate);
+
+        assertEquals(5, findOrderCount(1L, 1L));
+    }
+
+    @Test
+    public void update_shouldRecomputeCustomersTagsStatisticsIfTagsAreChanged() {
+        executeUpdate("UPDATE user_tag_count SET order_count = 5");
+        Certificate foundCertificate = dao.findById(1L).get();
+        foundCertificate.getTags().remove(0);
+        dao.update(foundCertificate);
+
+        assertEquals(0, findOrderCount(1L, 1L));
+        assertEquals(1, findOrderCount(1L, 2L));
+    }
+
+    @Test
+    public void findVersion_shouldReturnIncrementedVersionAfterUpdate() {
+        Certificate foundCertificate = dao.findById(1L).get();
+        assertEquals(Optional.of("0-3-6-0"), dao.findVersion(1L));
+        foundCertificate.setPrice(3000.0);
+        dao.update(foundCertificate);
+        sessionFactory.getCurrentSession().flush();
+
+        assertEquals(Optional.of("1-3-6-0"), dao.findVersion(1L));
+    }
+
+    @Test
+    public void findVersion_shouldChangeAfterCertificateTagIsRenamed() {
+        Optional<String> version = dao.findVersion(1L);
+        Tag tag = dao.findById(1L).get().getTags().get(0);
+        tag.setName("renamed");
+        sessionFactory.getCurrentSession().flush();
+
+        assertNotEquals(version, dao.findVersion(1L));
+    }
+
+    @Test
+    public void findPageVersion_shouldChangeAfterCertificateTagIsRenamed() {
+        String pageVersion = dao.findPageVersion(0, 10);
+        Tag tag = dao.findById(1L).get().getTags().get(0);
+        tag.setName("renamed");
+        sessionFactory.getCurrentSession().flush();
+
+        assertNotEquals(pageVersion, dao.findPageVersion(0, 10));
+    }
+
+    @Test
+    public void findPageVersion_shouldChangeAfterCertificateOnPageIsUpdated() {
+        String pageVersion = dao.findPageVersion(0, 10);
+        Certificate foundCertificate = dao.findById(1L).get();
+        foundCertificate.setPrice(3000.0);
+        dao.update(foundCertificate);
+
+        assertNotEquals(pageVersion, dao.findPageVersion(0, 10));
+    }
+
     @Test
     public void delete_shouldDeleteSavedCertificate() {
         Optional<Certificate> optionalSavedCertificate = dao.findById(1);
@@ -115,4 +237,17 @@ class CertificateJdbcDaoTest {
         assertEquals(3L, tags.get(2).getId());
         assertEquals("art", tags.get(2).getName());
     }
-}
\ No newline at end of file
+
+    private void executeUpdate(String sql) {
+        sessionFactory.getCurrentSession().createNativeQuery(sql).executeUpdate();
+    }
+
+    private int findOrderCount(long userId, long tagId) {
+        List<?> counts = sessionFactory.getCurrentSession()
+                .createNativeQuery("SELECT order_count FROM user_tag_count WHERE user_id = ?1 AND tag_id = ?2")
+                .setParameter(1, userId)
+                .setParameter(2, tagId)
+                .list();
+        return counts.isEmpty() ? 0 : ((Number) counts.get(0)).intValue();
+    }
+}
@@ -2,13 +2,16 @@ package com.epam.esm.dao;
 
 import com.epam.esm.config.PersistanceConfig;
 import com.epam.esm.model.Tag;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
+import javax.persistence.PersistenceException;
 import javax.transaction.Transactional;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +26,9 @@ class TagJdbcDaoTest {
     @Autowired
     private TagJdbcDao dao;
 
+    @Autowired
+    private SessionFactory sessionFactory;
+
     @Test
     public void save_shouldReturnTagWithId() {
         Tag tag = new Tag("tag");
@@ -32,6 +38,53 @@ class TagJdbcDaoTest {
         assertEquals(tag.getName(), savedTag.getName());
     }
 
+    @Test
+    public void save_shouldFailIfTagWithSameNameExists() {
+        dao.save(new Tag("spotify"));
+
+        assertThrows(PersistenceException.class, () -> sessionFactory.getCurrentSession().flush());
+    }
+
+    @Test
+    public void findByNames_shouldReturnTagsThatHavePassedNames() {
+        List<Tag> tags = dao.findByNames(Arrays.asList("spotify", "art", "missing"));
+
+        assertEquals(2, tags.size());
+        assertTrue(tags.stream().allMatch(tag -> tag.getId() != 0));
+    }
+
+    @Test
+    public void resolveOrCreate_shouldReplaceSavedTagsAndSaveMissingOnes() {
+        List<Tag> tags = Arrays.asList(new Tag("music"), new Tag("new"), new Tag("new"));
+
+        List<Tag> resolvedTags = dao.resolveOrCreate(tags);
+
+        assertEquals(2, resolvedTags.size());
+        assertEquals(2L, resolvedTags.get(0).getId());
+        assertEquals("new", resolvedTags.get(1).getName());
+        assertNotEquals(0L, resolvedTags.get(1).getId());
+        assertEquals(4, dao.getTotalElements());
+    }
+
+    @Test
+    public void saveAll_shouldReturnTagsWithAssignedIds() {
+        List<Tag> tags = Arrays.asList(new Tag("first"), new Tag("second"), new Tag("third"));
+        List<Tag> savedTags = dao.saveAll(tags);
+
+        assertEquals(3, savedTags.size());
+        assertEquals(3, savedTags.stream().map(Tag::getId).distinct().count());
+        assertEquals(6, dao.getTotalElements());
+    }
+
+    @Test
+    public void deleteAllById_shouldDeleteTagsWithPassedIds() {
+        dao.deleteAllById(Arrays.asList(2L, 3L));
+
+        assertTrue(dao.findById(1L).isPresent());
+        assertFalse(dao.findById(2L).isPresent());
+        assertFalse(dao.findById(3L).isPresent());
+    }
+
     @Test
     public void findPage_shouldReturnTagsOnPage() {
         List<Tag> tags = dao.findPage(0, 10);
@@ -46,6 +46,18 @@ class UserJdbcDaoTest {
         assertFalse(optionalUser.isPresent());
     }
 
+    @Test
+    public void findVersion_shouldReturnVersionMadeOfUserAndOrders() {
+        Optional<String> version = dao.findVersion(1);
+        assertEquals(Optional.of("0-1-1-0"), version);
+    }
+
+    @Test
+    public void findVersion_shouldReturnEmptyOptionalIfThereIsNoUserWithId() {
+        Optional<String> version = dao.findVersion(0);
+        assertFalse(version.isPresent());
+    }
+
     @Test
     public void findRichestUser_shouldReturnNotNullUser() {
         User richestUser = dao.findRichestUser();
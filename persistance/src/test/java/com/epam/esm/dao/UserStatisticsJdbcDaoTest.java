@@ -0,0 +1,117 @@
+package com.epam.esm.dao;
+
+import com.epam.esm.config.PersistanceConfig;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = PersistanceConfig.class)
+@ActiveProfiles("dev")
+@Sql(scripts = {"classpath:delete.sql", "classpath:data.sql"})
+@Transactional
+class UserStatisticsJdbcDaoTest {
+
+    @Autowired
+    private UserStatisticsJdbcDao dao;
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Test
+    public void findRichestUserId_shouldReturnIdOfUserThatHasOrders() {
+        Optional<Long> richestUserId = dao.findRichestUserId();
+
+        assertTrue(richestUserId.isPresent());
+        assertEquals(1L, richestUserId.get());
+    }
+
+    @Test
+    public void findPopularTagIds_shouldReturnNotMoreThanPassedAmountOfTags() {
+        List<Long> tagIds = dao.findPopularTagIds(1L, 2);
+
+        assertEquals(Arrays.asList(1L, 2L), tagIds);
+    }
+
+    @Test
+    public void addUserOrder_shouldIncrementOrderedCertificateTagsCounters() {
+        dao.addUserOrder(1L, 1L, 10);
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), dao.findPopularTagIds(1L, 5));
+    }
+
+    @Test
+    public void removeCertificateOrders_shouldNotLeaveRichestUserWithoutOrders() {
+        executeUpdate("INSERT INTO gift_certificate (id, name, description, price, duration, version) VALUES (2, 'expensive', 'expensive', 1000, 10, 0)");
+        executeUpdate("INSERT INTO certificate_tag (id, certificate_id, tag_id) VALUES (4, 2, 3)");
+        executeUpdate("INSERT INTO user (id, name, surname, version) VALUES (2, 'rich', 'user', 0)");
+        executeUpdate("INSERT INTO certificate_order (id, cost, user_id, certificate_id, version) VALUES (2, 1000, 2, 2, 0)");
+        dao.addUserOrder(2L, 2L, 1000);
+        assertEquals(Optional.of(2L), dao.findRichestUserId());
+
+        dao.removeCertificateOrders(2L);
+
+        assertEquals(Optional.of(1L), dao.findRichestUserId());
+        assertTrue(dao.findPopularTagIds(2L, 5).isEmpty());
+        assertEquals(Arrays.asList(1L, 2L, 3L), dao.findPopularTagIds(1L, 5));
+    }
+
+    @Test
+    public void removeCertificateOrders_shouldSubtractOrdersFromUsersThatHaveOtherOrders() {
+        executeUpdate("INSERT INTO gift_certificate (id, name, description, price, duration, version) VALUES (2, 'expensive', 'expensive', 1000, 10, 0)");
+        executeUpdate("INSERT INTO certificate_tag (id, certificate_id, tag_id) VALUES (4, 2, 3)");
+        executeUpdate("INSERT INTO certificate_order (id, cost, user_id, certificate_id, version) VALUES (2, 1000, 1, 2, 0)");
+        dao.addUserOrder(1L, 2L, 1000);
+        assertEquals(Arrays.asList(3L, 1L, 2L), dao.findPopularTagIds(1L, 5));
+
+        dao.removeCertificateOrders(2L);
+
+        assertEquals(Optional.of(1L), dao.findRichestUserId());
+        assertEquals(Arrays.asList(1L, 2L, 3L), dao.findPopularTagIds(1L, 5));
+    }
+
+    @Test
+    public void recomputeUsers_shouldMatchStatisticsBuiltFromOrders() {
+        dao.recomputeUsers(Collections.singletonList(1L));
+
+        assertEquals(Optional.of(1L), dao.findRichestUserId());
+        assertEquals(Arrays.asList(1L, 2L, 3L), dao.findPopularTagIds(1L, 5));
+    }
+
+    @Test
+    public void rebuild_shouldMergeRecentAndArchivedOrders() {
+        executeUpdate("INSERT INTO gift_certificate (id, name, description, price, duration, version) VALUES (2, 'expensive', 'expensive', 150, 10, 0)");
+        executeUpdate("INSERT INTO certificate_tag (id, certificate_id, tag_id) VALUES (4, 2, 3)");
+        executeUpdate("INSERT INTO user (id, name, surname, version) VALUES (2, 'archived', 'user', 0)");
+        executeUpdate("INSERT INTO certificate_order (id, cost, user_id, certificate_id, version) VALUES (2, 150, 2, 2, 0)");
+        executeUpdate("INSERT INTO certificate_order_archive (id, cost, user_id, certificate_id) VALUES (3, 150, 2, 2)");
+        executeUpdate("INSERT INTO certificate_order_archive (id, cost, user_id, certificate_id) VALUES (4, 150, 1, 2)");
+
+        dao.rebuild();
+
+        assertEquals(Optional.of(1L), dao.findRichestUserId());
+        assertEquals(Arrays.asList(3L, 1L, 2L), dao.findPopularTagIds(1L, 5));
+        assertEquals(Collections.singletonList(3L), dao.findPopularTagIds(2L, 5));
+        assertEquals(Arrays.asList(1L, 2L), dao.findCertificateCustomerIds(2L));
+    }
+
+    @Test
+    public void findCertificateCustomerIds_shouldReturnUsersThatOrderedCertificate() {
+        List<Long> customerIds = dao.findCertificateCustomerIds(1L);
+
+        assertEquals(Collections.singletonList(1L), customerIds);
+    }
+
+    private void executeUpdate(String sql) {
+        sessionFactory.getCurrentSession().createNativeQuery(sql).executeUpdate();
+    }
+}
@@ -0,0 +1,86 @@
+package com.epam.esm.index;
+
+import com.epam.esm.builder.FindCertificatesQueryBuilder;
+import com.epam.esm.config.PersistanceConfig;
+import com.epam.esm.dao.CertificateDao;
+import com.epam.esm.dao.TagDao;
+import com.epam.esm.model.Certificate;
+import com.epam.esm.model.Tag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = PersistanceConfig.class, properties = "db.tagIndex.enabled=true")
+@ActiveProfiles("dev")
+@Sql(scripts = {"classpath:delete.sql", "classpath:data.sql"})
+class TagIndexTest {
+    @Autowired
+    private TagIndex index;
+    @Autowired
+    private TagDao tagDao;
+    @Autowired
+    private CertificateDao certificateDao;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        index.rebuild();
+    }
+
+    @Test
+    public void findCertificatesWithAllTags_shouldIgnoreCase() {
+        RoaringBitmap found = index.findCertificatesWithAllTags(Arrays.asList("SPOTIFY", "Music"));
+
+        assertEquals(RoaringBitmap.bitmapOf(1), found);
+    }
+
+    @Test
+    public void findWithParameters_shouldFindCertificatesByIndexedTagNamesIgnoringCase() {
+        LinkedHashMap<String, String> parameters = new LinkedHashMap<>();
+        parameters.put(FindCertificatesQueryBuilder.TAG_NAME_ATTRIBUTE_KEY, "SPOTIFY,Music,music");
+
+        List<Certificate> certificates = new TransactionTemplate(transactionManager).execute(status -> certificateDao.findWithParameters(parameters, 0, 10));
+
+        assertEquals(1, certificates.size());
+        assertEquals(1L, certificates.get(0).getId());
+    }
+
+    @Test
+    public void update_shouldMoveCertificatesToNewTagNameAfterCommit() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Tag tag = tagDao.findById(2).orElseThrow(IllegalStateException::new);
+            tag.setName("Sound");
+            tagDao.update(tag);
+        });
+
+        assertTrue(index.findCertificatesWithAllTags(Collections.singletonList("music")).isEmpty());
+        assertEquals(RoaringBitmap.bitmapOf(1), index.findCertificatesWithAllTags(Collections.singletonList("sound")));
+    }
+
+    @Test
+    public void update_shouldNotChangeIndexIfUpdateIsRolledBack() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Tag tag = tagDao.findById(2).orElseThrow(IllegalStateException::new);
+            tag.setName("sound");
+            tagDao.update(tag);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(RoaringBitmap.bitmapOf(1), index.findCertificatesWithAllTags(Collections.singletonList("music")));
+        assertTrue(index.findCertificatesWithAllTags(Collections.singletonList("sound")).isEmpty());
+    }
+}
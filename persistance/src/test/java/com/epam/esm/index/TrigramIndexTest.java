@@ -0,0 +1,57 @@
+package com.epam.esm.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+    private TrigramIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new TrigramIndex();
+        index.put(1, "free music listen certificate");
+        index.put(2, "football training certificate");
+        index.put(3, "Music lessons");
+    }
+
+    @Test
+    public void findContaining_shouldReturnTextsThatContainPassedPart() {
+        RoaringBitmap found = index.findContaining("certificate");
+
+        assertEquals(RoaringBitmap.bitmapOf(1, 2), found);
+    }
+
+    @Test
+    public void findContaining_shouldIgnoreCase() {
+        RoaringBitmap found = index.findContaining("MUSIC");
+
+        assertEquals(RoaringBitmap.bitmapOf(1, 3), found);
+    }
+
+    @Test
+    public void findContaining_shouldNotReturnTextsThatContainOnlyPartTrigrams() {
+        index.put(4, "ballfoot");
+
+        RoaringBitmap found = index.findContaining("football");
+
+        assertEquals(RoaringBitmap.bitmapOf(2), found);
+    }
+
+    @Test
+    public void put_shouldReplaceIndexedText() {
+        index.put(3, "art lessons");
+
+        assertEquals(RoaringBitmap.bitmapOf(1), index.findContaining("music"));
+        assertEquals(RoaringBitmap.bitmapOf(3), index.findContaining("art les"));
+    }
+
+    @Test
+    public void remove_shouldRemoveIndexedText() {
+        index.remove(1);
+
+        assertEquals(RoaringBitmap.bitmapOf(2), index.findContaining("certificate"));
+    }
+}
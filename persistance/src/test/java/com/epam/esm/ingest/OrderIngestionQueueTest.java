@@ -0,0 +1,111 @@
+package com.epam.esm.ingest;
+
+import com.epam.esm.concurrent.ThreadFactories;
+import com.epam.esm.config.PersistanceConfig;
+import com.epam.esm.dao.OrderDao;
+import com.epam.esm.model.Certificate;
+import com.epam.esm.model.Order;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = PersistanceConfig.class)
+@ActiveProfiles("dev")
+@Sql(scripts = {"classpath:delete.sql", "classpath:data.sql"})
+class OrderIngestionQueueTest {
+    @Autowired
+    private OrderDao orderDao;
+    @Autowired
+    private SessionFactory sessionFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void submit_shouldSaveSubmittedOrdersAsUserOrders() throws Exception {
+        OrderIngestionQueue queue = new OrderIngestionQueue(orderDao, sessionFactory, transactionManager, new ThreadFactories(false), true, 10, 10, 50);
+        queue.start();
+
+        CompletableFuture<Order> first = queue.submit(1, createOrder());
+        CompletableFuture<Order> second = queue.submit(1, createOrder());
+        Order firstOrder = first.get(10, TimeUnit.SECONDS);
+        Order secondOrder = second.get(10, TimeUnit.SECONDS);
+        queue.stop();
+
+        assertNotEquals(0, firstOrder.getId());
+        assertNotEquals(firstOrder.getId(), secondOrder.getId());
+        int ordersAmount = new TransactionTemplate(transactionManager).execute(status -> orderDao.getUserOrdersTotalElements(1));
+        assertEquals(3, ordersAmount);
+    }
+
+    @Test
+    public void submit_shouldThrowExceptionIfQueueIsFull() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OrderDao blockingOrderDao = mock(OrderDao.class);
+        when(blockingOrderDao.saveUserOrder(anyLong(), any(Order.class))).thenAnswer(invocation -> {
+            saving.countDown();
+            release.await();
+            return invocation.getArgument(1);
+        });
+        OrderIngestionQueue queue = new OrderIngestionQueue(blockingOrderDao, sessionFactory, transactionManager, new ThreadFactories(false), true, 1, 1, 0);
+        queue.start();
+
+        CompletableFuture<Order> saved = queue.submit(1, createOrder());
+        assertTrue(saving.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Order> queued = queue.submit(1, createOrder());
+        assertThrows(RejectedExecutionException.class, () -> queue.submit(1, createOrder()));
+        release.countDown();
+
+        assertNotNull(saved.get(10, TimeUnit.SECONDS));
+        assertNotNull(queued.get(10, TimeUnit.SECONDS));
+        queue.stop();
+    }
+
+    @Test
+    public void submit_shouldFailOrderIfSaveThrowsError() throws Exception {
+        OrderDao failingOrderDao = mock(OrderDao.class);
+        when(failingOrderDao.saveUserOrder(anyLong(), any(Order.class))).thenThrow(new AssertionError("save failed"));
+        OrderIngestionQueue queue = new OrderIngestionQueue(failingOrderDao, sessionFactory, transactionManager, new ThreadFactories(false), true, 10, 10, 0);
+        queue.start();
+
+        CompletableFuture<Order> failed = queue.submit(1, createOrder());
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof AssertionError);
+        queue.stop();
+    }
+
+    @Test
+    public void submit_shouldThrowExceptionIfQueueIsStopped() throws Exception {
+        OrderIngestionQueue queue = new OrderIngestionQueue(orderDao, sessionFactory, transactionManager, new ThreadFactories(false), true, 10, 10, 0);
+        queue.start();
+        queue.stop();
+
+        assertThrows(RejectedExecutionException.class, () -> queue.submit(1, createOrder()));
+    }
+
+    private Order createOrder() {
+        Certificate certificate = new Certificate(1, "free music listen certificate", "spotify free music listening", 200.50, 20, null, null);
+        Order order = new Order(certificate.getPrice(), certificate);
+        order.setOrderDate(LocalDateTime.now());
+        return order;
+    }
+}
@@ -0,0 +1,29 @@
+package com.epam.esm.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.hateoas.HypermediaAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Read only API that serves certificates and user orders without blocking
+ * request threads. Runs as separate application next to servlet one and reads
+ * the same database by R2DBC driver. Settings are read from reactive.properties
+ * so settings of persistance module are not picked up. JDBC data source and
+ * hibernate are excluded because they are on classpath only with model classes.
+ * Hypermedia codecs are excluded as well because they do not write NDJSON exports
+ */
+@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+        HypermediaAutoConfiguration.class})
+public class ReactiveApplication {
+    public static final String CONFIG_NAME = "spring.config.name=reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties(CONFIG_NAME)
+                .run(args);
+    }
+}
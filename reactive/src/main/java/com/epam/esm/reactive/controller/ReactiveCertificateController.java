@@ -0,0 +1,80 @@
+package com.epam.esm.reactive.controller;
+
+import com.epam.esm.model.Certificate;
+import com.epam.esm.reactive.dao.ReactiveCertificateDao;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Non blocking read only REST API certificates controller.
+ * Handles the same read requests as servlet certificates controller
+ * but responses are plain JSON without hypermedia links
+ */
+@RestController
+@RequestMapping("/certificates")
+public class ReactiveCertificateController {
+    private final ReactiveCertificateDao certificateDao;
+
+    public ReactiveCertificateController(ReactiveCertificateDao certificateDao) {
+        this.certificateDao = certificateDao;
+    }
+
+    /**
+     * Finds certificates page by passed parameters
+     *
+     * @param parameters find parameters (tagsNames, partOfName, partOfDescription, sortByName, sortByDate)
+     * @param offset     pagination offset
+     * @param limit      pagination limit
+     * @return found certificates
+     */
+    @GetMapping
+    public Flux<Certificate> showCertificates(@RequestParam(required = false) LinkedHashMap<String, String> parameters,
+                                              @RequestParam(defaultValue = "0") long offset,
+                                              @RequestParam(defaultValue = "10") long limit) {
+        checkPage(offset, limit);
+        return certificateDao.findWithParameters(parameters, offset, limit);
+    }
+
+    /**
+     * Streams all certificates that match passed parameters as newline
+     * delimited JSON. Certificates are read from database only as fast
+     * as client reads response
+     *
+     * @param parameters find parameters (tagsNames, partOfName, partOfDescription, sortByName, sortByDate)
+     * @return streamed certificates
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Certificate> exportCertificates(@RequestParam(required = false) LinkedHashMap<String, String> parameters) {
+        return certificateDao.findWithParameters(parameters, 0, null);
+    }
+
+    /**
+     * Finds certificate by id
+     *
+     * @param id of certificate that need to be found
+     * @return found certificate or response with 404 status if certificate is not found
+     */
+    @GetMapping("/{id}")
+    public Mono<Certificate> showCertificate(@PathVariable("id") long id) {
+        return certificateDao.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        String.format("Requested resource not found (id = %d)", id))));
+    }
+
+    static void checkPage(long offset, long limit) {
+        if (offset < 0 || limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("Invalid page (offset = %d, limit = %d)", offset, limit));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.epam.esm.reactive.controller;
+
+import com.epam.esm.model.Order;
+import com.epam.esm.reactive.dao.ReactiveOrderDao;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non blocking read only REST API users controller.
+ * Handles user orders read requests
+ */
+@RestController
+@RequestMapping("/users")
+public class ReactiveUserController {
+    private final ReactiveOrderDao orderDao;
+
+    public ReactiveUserController(ReactiveOrderDao orderDao) {
+        this.orderDao = orderDao;
+    }
+
+    /**
+     * Finds user orders page
+     *
+     * @param userId id of user whose orders need to be found
+     * @param offset pagination offset
+     * @param limit  pagination limit
+     * @return found orders or response with 404 status if user is not found
+     */
+    @GetMapping("/{userId}/orders")
+    public Flux<Order> showUserOrders(@PathVariable long userId,
+                                      @RequestParam(defaultValue = "0") long offset,
+                                      @RequestParam(defaultValue = "10") long limit) {
+        ReactiveCertificateController.checkPage(offset, limit);
+        return checkUser(userId).thenMany(orderDao.findUserOrders(userId, offset, limit));
+    }
+
+    /**
+     * Streams all user orders as newline delimited JSON. Orders are read
+     * from database only as fast as client reads response
+     *
+     * @param userId id of user whose orders need to be found
+     * @return streamed orders or response with 404 status if user is not found
+     */
+    @GetMapping(value = "/{userId}/orders/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Order> exportUserOrders(@PathVariable long userId) {
+        return checkUser(userId).thenMany(orderDao.findUserOrders(userId, 0, null));
+    }
+
+    private Mono<Void> checkUser(long userId) {
+        return orderDao.existsUser(userId)
+                .flatMap(exists -> exists
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        String.format("Requested resource not found (id = %d)", userId))));
+    }
+}
@@ -0,0 +1,125 @@
+package com.epam.esm.reactive.dao;
+
+import com.epam.esm.model.Certificate;
+import com.epam.esm.model.Tag;
+import com.epam.esm.reactive.query.FindCertificatesSqlBuilder;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reads certificates by non blocking database client. Certificates are
+ * emitted while rows are read, so amount of rows that are requested from
+ * driver follows subscriber demand. Tags are read by one query per batch of
+ * certificates instead of one query per certificate
+ */
+@Component
+public class ReactiveCertificateDao {
+    private static final String FIND_BY_ID_QUERY = "SELECT " + FindCertificatesSqlBuilder.CERTIFICATE_COLUMNS +
+            " FROM gift_certificate c WHERE c.id = :id";
+    private static final String CERTIFICATES_TAGS_QUERY = "SELECT ct.certificate_id, t.id, t.name FROM certificate_tag ct " +
+            "JOIN tag t ON t.id = ct.tag_id WHERE ct.certificate_id IN (:ids)";
+
+    private final DatabaseClient client;
+    private final FindCertificatesSqlBuilder sqlBuilder;
+    private final int tagsBatchSize;
+
+    public ReactiveCertificateDao(DatabaseClient client, FindCertificatesSqlBuilder sqlBuilder,
+                                  @Value("${reactive.tagsBatchSize}") int tagsBatchSize) {
+        this.client = client;
+        this.sqlBuilder = sqlBuilder;
+        this.tagsBatchSize = tagsBatchSize;
+    }
+
+    /**
+     * Finds certificates that match passed parameters
+     *
+     * @param findParameters find parameters (tagsNames, partOfName, partOfDescription, sortByName, sortByDate)
+     * @param offset         amount of certificates to skip
+     * @param limit          maximum amount of certificates or null to find all certificates
+     * @return found certificates with their tags
+     */
+    public Flux<Certificate> findWithParameters(Map<String, String> findParameters, long offset, Long limit) {
+        FindCertificatesSqlBuilder.FindCertificatesSql sql = sqlBuilder.buildSql(findParameters, offset, limit);
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.getSql());
+        for (Map.Entry<String, Object> value : sql.getValues().entrySet()) {
+            spec = spec.bind(value.getKey(), value.getValue());
+        }
+        return fillTags(spec.map((row, metadata) -> toCertificate(row, 0)).all());
+    }
+
+    /**
+     * Finds certificate by id
+     *
+     * @param id of certificate that need to be found
+     * @return Mono that emits found certificate with its tags or empty Mono
+     */
+    public Mono<Certificate> findById(long id) {
+        return fillTags(client.sql(FIND_BY_ID_QUERY)
+                .bind("id", id)
+                .map((row, metadata) -> toCertificate(row, 0))
+                .all())
+                .next();
+    }
+
+    /**
+     * Builds certificate from row that contains columns of
+     * {@link FindCertificatesSqlBuilder#CERTIFICATE_COLUMNS} from passed index
+     *
+     * @param row         read row
+     * @param firstColumn index of certificate id column
+     * @return built certificate without tags
+     */
+    static Certificate toCertificate(Row row, int firstColumn) {
+        return new Certificate(toLong(row.get(firstColumn)), row.get(firstColumn + 1, String.class), row.get(firstColumn + 2, String.class),
+                toBigDecimal(row.get(firstColumn + 3)).doubleValue(), (int) toLong(row.get(firstColumn + 4)),
+                toLocalDateTime(row.get(firstColumn + 5)), toLocalDateTime(row.get(firstColumn + 6)));
+    }
+
+    static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal ? (BigDecimal) value : BigDecimal.valueOf(((Number) value).doubleValue());
+    }
+
+    static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay();
+        }
+        return (LocalDateTime) value;
+    }
+
+    private Flux<Certificate> fillTags(Flux<Certificate> certificates) {
+        return certificates.buffer(tagsBatchSize)
+                .concatMap(this::fillBatchTags, 1)
+                .concatMapIterable(batch -> batch);
+    }
+
+    private Mono<List<Certificate>> fillBatchTags(List<Certificate> certificates) {
+        List<Long> certificateIds = certificates.stream().map(Certificate::getId).distinct().collect(Collectors.toList());
+        return client.sql(CERTIFICATES_TAGS_QUERY)
+                .bind("ids", certificateIds)
+                .map((row, metadata) -> new Object[]{toLong(row.get(0)), new Tag(toLong(row.get(1)), row.get(2, String.class))})
+                .all()
+                .collect(HashMap<Long, List<Tag>>::new,
+                        (tagsByCertificate, tag) -> tagsByCertificate.computeIfAbsent((Long) tag[0], certificateId -> new ArrayList<>()).add((Tag) tag[1]))
+                .map(tagsByCertificate -> {
+                    certificates.forEach(certificate -> certificate.setTags(tagsByCertificate.getOrDefault(certificate.getId(), new ArrayList<>())));
+                    return certificates;
+                });
+    }
+}
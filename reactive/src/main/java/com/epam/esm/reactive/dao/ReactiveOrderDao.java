@@ -0,0 +1,78 @@
+package com.epam.esm.reactive.dao;
+
+import com.epam.esm.model.Certificate;
+import com.epam.esm.model.Order;
+import com.epam.esm.reactive.query.FindCertificatesSqlBuilder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads user orders by non blocking database client. Archived orders go
+ * before recent orders and both are ordered by id as orders pages of
+ * {@link com.epam.esm.dao.OrderJdbcDao}. Orders certificates are read
+ * by the same query without their tags
+ */
+@Component
+public class ReactiveOrderDao {
+    private static final String USER_EXISTS_QUERY = "SELECT u.id FROM user u WHERE u.id = :userId";
+    private static final String USER_ORDERS_QUERY = "SELECT o.id, o.cost, o.date, " + FindCertificatesSqlBuilder.CERTIFICATE_COLUMNS +
+            " FROM (SELECT a.id, a.cost, a.date, a.certificate_id, 0 AS archived_last FROM certificate_order_archive a WHERE a.user_id = :userId" +
+            " UNION ALL SELECT r.id, r.cost, r.date, r.certificate_id, 1 AS archived_last FROM certificate_order r WHERE r.user_id = :userId) o" +
+            " JOIN gift_certificate c ON c.id = o.certificate_id ORDER BY o.archived_last, o.id";
+    private static final int CERTIFICATE_FIRST_COLUMN = 3;
+
+    private final DatabaseClient client;
+
+    public ReactiveOrderDao(DatabaseClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Checks if user with passed id exists
+     *
+     * @param userId id of user
+     * @return Mono that emits true if user exists or false otherwise
+     */
+    public Mono<Boolean> existsUser(long userId) {
+        return client.sql(USER_EXISTS_QUERY)
+                .bind("userId", userId)
+                .map((row, metadata) -> row.get(0))
+                .all()
+                .hasElements();
+    }
+
+    /**
+     * Finds passed user orders with their certificates
+     *
+     * @param userId id of user whose orders need to be found
+     * @param offset amount of orders to skip
+     * @param limit  maximum amount of orders or null to find all orders
+     * @return found orders
+     */
+    public Flux<Order> findUserOrders(long userId, long offset, Long limit) {
+        StringBuilder sql = new StringBuilder(USER_ORDERS_QUERY);
+        if (limit != null) {
+            sql.append(" LIMIT :limit");
+        }
+        if (offset > 0) {
+            sql.append(limit != null ? " OFFSET :offset" : " LIMIT " + Long.MAX_VALUE + " OFFSET :offset");
+        }
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.toString()).bind("userId", userId);
+        if (limit != null) {
+            spec = spec.bind("limit", limit);
+        }
+        if (offset > 0) {
+            spec = spec.bind("offset", offset);
+        }
+        return spec.map((row, metadata) -> {
+            Order order = new Order(ReactiveCertificateDao.toLong(row.get(0)),
+                    ReactiveCertificateDao.toBigDecimal(row.get(1)).doubleValue(),
+                    ReactiveCertificateDao.toLocalDateTime(row.get(2)));
+            Certificate certificate = ReactiveCertificateDao.toCertificate(row, CERTIFICATE_FIRST_COLUMN);
+            order.setCertificate(certificate);
+            return order;
+        }).all();
+    }
+}
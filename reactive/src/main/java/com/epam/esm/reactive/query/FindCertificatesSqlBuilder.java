@@ -0,0 +1,128 @@
+package com.epam.esm.reactive.query;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.epam.esm.builder.FindCertificatesQueryBuilder.ASCENDING_ORDER_VALUE;
+import static com.epam.esm.builder.FindCertificatesQueryBuilder.COMMA;
+import static com.epam.esm.builder.FindCertificatesQueryBuilder.DESCENDING_ORDER_VALUE;
+import static com.epam.esm.builder.FindCertificatesQueryBuilder.LIKE_PATTERN;
+import static com.epam.esm.builder.FindCertificatesQueryBuilder.PART_OF_DESCRIPTION_PARAMETER_KEY;
+import static com.epam.esm.builder.FindCertificatesQueryBuilder.PART_OF_NAME_PARAMETER_KEY;
+import static com.epam.esm.builder.FindCertificatesQueryBuilder.SORT_BY_DATE_PARAMETER_KEY;
+import static com.epam.esm.builder.FindCertificatesQueryBuilder.SORT_BY_NAME_PARAMETER_KEY;
+import static com.epam.esm.builder.FindCertificatesQueryBuilder.TAG_NAME_ATTRIBUTE_KEY;
+
+/**
+ * Builds native sql find all certificates query for R2DBC driver.
+ * Query has the same semantics as HQL query of
+ * {@link com.epam.esm.builder.FindCertificatesQueryBuilder}: certificates are
+ * filtered by part of name, part of description and all of passed tag names,
+ * sorted by name and date in parameters order and then by id. Values are bound
+ * as named parameters so driver specific bind markers are used by database client
+ */
+@Component
+public class FindCertificatesSqlBuilder {
+    public static final String CERTIFICATE_COLUMNS = "c.id, c.name, c.description, c.price, c.duration, c.create_date, c.last_update_date";
+    private static final String NAME_COLUMN = "c.name";
+    private static final String CREATE_DATE_COLUMN = "c.create_date";
+    private static final String ID_COLUMN = "c.id";
+
+    /**
+     * Builds find all certificates query by passed parameters. Parameters that
+     * are not find parameters such as offset and limit are ignored
+     *
+     * @param findParameters parameters map that define find certificate parameters
+     * @param offset         amount of certificates to skip
+     * @param limit          maximum amount of certificates or null to find all certificates
+     * @return built query with its parameters values
+     */
+    public FindCertificatesSql buildSql(Map<String, String> findParameters, long offset, Long limit) {
+        Map<String, String> parameters = findParameters == null ? Collections.emptyMap() : findParameters;
+        String partOfName = parameters.get(PART_OF_NAME_PARAMETER_KEY);
+        String partOfDescription = parameters.get(PART_OF_DESCRIPTION_PARAMETER_KEY);
+        String tagNames = parameters.get(TAG_NAME_ATTRIBUTE_KEY);
+        Map<String, Object> values = new LinkedHashMap<>();
+        List<String> predicates = new ArrayList<>();
+        List<String> orders = new ArrayList<>();
+        if (!isNullOrEmptyParameter(partOfName)) {
+            predicates.add(NAME_COLUMN + " LIKE :partOfName");
+            values.put("partOfName", String.format(LIKE_PATTERN, partOfName));
+        }
+        if (!isNullOrEmptyParameter(partOfDescription)) {
+            predicates.add("c.description LIKE :partOfDescription");
+            values.put("partOfDescription", String.format(LIKE_PATTERN, partOfDescription));
+        }
+        if (!isNullOrEmptyParameter(tagNames)) {
+            predicates.add("t.name IN (:tagNames)");
+            values.put("tagNames", Arrays.asList(tagNames.split(COMMA)));
+        }
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            String key = entry.getKey();
+            String value = entry.getValue();
+            if (isSortParameter(key, value)) {
+                String column = key.equals(SORT_BY_NAME_PARAMETER_KEY) ? NAME_COLUMN : CREATE_DATE_COLUMN;
+                orders.add(column + " " + value);
+            }
+        }
+        orders.add(ID_COLUMN + " " + ASCENDING_ORDER_VALUE);
+        StringBuilder sql = new StringBuilder("SELECT ").append(CERTIFICATE_COLUMNS)
+                .append(" FROM gift_certificate c")
+                .append(" LEFT JOIN certificate_tag ct ON ct.certificate_id = c.id")
+                .append(" LEFT JOIN tag t ON t.id = ct.tag_id");
+        if (!predicates.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        sql.append(" GROUP BY ").append(CERTIFICATE_COLUMNS);
+        if (tagNames != null) {
+            sql.append(" HAVING COUNT(c.id) = :tagsAmount");
+            values.put("tagsAmount", (long) tagNames.split(COMMA).length);
+        }
+        sql.append(" ORDER BY ").append(String.join(", ", orders));
+        if (limit != null) {
+            sql.append(" LIMIT :limit");
+            values.put("limit", limit);
+        }
+        if (offset > 0) {
+            sql.append(limit != null ? " OFFSET :offset" : " LIMIT " + Long.MAX_VALUE + " OFFSET :offset");
+            values.put("offset", offset);
+        }
+        return new FindCertificatesSql(sql.toString(), values);
+    }
+
+    private boolean isSortParameter(String key, String value) {
+        return (key.equals(SORT_BY_NAME_PARAMETER_KEY) || key.equals(SORT_BY_DATE_PARAMETER_KEY))
+                && (ASCENDING_ORDER_VALUE.equals(value) || DESCENDING_ORDER_VALUE.equals(value));
+    }
+
+    private boolean isNullOrEmptyParameter(String parameter) {
+        return parameter == null || parameter.isEmpty();
+    }
+
+    /**
+     * Built find certificates sql with values of its named parameters
+     */
+    public static final class FindCertificatesSql {
+        private final String sql;
+        private final Map<String, Object> values;
+
+        private FindCertificatesSql(String sql, Map<String, Object> values) {
+            this.sql = sql;
+            this.values = Collections.unmodifiableMap(values);
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public Map<String, Object> getValues() {
+            return values;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.epam.esm.reactive;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = ReactiveApplication.class, properties = {ReactiveApplication.CONFIG_NAME, "spring.main.web-application-type=reactive"})
+@AutoConfigureWebTestClient
+@ActiveProfiles("dev")
+class ReactiveControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @BeforeEach
+    public void setUp() {
+        new ResourceDatabasePopulator(new ClassPathResource("delete.sql"), new ClassPathResource("data.sql"))
+                .populate(connectionFactory)
+                .block();
+    }
+
+    @Test
+    public void showCertificates_shouldReturnFoundCertificatesWithTags() {
+        client.get().uri("/certificates?tagName=music,art&partOfName=free&sortByName=asc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("free music listen certificate")
+                .jsonPath("$[0].price").isEqualTo(200.50)
+                .jsonPath("$[0].tags.length()").isEqualTo(3);
+    }
+
+    @Test
+    public void showCertificates_shouldReturnEmptyListIfCertificatesDoNotHaveAllTags() {
+        client.get().uri("/certificates?tagName=music,movies")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(0);
+    }
+
+    @Test
+    public void showCertificates_shouldReturnHttpStatusCode400IfPageIsInvalid() {
+        client.get().uri("/certificates?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void exportCertificates_shouldStreamCertificatesAsNdjson() {
+        client.get().uri("/certificates/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).value(body -> {
+                    assertEquals(1, body.split("\n").length);
+                    assertTrue(body.contains("\"name\":\"free music listen certificate\""));
+                    assertTrue(body.contains("\"name\":\"spotify\""));
+                });
+    }
+
+    @Test
+    public void showCertificate_shouldReturnHttpStatusCode404() {
+        client.get().uri("/certificates/{id}", 100L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void showUserOrders_shouldReturnOrdersWithCertificates() {
+        client.get().uri("/users/{id}/orders", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(1)
+                .jsonPath("$[0].cost").isEqualTo(200.50)
+                .jsonPath("$[0].certificate.id").isEqualTo(1);
+    }
+
+    @Test
+    public void showUserOrders_shouldReturnHttpStatusCode404IfUserIsNotFound() {
+        client.get().uri("/users/{id}/orders", 100L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,47 @@
+package com.epam.esm.reactive.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FindCertificatesSqlBuilderTest {
+    private static final String SELECT = "SELECT c.id, c.name, c.description, c.price, c.duration, c.create_date, c.last_update_date" +
+            " FROM gift_certificate c LEFT JOIN certificate_tag ct ON ct.certificate_id = c.id LEFT JOIN tag t ON t.id = ct.tag_id";
+    private static final String GROUP_BY = " GROUP BY c.id, c.name, c.description, c.price, c.duration, c.create_date, c.last_update_date";
+
+    private final FindCertificatesSqlBuilder builder = new FindCertificatesSqlBuilder();
+
+    @Test
+    public void buildSql_shouldBuildFiltersAndSortsInParametersOrder() {
+        LinkedHashMap<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("sortByDate", "desc");
+        parameters.put("tagName", "music,art");
+        parameters.put("partOfName", "free");
+        parameters.put("sortByName", "asc");
+
+        FindCertificatesSqlBuilder.FindCertificatesSql sql = builder.buildSql(parameters, 20, 10L);
+
+        assertEquals(SELECT + " WHERE c.name LIKE :partOfName AND t.name IN (:tagNames)" + GROUP_BY +
+                " HAVING COUNT(c.id) = :tagsAmount ORDER BY c.create_date desc, c.name asc, c.id asc LIMIT :limit OFFSET :offset", sql.getSql());
+        assertEquals("%free%", sql.getValues().get("partOfName"));
+        assertEquals(Arrays.asList("music", "art"), sql.getValues().get("tagNames"));
+        assertEquals(2L, sql.getValues().get("tagsAmount"));
+        assertEquals(10L, sql.getValues().get("limit"));
+        assertEquals(20L, sql.getValues().get("offset"));
+    }
+
+    @Test
+    public void buildSql_shouldIgnoreInvalidSortAndPageParameters() {
+        LinkedHashMap<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("sortByName", "up");
+        parameters.put("offset", "5");
+
+        FindCertificatesSqlBuilder.FindCertificatesSql sql = builder.buildSql(parameters, 0, null);
+
+        assertEquals(SELECT + GROUP_BY + " ORDER BY c.id asc", sql.getSql());
+        assertEquals(0, sql.getValues().size());
+    }
+}
@@ -0,0 +1,49 @@
+package com.epam.esm.event;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Event that is published by certificate service when certificates are
+ * saved, updated or deleted. Event contains searchable values of changed
+ * certificates before and after change. When change could affect
+ * certificates that are not known, for example when tag of many
+ * certificates is deleted, event is published for all certificates
+ */
+public final class CertificatesChangedEvent {
+    private final List<SearchedCertificate> certificates;
+    private final boolean allCertificates;
+
+    private CertificatesChangedEvent(List<SearchedCertificate> certificates, boolean allCertificates) {
+        this.certificates = certificates;
+        this.allCertificates = allCertificates;
+    }
+
+    /**
+     * Creates event of passed certificates change
+     *
+     * @param certificates values of changed certificates before and after change
+     * @return certificates change event
+     */
+    public static CertificatesChangedEvent of(SearchedCertificate... certificates) {
+        return new CertificatesChangedEvent(Collections.unmodifiableList(Arrays.asList(certificates)), false);
+    }
+
+    /**
+     * Creates event of change that could affect any certificate
+     *
+     * @return all certificates change event
+     */
+    public static CertificatesChangedEvent ofAll() {
+        return new CertificatesChangedEvent(Collections.emptyList(), true);
+    }
+
+    public List<SearchedCertificate> getCertificates() {
+        return certificates;
+    }
+
+    public boolean isAllCertificates() {
+        return allCertificates;
+    }
+}
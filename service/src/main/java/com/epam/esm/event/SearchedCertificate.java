@@ -0,0 +1,60 @@
+package com.epam.esm.event;
+
+import com.epam.esm.model.Certificate;
+import com.epam.esm.model.Tag;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Searchable values of certificate that are copied when certificate is
+ * changed. Used to find cached search responses that could contain
+ * certificate before or after change. Values are lower cased because
+ * database compares them case insensitive
+ */
+public final class SearchedCertificate {
+    private final String name;
+    private final String description;
+    private final Set<String> tagNames;
+
+    private SearchedCertificate(String name, String description, Set<String> tagNames) {
+        this.name = name;
+        this.description = description;
+        this.tagNames = tagNames;
+    }
+
+    /**
+     * Copies searchable values of passed certificate
+     *
+     * @param certificate certificate whose values need to be copied
+     * @return copied certificate values
+     */
+    public static SearchedCertificate of(Certificate certificate) {
+        Set<String> tagNames = new HashSet<>();
+        if (certificate.getTags() != null) {
+            for (Tag tag : certificate.getTags()) {
+                tagNames.add(toLowerCase(tag.getName()));
+            }
+        }
+        return new SearchedCertificate(toLowerCase(certificate.getName()), toLowerCase(certificate.getDescription()),
+                Collections.unmodifiableSet(tagNames));
+    }
+
+    public static String toLowerCase(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Set<String> getTagNames() {
+        return tagNames;
+    }
+}
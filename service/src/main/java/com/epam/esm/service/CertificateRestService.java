@@ -3,6 +3,8 @@ package com.epam.esm.service;
 import com.epam.esm.dao.CertificateDao;
 import com.epam.esm.dao.OrderDao;
 import com.epam.esm.dao.TagDao;
+import com.epam.esm.event.CertificatesChangedEvent;
+import com.epam.esm.event.SearchedCertificate;
 import com.epam.esm.model.Certificate;
 import com.epam.esm.model.Order;
 import com.epam.esm.model.Tag;
@@ -12,17 +14,22 @@ import com.epam.esm.validation.TagValidator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
  * Service layer certificate certificate service implementation
- * of Service interface
+ * of Service interface. Publishes {@link CertificatesChangedEvent}
+ * when certificates or their tags are changed
  */
 @Service
 public class CertificateRestService implements CertificateService {
@@ -34,14 +41,16 @@ public class CertificateRestService implements CertificateService {
 
     private final CertificateValidator certificateValidator;
     private final TagValidator tagValidator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CertificateRestService(CertificateDao certificateDao, TagDao tagDao, OrderDao orderDao, CertificateValidator certificateValidator, TagValidator tagValidator) {
+    public CertificateRestService(CertificateDao certificateDao, TagDao tagDao, OrderDao orderDao, CertificateValidator certificateValidator, TagValidator tagValidator, ApplicationEventPublisher eventPublisher) {
         this.certificateDao = certificateDao;
         this.tagDao = tagDao;
         this.orderDao = orderDao;
         this.certificateValidator = certificateValidator;
         this.tagValidator = tagValidator;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -59,6 +68,66 @@ public class CertificateRestService implements CertificateService {
         return certificateDao.findPage(offset, limit);
     }
 
+    /**
+     * Finds version of entity that has passed id without reading entity
+     *
+     * @param id of entity whose version need to be found
+     * @return Optional that contains entity version if entity with passed id exists
+     * or empty optional otherwise
+     */
+    @Override
+    public Optional<String> findVersion(long id) {
+        return certificateDao.findVersion(id);
+    }
+
+    /**
+     * Finds version of entities page without reading entities
+     *
+     * @param offset current page offset
+     * @param limit  current page limit
+     * @return version of entities on passed page
+     * @throws PageOutOfBoundsException offset is greater then total elements
+     * @throws InvalidPageException     is offset or limit is negative
+     */
+    @Override
+    public String findPageVersion(int offset, int limit) throws InvalidPageException, PageOutOfBoundsException {
+        checkPage(offset, limit, certificateDao.getTotalElements());
+        return certificateDao.findPageVersion(offset, limit);
+    }
+
+    /**
+     * Finds and returns entities page that goes after entity with passed id
+     *
+     * @param lastId id of last entity on previous page
+     * @param limit  current page limit
+     * @return list of entities on page after passed id
+     * @throws InvalidPageException if last id is negative or limit is not positive
+     */
+    @Override
+    public List<Certificate> findPageAfter(long lastId, int limit) throws InvalidPageException {
+        checkPageAfter(lastId, limit);
+        return certificateDao.findPageAfter(lastId, limit);
+    }
+
+    /**
+     * Finds certificates page that goes after certificate with passed id.
+     * Keyset pages are ordered by id, so search and sort parameters are rejected
+     *
+     * @param findParameters request parameters except last id and limit
+     * @param lastId         id of last certificate on previous page
+     * @param limit          current page limit
+     * @return list of certificates on page after passed id
+     * @throws UnsupportedPageParametersException if search or sort parameters are passed
+     * @throws InvalidPageException               if last id is negative or limit is not positive
+     */
+    @Override
+    public List<Certificate> findPageAfter(Map<String, String> findParameters, long lastId, int limit) throws InvalidPageException {
+        if (!findParameters.isEmpty()) {
+            throw new UnsupportedPageParametersException(new LinkedHashSet<>(findParameters.keySet()), limit);
+        }
+        return findPageAfter(lastId, limit);
+    }
+
     /**
      * Finds all certificates that match passed parameters
      *
@@ -104,16 +173,18 @@ public class CertificateRestService implements CertificateService {
      * @throws InvalidResourceException if saved entity is invalid
      */
     @Override
+    @Transactional
     public Certificate save(Certificate certificate) throws InvalidResourceException {
         certificateValidator.validate(certificate);
         List<Tag> tags = certificate.getTags();
         for (Tag tag : tags) {
             tagValidator.validate(tag);
         }
-        List<Tag> tagsToSave = tags.stream().map(tag -> tagDao.findByName(tag.getName()).orElse(tag)).collect(Collectors.toList());
+        List<Tag> tagsToSave = tagDao.resolveOrCreate(tags);
         certificate.setTags(tagsToSave);
         certificate.setCreateDate(LocalDateTime.now());
         Certificate savedCertificate = certificateDao.save(certificate);
+        eventPublisher.publishEvent(CertificatesChangedEvent.of(SearchedCertificate.of(savedCertificate)));
         logger.info("New certificate was validated and saved successfully " + savedCertificate);
         return savedCertificate;
     }
@@ -127,8 +198,10 @@ public class CertificateRestService implements CertificateService {
      * @throws ResourceNotFoundException if updated entity is not saved and cannot be found
      */
     @Override
+    @Transactional
     public Certificate update(Certificate certificate) throws InvalidResourceException, ResourceNotFoundException {
         Certificate certificateFromTable = findById(certificate.getId());
+        SearchedCertificate previousCertificate = SearchedCertificate.of(certificateFromTable);
         certificateFromTable.setName(certificate.getName() == null ? certificateFromTable.getName() : certificate.getName());
         certificateFromTable.setDescription(certificate.getDescription() == null ? certificateFromTable.getDescription() : certificate.getDescription());
         certificateFromTable.setPrice(certificate.getPrice() == 0.0 ? certificateFromTable.getPrice() : certificate.getPrice());
@@ -137,13 +210,14 @@ public class CertificateRestService implements CertificateService {
         for (Tag tag : tags) {
             tagValidator.validate(tag);
         }
-        List<Tag> tagsToUpdate = tags.stream().map(tag -> tagDao.findByName(tag.getName()).orElse(tag)).collect(Collectors.toList());
+        List<Tag> tagsToUpdate = tagDao.resolveOrCreate(tags);
         List<Tag> certificateTags = certificateFromTable.getTags();
         tagsToUpdate.removeIf(certificateTags::contains);
         certificateTags.addAll(tagsToUpdate);
         certificateValidator.validate(certificateFromTable);
         certificateFromTable.setLastUpdateDate(LocalDateTime.now());
         Certificate updatedCertificate = certificateDao.update(certificateFromTable);
+        eventPublisher.publishEvent(CertificatesChangedEvent.of(previousCertificate, SearchedCertificate.of(updatedCertificate)));
         logger.info("Certificate was validated and updated successfully " + updatedCertificate);
         return updatedCertificate;
     }
@@ -154,8 +228,11 @@ public class CertificateRestService implements CertificateService {
      * @param certificate entity that need to be saved
      */
     @Override
+    @Transactional
     public void delete(Certificate certificate) {
+        SearchedCertificate deletedCertificate = SearchedCertificate.of(certificate);
         certificateDao.delete(certificate);
+        eventPublisher.publishEvent(CertificatesChangedEvent.of(deletedCertificate));
         logger.info(String.format("Certificate was deleted %s", certificate));
     }
 
@@ -168,31 +245,37 @@ public class CertificateRestService implements CertificateService {
      * @throws InvalidResourceException if passed tag is invalid
      */
     @Override
+    @Transactional
     public Certificate addTags(Certificate certificate, List<Tag> tags) throws InvalidResourceException {
         for (Tag tag : tags) {
             tagValidator.validate(tag);
         }
-        List<Tag> tagsToUpdate = tags.stream().map(tag -> tagDao.findByName(tag.getName()).orElse(tag)).collect(Collectors.toList());
+        SearchedCertificate previousCertificate = SearchedCertificate.of(certificate);
+        List<Tag> tagsToUpdate = tagDao.resolveOrCreate(tags);
         List<Tag> certificateTags = certificate.getTags();
         tagsToUpdate.removeIf(certificateTags::contains);
         certificateTags.addAll(tagsToUpdate);
         certificate.setLastUpdateDate(LocalDateTime.now());
         Certificate updatedCertificate = certificateDao.update(certificate);
+        eventPublisher.publishEvent(CertificatesChangedEvent.of(previousCertificate, SearchedCertificate.of(updatedCertificate)));
         logger.info("Certificate was updated with new tags " + updatedCertificate);
         return updatedCertificate;
     }
 
     /**
-     * Deletes passed certificate passed tag
+     * Deletes passed certificate passed tag. Tag is deleted from all
+     * certificates, so change is published for all certificates
      *
      * @param certificate whose tag need to be deleted
      * @param tag         that need to be deleted
      */
     @Override
+    @Transactional
     public void deleteCertificateTag(Certificate certificate, Tag tag) {
         tagDao.delete(tag);
         certificate.setLastUpdateDate(LocalDateTime.now());
         certificateDao.update(certificate);
+        eventPublisher.publishEvent(CertificatesChangedEvent.ofAll());
         logger.info("Certificate tag was deleted successfully");
     }
 
@@ -264,6 +347,39 @@ public class CertificateRestService implements CertificateService {
         return certificateDao.getTotalElements();
     }
 
+    /**
+     * Passes all saved certificates ordered by id to consumer
+     *
+     * @param consumer consumer of exported certificates
+     */
+    @Override
+    public void exportAll(Consumer<Certificate> consumer) {
+        certificateDao.exportAll(consumer);
+    }
+
+    /**
+     * Passes all certificates that match passed parameters to consumer
+     *
+     * @param findParameters parameters by which need to find certificates
+     * @param consumer       consumer of exported certificates
+     */
+    @Override
+    public void exportWithParameters(LinkedHashMap<String, String> findParameters, Consumer<Certificate> consumer) {
+        certificateDao.exportWithParameters(findParameters, consumer);
+        logger.info("Certificates with parameters were exported " + findParameters);
+    }
+
+    /**
+     * Computes and returns amount of certificates that match passed parameters
+     *
+     * @param findParameters parameters by which need to count certificates
+     * @return amount of certificates that match passed parameters
+     */
+    @Override
+    public int getTotalElementsWithParameters(LinkedHashMap<String, String> findParameters) {
+        return certificateDao.getTotalElementsWithParameters(findParameters);
+    }
+
     /**
      * Finds passed certificate order.
      *
@@ -282,6 +398,23 @@ public class CertificateRestService implements CertificateService {
         return certificateOrders;
     }
 
+    /**
+     * Finds passed certificate orders page that goes after order with passed id
+     *
+     * @param certificate whose orders need to be found
+     * @param lastId      id of last order on previous page
+     * @param limit       current page limit
+     * @return certificate orders page after passed order id
+     * @throws InvalidPageException if last id is negative or limit is not positive
+     */
+    @Override
+    public List<Order> findCertificateOrdersAfter(Certificate certificate, long lastId, int limit) throws InvalidPageException {
+        checkPageAfter(lastId, limit);
+        List<Order> certificateOrders = orderDao.findCertificateOrdersAfter(certificate.getId(), lastId, limit);
+        logger.info(String.format("Certificate with id %d orders after order %d were found %s", certificate.getId(), lastId, certificateOrders));
+        return certificateOrders;
+    }
+
     /**
      * Finds certificate order
      *
@@ -311,4 +444,10 @@ public class CertificateRestService implements CertificateService {
             throw new PageOutOfBoundsException(offset, totalElements);
         }
     }
+
+    private void checkPageAfter(long lastId, int limit) throws InvalidPageException {
+        if (lastId < 0 || limit <= 0) {
+            throw new InvalidPageAfterException(lastId, limit);
+        }
+    }
 }
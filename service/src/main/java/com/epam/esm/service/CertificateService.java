@@ -7,6 +7,8 @@ import com.epam.esm.validation.InvalidResourceException;
 
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Service layer certificate interface that defines
@@ -26,6 +28,19 @@ public interface CertificateService extends Service<Certificate> {
      */
     List<Certificate> findAllWithParameters(LinkedHashMap<String, String> findParameters, int offset, int limit) throws InvalidPageException, PageOutOfBoundsException;
 
+    /**
+     * Finds certificates page that goes after certificate with passed id.
+     * Keyset pages are ordered by id, so search and sort parameters are rejected
+     *
+     * @param findParameters request parameters except last id and limit
+     * @param lastId         id of last certificate on previous page
+     * @param limit          current page limit
+     * @return list of certificates on page after passed id
+     * @throws UnsupportedPageParametersException if search or sort parameters are passed
+     * @throws InvalidPageException               if last id is negative or limit is not positive
+     */
+    List<Certificate> findPageAfter(Map<String, String> findParameters, long lastId, int limit) throws InvalidPageException;
+
     /**
      * Add passed tags to passed certificate
      *
@@ -82,6 +97,23 @@ public interface CertificateService extends Service<Certificate> {
      */
     int getCertificateOrdersTotalElements(Certificate certificate);
 
+    /**
+     * Computes and returns amount of certificates that match passed parameters
+     *
+     * @param findParameters parameters by which need to count certificates
+     * @return amount of certificates that match passed parameters
+     */
+    int getTotalElementsWithParameters(LinkedHashMap<String, String> findParameters);
+
+    /**
+     * Passes all certificates that match passed parameters to consumer
+     * one by one without holding all certificates in memory
+     *
+     * @param findParameters parameters by which need to find certificates
+     * @param consumer       consumer of exported certificates
+     */
+    void exportWithParameters(LinkedHashMap<String, String> findParameters, Consumer<Certificate> consumer);
+
     /**
      * Finds passed certificate order.
      *
@@ -94,6 +126,17 @@ public interface CertificateService extends Service<Certificate> {
      */
     List<Order> findCertificateOrders(Certificate certificate, int offset, int limit) throws PageOutOfBoundsException, InvalidPageException;
 
+    /**
+     * Finds passed certificate orders page that goes after order with passed id
+     *
+     * @param certificate whose orders need to be found
+     * @param lastId      id of last order on previous page
+     * @param limit       current page limit
+     * @return certificate orders page after passed order id
+     * @throws InvalidPageException if last id is negative or limit is not positive
+     */
+    List<Order> findCertificateOrdersAfter(Certificate certificate, long lastId, int limit) throws InvalidPageException;
+
     /**
      * Finds certificate order
      *
@@ -0,0 +1,18 @@
+package com.epam.esm.service;
+
+/**
+ * Keyset pagination exception class. Occurs when id of last entity
+ * on previous page is negative or page limit is not positive
+ */
+public class InvalidPageAfterException extends InvalidPageException {
+    private final long lastId;
+
+    public InvalidPageAfterException(long lastId, int limit) {
+        super(0, limit);
+        this.lastId = lastId;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+}
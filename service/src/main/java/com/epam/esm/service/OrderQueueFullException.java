@@ -0,0 +1,17 @@
+package com.epam.esm.service;
+
+/**
+ * Order exception class. Occurs when order can't be accepted
+ * because too many orders are waiting to be saved
+ */
+public class OrderQueueFullException extends Exception {
+    private final int capacity;
+
+    public OrderQueueFullException(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -4,6 +4,8 @@ import com.epam.esm.model.Entity;
 import com.epam.esm.validation.InvalidResourceException;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface Service<T extends Entity> {
 
@@ -18,6 +20,16 @@ public interface Service<T extends Entity> {
      */
     List<T> findPage(int offset, int limit) throws InvalidPageException, PageOutOfBoundsException;
 
+    /**
+     * Finds and returns entities page that goes after entity with passed id
+     *
+     * @param lastId id of last entity on previous page
+     * @param limit  current page limit
+     * @return list of entities on page after passed id
+     * @throws InvalidPageException if last id is negative or limit is not positive
+     */
+    List<T> findPageAfter(long lastId, int limit) throws InvalidPageException;
+
     /**
      * Finds and returns entity that has passed id
      *
@@ -27,6 +39,26 @@ public interface Service<T extends Entity> {
      */
     T findById(long id) throws ResourceNotFoundException;
 
+    /**
+     * Finds version of entity that has passed id without reading entity
+     *
+     * @param id of entity whose version need to be found
+     * @return Optional that contains entity version if entity with passed id exists
+     * or empty optional otherwise
+     */
+    Optional<String> findVersion(long id);
+
+    /**
+     * Finds version of entities page without reading entities
+     *
+     * @param offset current page offset
+     * @param limit  current page limit
+     * @return version of entities on passed page
+     * @throws PageOutOfBoundsException offset is greater then total elements
+     * @throws InvalidPageException     is offset or limit is negative
+     */
+    String findPageVersion(int offset, int limit) throws InvalidPageException, PageOutOfBoundsException;
+
     /**
      * Saves entity and returns saved entity with assigned id
      *
@@ -59,4 +91,12 @@ public interface Service<T extends Entity> {
      * @return saved entities amount
      */
     int getTotalElements();
+
+    /**
+     * Passes all saved entities ordered by id to consumer
+     * one by one without holding all entities in memory
+     *
+     * @param consumer consumer of exported entities
+     */
+    void exportAll(Consumer<T> consumer);
 }
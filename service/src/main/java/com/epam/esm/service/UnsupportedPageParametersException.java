@@ -0,0 +1,21 @@
+package com.epam.esm.service;
+
+import java.util.Set;
+
+/**
+ * Keyset pagination exception class. Occurs when page that goes after
+ * entity with passed id is requested with search or sort parameters
+ * because keyset pages are ordered by id and are not filtered
+ */
+public class UnsupportedPageParametersException extends InvalidPageException {
+    private final Set<String> parameters;
+
+    public UnsupportedPageParametersException(Set<String> parameters, int limit) {
+        super(0, limit);
+        this.parameters = parameters;
+    }
+
+    public Set<String> getParameters() {
+        return parameters;
+    }
+}
@@ -2,6 +2,7 @@ package com.epam.esm.service;
 
 import com.epam.esm.dao.OrderDao;
 import com.epam.esm.dao.UserDao;
+import com.epam.esm.ingest.OrderIngestionQueue;
 import com.epam.esm.model.Certificate;
 import com.epam.esm.model.Order;
 import com.epam.esm.model.Tag;
@@ -12,10 +13,15 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 @Service
 public class UserRestService implements UserService {
@@ -23,12 +29,14 @@ public class UserRestService implements UserService {
     private final UserDao userDao;
     private final OrderDao orderDao;
     private final UserValidator userValidator;
+    private final OrderIngestionQueue orderIngestionQueue;
 
     @Autowired
-    public UserRestService(UserDao userDao, OrderDao orderDao, UserValidator userValidator) {
+    public UserRestService(UserDao userDao, OrderDao orderDao, UserValidator userValidator, OrderIngestionQueue orderIngestionQueue) {
         this.userDao = userDao;
         this.orderDao = orderDao;
         this.userValidator = userValidator;
+        this.orderIngestionQueue = orderIngestionQueue;
     }
 
     /**
@@ -46,6 +54,47 @@ public class UserRestService implements UserService {
         return userDao.findPage(offset, limit);
     }
 
+    /**
+     * Finds version of entity that has passed id without reading entity
+     *
+     * @param id of entity whose version need to be found
+     * @return Optional that contains entity version if entity with passed id exists
+     * or empty optional otherwise
+     */
+    @Override
+    public Optional<String> findVersion(long id) {
+        return userDao.findVersion(id);
+    }
+
+    /**
+     * Finds version of entities page without reading entities
+     *
+     * @param offset current page offset
+     * @param limit  current page limit
+     * @return version of entities on passed page
+     * @throws PageOutOfBoundsException offset is greater then total elements
+     * @throws InvalidPageException     is offset or limit is negative
+     */
+    @Override
+    public String findPageVersion(int offset, int limit) throws InvalidPageException, PageOutOfBoundsException {
+        checkPage(offset, limit, userDao.getTotalElements());
+        return userDao.findPageVersion(offset, limit);
+    }
+
+    /**
+     * Finds and returns entities page that goes after entity with passed id
+     *
+     * @param lastId id of last entity on previous page
+     * @param limit  current page limit
+     * @return list of entities on page after passed id
+     * @throws InvalidPageException if last id is negative or limit is not positive
+     */
+    @Override
+    public List<User> findPageAfter(long lastId, int limit) throws InvalidPageException {
+        checkPageAfter(lastId, limit);
+        return userDao.findPageAfter(lastId, limit);
+    }
+
     /**
      * Finds and returns entity that has passed id
      *
@@ -92,6 +141,23 @@ public class UserRestService implements UserService {
         return richestUserPopularTag;
     }
 
+    /**
+     * Finds and returns user popular tags. User popular tags are
+     * tags that are used most frequently among user orders
+     *
+     * @param user user whose popular tags need to be found
+     * @param k    maximum amount of tags
+     * @return user popular tags from most popular one
+     * @throws InvalidPageException if amount of tags is not positive
+     */
+    @Override
+    public List<Tag> findUserPopularTags(User user, int k) throws InvalidPageException {
+        if (k <= 0) {
+            throw new InvalidPageException(0, k);
+        }
+        return userDao.findUserPopularTags(user.getId(), k);
+    }
+
     /**
      * Computes and returns amount of entity elements
      *
@@ -102,6 +168,37 @@ public class UserRestService implements UserService {
         return userDao.getTotalElements();
     }
 
+    /**
+     * Passes all saved users ordered by id to consumer
+     *
+     * @param consumer consumer of exported users
+     */
+    @Override
+    public void exportAll(Consumer<User> consumer) {
+        userDao.exportAll(consumer);
+    }
+
+    /**
+     * Passes all users orders ordered by id to consumer
+     *
+     * @param consumer consumer of exported orders
+     */
+    @Override
+    public void exportOrders(Consumer<Order> consumer) {
+        orderDao.exportAll(consumer);
+    }
+
+    /**
+     * Passes passed user orders ordered by id to consumer
+     *
+     * @param user     user whose orders need to be exported
+     * @param consumer consumer of exported orders
+     */
+    @Override
+    public void exportUserOrders(User user, Consumer<Order> consumer) {
+        orderDao.exportUserOrders(user.getId(), consumer);
+    }
+
     /**
      * Saves entity and returns saved entity with assigned id
      *
@@ -110,6 +207,7 @@ public class UserRestService implements UserService {
      * @throws InvalidResourceException if saved entity is invalid
      */
     @Override
+    @Transactional
     public User save(User entity) throws InvalidResourceException {
         userValidator.validate(entity);
         User savedUser = userDao.save(entity);
@@ -125,6 +223,7 @@ public class UserRestService implements UserService {
      * @throws InvalidResourceException if updated entity is invalid
      */
     @Override
+    @Transactional
     public User update(User entity) throws InvalidResourceException {
         userValidator.validate(entity);
         User updatedUser = userDao.update(entity);
@@ -138,26 +237,74 @@ public class UserRestService implements UserService {
      * @param entity entity that need to be saved
      */
     @Override
+    @Transactional
     public void delete(User entity) {
         userDao.delete(entity);
         logger.info(String.format("User was deleted %s", entity));
     }
 
     /**
-     * Makes certificate order by passed users
+     * Makes certificate order by passed users. If order ingestion queue
+     * is enabled then waits until order is committed with other submitted orders
+     * or fails. Order is not rejected while it may still be committed by queue
+     * writer, so client retry does not make duplicate order
      *
      * @param user        that need to order certificate
      * @param certificate that need to be ordered
      * @return made order
+     * @throws OrderQueueFullException if ingestion queue is full
      */
     @Override
-    public Order orderCertificate(User user, Certificate certificate) {
-        Order order = new Order(certificate.getPrice(), certificate);
-        order.setOrderDate(LocalDateTime.now());
-        Order savedOrder = orderDao.save(order);
-        orderDao.setUserToOrder(user.getId(), savedOrder.getId());
-        logger.info(String.format("User order was saved %s", savedOrder));
-        return savedOrder;
+    public Order orderCertificate(User user, Certificate certificate) throws OrderQueueFullException {
+        if (!orderIngestionQueue.isEnabled()) {
+            return saveOrder(user, certificate);
+        }
+        CompletableFuture<Order> submittedOrder = submitToQueue(user, certificate);
+        try {
+            Order savedOrder = submittedOrder.get();
+            logger.info(String.format("User order was saved %s", savedOrder));
+            return savedOrder;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting order commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Submits certificate order to order ingestion queue if queue is enabled
+     * or saves order immediately otherwise
+     *
+     * @param user        that need to order certificate
+     * @param certificate that need to be ordered
+     * @return future of made order that is completed after order commit
+     * @throws OrderQueueFullException if ingestion queue is full
+     */
+    @Override
+    public CompletableFuture<Order> submitOrder(User user, Certificate certificate) throws OrderQueueFullException {
+        if (!orderIngestionQueue.isEnabled()) {
+            return CompletableFuture.completedFuture(saveOrder(user, certificate));
+        }
+        return submitToQueue(user, certificate)
+                .thenApply(savedOrder -> {
+                    logger.info(String.format("User order was saved %s", savedOrder));
+                    return savedOrder;
+                });
+    }
+
+    private CompletableFuture<Order> submitToQueue(User user, Certificate certificate) throws OrderQueueFullException {
+        try {
+            return orderIngestionQueue.submit(user.getId(), createOrder(certificate));
+        } catch (RejectedExecutionException e) {
+            throw new OrderQueueFullException(orderIngestionQueue.getCapacity());
+        }
     }
 
     /**
@@ -176,6 +323,21 @@ public class UserRestService implements UserService {
         return orderDao.findUserOrdersPage(user.getId(), offset, limit);
     }
 
+    /**
+     * Finds and returns user orders page that goes after order with passed id
+     *
+     * @param user   user
+     * @param lastId id of last order on previous page
+     * @param limit  current page limit
+     * @return list of user orders on page after passed order id
+     * @throws InvalidPageException if last id is negative or limit is not positive
+     */
+    @Override
+    public List<Order> findUserOrderPageAfter(User user, long lastId, int limit) throws InvalidPageException {
+        checkPageAfter(lastId, limit);
+        return orderDao.findUserOrdersPageAfter(user.getId(), lastId, limit);
+    }
+
     /**
      * Computes and returns user's order amount
      *
@@ -224,4 +386,22 @@ public class UserRestService implements UserService {
             throw new PageOutOfBoundsException(offset, totalElements);
         }
     }
+
+    private void checkPageAfter(long lastId, int limit) throws InvalidPageException {
+        if (lastId < 0 || limit <= 0) {
+            throw new InvalidPageAfterException(lastId, limit);
+        }
+    }
+
+    private Order saveOrder(User user, Certificate certificate) {
+        Order savedOrder = orderDao.saveUserOrder(user.getId(), createOrder(certificate));
+        logger.info(String.format("User order was saved %s", savedOrder));
+        return savedOrder;
+    }
+
+    private Order createOrder(Certificate certificate) {
+        Order order = new Order(certificate.getPrice(), certificate);
+        order.setOrderDate(LocalDateTime.now());
+        return order;
+    }
 }
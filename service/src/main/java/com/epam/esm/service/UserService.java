@@ -6,17 +6,33 @@ import com.epam.esm.model.Tag;
 import com.epam.esm.model.User;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface UserService extends Service<User> {
 
     /**
-     * Makes certificate order by passed users
+     * Makes certificate order by passed users. Waits until order is saved
      *
      * @param user        that need to order certificate
      * @param certificate that need to be ordered
      * @return made order
+     * @throws OrderQueueFullException if orders are saved by ingestion queue and queue is full
+     *                                 or order is not committed in time
      */
-    Order orderCertificate(User user, Certificate certificate);
+    Order orderCertificate(User user, Certificate certificate) throws OrderQueueFullException;
+
+    /**
+     * Submits certificate order by passed user. If order ingestion queue is enabled
+     * then order is saved together with other submitted orders and returned future
+     * is completed after order is committed. Otherwise order is saved immediately
+     *
+     * @param user        that need to order certificate
+     * @param certificate that need to be ordered
+     * @return future of made order
+     * @throws OrderQueueFullException if ingestion queue is full
+     */
+    CompletableFuture<Order> submitOrder(User user, Certificate certificate) throws OrderQueueFullException;
 
     /**
      * Finds and returns richest user.
@@ -35,6 +51,17 @@ public interface UserService extends Service<User> {
      */
     Tag findRichestUserPopularTag();
 
+    /**
+     * Finds and returns user popular tags. User popular tags are
+     * tags that are used most frequently among user orders
+     *
+     * @param user user whose popular tags need to be found
+     * @param k    maximum amount of tags
+     * @return user popular tags from most popular one
+     * @throws InvalidPageException if amount of tags is not positive
+     */
+    List<Tag> findUserPopularTags(User user, int k) throws InvalidPageException;
+
     /**
      * Finds and returns user orders specified page
      *
@@ -47,6 +74,17 @@ public interface UserService extends Service<User> {
      */
     List<Order> findUserOrderPage(User user, int offset, int limit) throws InvalidPageException, PageOutOfBoundsException;
 
+    /**
+     * Finds and returns user orders page that goes after order with passed id
+     *
+     * @param user   user
+     * @param lastId id of last order on previous page
+     * @param limit  current page limit
+     * @return list of user orders on page after passed order id
+     * @throws InvalidPageException if last id is negative or limit is not positive
+     */
+    List<Order> findUserOrderPageAfter(User user, long lastId, int limit) throws InvalidPageException;
+
     /**
      * Computes and returns user's order amount
      *
@@ -72,4 +110,21 @@ public interface UserService extends Service<User> {
      * @throws ResourceNotFoundException if order is not found
      */
     Order findUserOrder(User foundUser, long orderId) throws ResourceNotFoundException;
+
+    /**
+     * Passes all users orders ordered by id to consumer
+     * one by one without holding all orders in memory
+     *
+     * @param consumer consumer of exported orders
+     */
+    void exportOrders(Consumer<Order> consumer);
+
+    /**
+     * Passes passed user orders ordered by id to consumer
+     * one by one without holding all orders in memory
+     *
+     * @param user     user whose orders need to be exported
+     * @param consumer consumer of exported orders
+     */
+    void exportUserOrders(User user, Consumer<Order> consumer);
 }
@@ -3,6 +3,7 @@ package com.epam.esm.service;
 import com.epam.esm.dao.CertificateDao;
 import com.epam.esm.dao.OrderDao;
 import com.epam.esm.dao.TagDao;
+import com.epam.esm.event.CertificatesChangedEvent;
 import com.epam.esm.model.Certificate;
 import com.epam.esm.model.Order;
 import com.epam.esm.model.Tag;
@@ -13,12 +14,16 @@ import com.epam.esm.validation.InvalidTagException;
 import com.epam.esm.validation.TagValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +36,7 @@ class CertificateRestServiceTest {
     private OrderDao orderDao;
     private CertificateValidator certificateFieldsValidator;
     private TagValidator tagFieldsValidator;
+    private ApplicationEventPublisher eventPublisher;
     private Certificate certificate;
 
     @BeforeEach
@@ -41,7 +47,8 @@ class CertificateRestServiceTest {
         orderDao = mock(OrderDao.class);
         certificateFieldsValidator = mock(CertificateValidator.class);
         tagFieldsValidator = mock(TagValidator.class);
-        service = new CertificateRestService(certificateDao, tagDao, orderDao, certificateFieldsValidator, tagFieldsValidator);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        service = new CertificateRestService(certificateDao, tagDao, orderDao, certificateFieldsValidator, tagFieldsValidator, eventPublisher);
     }
 
     @Test
@@ -71,6 +78,24 @@ class CertificateRestServiceTest {
         assertThrows(InvalidPageException.class, () -> service.findPage(-10, 10));
     }
 
+    @Test
+    public void findPageAfter_shouldThrowExceptionWithLastIdIfLastIdIsNegative() {
+        InvalidPageAfterException exception = assertThrows(InvalidPageAfterException.class, () -> service.findPageAfter(-8589934592L, 10));
+
+        assertEquals(-8589934592L, exception.getLastId());
+    }
+
+    @Test
+    public void findPageAfter_shouldThrowExceptionIfSearchParametersArePassed() {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("tagName", "music");
+
+        UnsupportedPageParametersException exception = assertThrows(UnsupportedPageParametersException.class, () -> service.findPageAfter(parameters, 0, 10));
+
+        assertEquals(Collections.singleton("tagName"), exception.getParameters());
+        verifyNoInteractions(certificateDao);
+    }
+
     @Test
     public void findWithParameters_shouldReturnCertificatesThatMatchesPassedParameters() throws InvalidPageException, PageOutOfBoundsException {
         LinkedHashMap<String, String> map = new LinkedHashMap<>();
@@ -87,6 +112,18 @@ class CertificateRestServiceTest {
         verify(certificateDao).findWithParameters(map, 0, 10);
     }
 
+    @Test
+    public void getTotalElementsWithParameters_shouldReturnAmountOfCertificatesThatMatchPassedParameters() {
+        LinkedHashMap<String, String> map = new LinkedHashMap<>();
+        map.put("tagName", "music,art");
+        when(certificateDao.getTotalElementsWithParameters(map)).thenReturn(1);
+
+        int totalElements = service.getTotalElementsWithParameters(map);
+
+        assertEquals(1, totalElements);
+        verify(certificateDao).getTotalElementsWithParameters(map);
+    }
+
     @Test
     public void findById_shouldReturnCertificateById() throws ResourceNotFoundException {
         when(certificateDao.findById(1)).thenReturn(Optional.of(certificate));
@@ -140,6 +177,21 @@ class CertificateRestServiceTest {
         verify(certificateDao).update(certificate);
     }
 
+    @Test
+    public void update_shouldPublishCertificateValuesBeforeAndAfterChange() throws InvalidResourceException, ResourceNotFoundException {
+        when(certificateDao.findById(certificate.getId())).thenReturn(Optional.of(certificate));
+        when(certificateDao.update(certificate)).thenReturn(certificate);
+        Certificate changedCertificate = new Certificate(1, "new name", null, 0.0, 0, null, null);
+
+        service.update(changedCertificate);
+
+        ArgumentCaptor<CertificatesChangedEvent> event = ArgumentCaptor.forClass(CertificatesChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertFalse(event.getValue().isAllCertificates());
+        assertEquals("name", event.getValue().getCertificates().get(0).getName());
+        assertEquals("new name", event.getValue().getCertificates().get(1).getName());
+    }
+
     @Test
     public void update_shouldThrowExceptionWhenCertificateIsInvalid() throws InvalidResourceException {
         when(certificateDao.findById(certificate.getId())).thenReturn(Optional.of(certificate));
@@ -165,6 +217,7 @@ class CertificateRestServiceTest {
         Tag tag = new Tag(1, "tag");
         List<Tag> tags = Collections.singletonList(tag);
         doNothing().when(tagFieldsValidator).validate(tag);
+        when(tagDao.resolveOrCreate(tags)).thenReturn(new ArrayList<>(tags));
         when(certificateDao.update(certificate)).thenReturn(certificate);
 
         Certificate updatedCertificate = service.addTags(certificate, tags);
@@ -172,6 +225,7 @@ class CertificateRestServiceTest {
         assertTrue(updatedCertificate.getTags().contains(tag));
         assertEquals(certificate, updatedCertificate);
         verify(tagFieldsValidator).validate(tag);
+        verify(tagDao).resolveOrCreate(tags);
         verify(certificateDao).update(certificate);
 
     }
@@ -196,6 +250,15 @@ class CertificateRestServiceTest {
         verify(tagDao).delete(tag);
     }
 
+    @Test
+    public void deleteCertificateTag_shouldPublishChangeOfAllCertificates() {
+        service.deleteCertificateTag(certificate, new Tag(1, "tag"));
+
+        ArgumentCaptor<CertificatesChangedEvent> event = ArgumentCaptor.forClass(CertificatesChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertTrue(event.getValue().isAllCertificates());
+    }
+
     @Test
     public void findCertificateTag_shouldFindTag() throws ResourceNotFoundException {
         Tag tag = new Tag(1, "tag");
@@ -2,6 +2,7 @@ package com.epam.esm.service;
 
 import com.epam.esm.dao.OrderDao;
 import com.epam.esm.dao.UserDao;
+import com.epam.esm.ingest.OrderIngestionQueue;
 import com.epam.esm.model.Certificate;
 import com.epam.esm.model.Order;
 import com.epam.esm.model.Tag;
@@ -15,6 +16,9 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,7 +27,8 @@ class UserRestServiceTest {
     private final UserDao userDao = mock(UserDao.class);
     private final OrderDao orderDao = mock(OrderDao.class);
     private final UserValidator userValidator = mock(UserValidator.class);
-    private final UserRestService service = new UserRestService(userDao, orderDao, userValidator);
+    private final OrderIngestionQueue orderIngestionQueue = mock(OrderIngestionQueue.class);
+    private final UserRestService service = new UserRestService(userDao, orderDao, userValidator, orderIngestionQueue);
     private final User user = new User(1, "user", "user");
     private final Certificate certificate = new Certificate(1, "test", "test", 100.0, 10, LocalDateTime.now(), LocalDateTime.now());
     private final Order order = new Order(certificate.getPrice(), certificate);
@@ -159,15 +164,58 @@ class UserRestServiceTest {
     }
 
     @Test
-    public void orderCertificate_musReturnOrder() {
-        when(orderDao.save(any(Order.class))).thenReturn(order);
-        doNothing().when(orderDao).setUserToOrder(user.getId(), order.getId());
+    public void orderCertificate_shouldWaitOrderSavedByIngestionQueue() throws OrderQueueFullException {
+        when(orderIngestionQueue.isEnabled()).thenReturn(true);
+        when(orderIngestionQueue.submit(eq(user.getId()), any(Order.class))).thenReturn(CompletableFuture.completedFuture(order));
 
         Order madeOrder = service.orderCertificate(user, certificate);
 
         assertEquals(order, madeOrder);
-        verify(orderDao).save(any(Order.class));
-        verify(orderDao).setUserToOrder(user.getId(), order.getId());
+        verify(orderDao, never()).saveUserOrder(anyLong(), any(Order.class));
+    }
+
+    @Test
+    public void submitOrder_shouldThrowExceptionIfIngestionQueueIsFull() {
+        when(orderIngestionQueue.isEnabled()).thenReturn(true);
+        when(orderIngestionQueue.getCapacity()).thenReturn(10);
+        when(orderIngestionQueue.submit(eq(user.getId()), any(Order.class))).thenThrow(new RejectedExecutionException());
+
+        OrderQueueFullException exception = assertThrows(OrderQueueFullException.class, () -> service.submitOrder(user, certificate));
+
+        assertEquals(10, exception.getCapacity());
+    }
+
+    @Test
+    public void orderCertificate_shouldWaitOrderThatIsCommittedLater() throws OrderQueueFullException {
+        CompletableFuture<Order> submittedOrder = new CompletableFuture<>();
+        when(orderIngestionQueue.isEnabled()).thenReturn(true);
+        when(orderIngestionQueue.submit(eq(user.getId()), any(Order.class))).thenReturn(submittedOrder);
+        CompletableFuture.runAsync(() -> submittedOrder.complete(order), CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+
+        Order madeOrder = service.orderCertificate(user, certificate);
+
+        assertEquals(order, madeOrder);
+        assertFalse(submittedOrder.isCancelled());
+    }
+
+    @Test
+    public void orderCertificate_shouldThrowSaveFailureOfIngestionQueue() {
+        CompletableFuture<Order> submittedOrder = new CompletableFuture<>();
+        submittedOrder.completeExceptionally(new IllegalArgumentException("save failed"));
+        when(orderIngestionQueue.isEnabled()).thenReturn(true);
+        when(orderIngestionQueue.submit(eq(user.getId()), any(Order.class))).thenReturn(submittedOrder);
+
+        assertThrows(IllegalArgumentException.class, () -> service.orderCertificate(user, certificate));
+    }
+
+    @Test
+    public void orderCertificate_musReturnOrder() throws OrderQueueFullException {
+        when(orderDao.saveUserOrder(eq(user.getId()), any(Order.class))).thenReturn(order);
+
+        Order madeOrder = service.orderCertificate(user, certificate);
+
+        assertEquals(order, madeOrder);
+        verify(orderDao).saveUserOrder(eq(user.getId()), any(Order.class));
     }
 
     @Test
@@ -212,4 +260,21 @@ class UserRestServiceTest {
         verify(orderDao).getUserOrdersTotalElements(user.getId());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void findUserPopularTags_shouldReturnUserPopularTags() throws InvalidPageException {
+        List<Tag> tags = Collections.singletonList(new Tag(1, "tag"));
+        when(userDao.findUserPopularTags(1, 3)).thenReturn(tags);
+
+        List<Tag> popularTags = service.findUserPopularTags(user, 3);
+
+        assertEquals(tags, popularTags);
+        verify(userDao).findUserPopularTags(1, 3);
+    }
+
+    @Test
+    public void findUserPopularTags_shouldThrowExceptionIfAmountIsNotPositive() {
+        assertThrows(InvalidPageException.class, () -> service.findUserPopularTags(user, 0));
+
+        verifyNoInteractions(userDao);
+    }
+}
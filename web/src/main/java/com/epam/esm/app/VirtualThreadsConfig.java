@@ -0,0 +1,50 @@
+package com.epam.esm.app;
+
+import com.epam.esm.concurrent.ThreadFactories;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs request handling on virtual threads when they are enabled by
+ * db.virtualThreads.enabled property. Tomcat worker pool is replaced by
+ * executor that starts virtual thread per request, so amount of requests
+ * that wait for jdbc calls is bounded by connection pool instead of worker
+ * pool size. Streamed responses are written by virtual threads too.
+ */
+@Configuration
+public class VirtualThreadsConfig implements WebMvcConfigurer {
+    private final ThreadFactories threadFactories;
+
+    @Autowired
+    public VirtualThreadsConfig(ThreadFactories threadFactories) {
+        this.threadFactories = threadFactories;
+    }
+
+    /**
+     * Makes Tomcat customizer that replaces worker pool with virtual threads executor
+     *
+     * @return Tomcat customizer
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadsCustomizer() {
+        return factory -> {
+            if (threadFactories.isVirtual()) {
+                factory.addProtocolHandlerCustomizers(protocolHandler ->
+                        protocolHandler.setExecutor(threadFactories.newThreadPerTaskExecutor("http-request")));
+            }
+        };
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        if (threadFactories.isVirtual()) {
+            configurer.setTaskExecutor(new TaskExecutorAdapter(threadFactories.newThreadPerTaskExecutor("mvc-async")));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.epam.esm.controller;
 
+import com.epam.esm.export.NdjsonExporter;
 import com.epam.esm.model.Certificate;
 import com.epam.esm.model.Order;
 import com.epam.esm.model.Tag;
@@ -8,6 +9,7 @@ import com.epam.esm.page.CertificateLinksBuilder;
 import com.epam.esm.page.UserLinksBuilder;
 import com.epam.esm.service.CertificateService;
 import com.epam.esm.service.InvalidPageException;
+import com.epam.esm.service.OrderQueueFullException;
 import com.epam.esm.service.PageOutOfBoundsException;
 import com.epam.esm.service.ResourceNotFoundException;
 import com.epam.esm.service.UserService;
@@ -15,6 +17,7 @@ import com.epam.esm.validation.InvalidResourceException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -24,9 +27,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Certificate REST controller.
@@ -40,22 +48,28 @@ public class CertificateController {
     private final UserService userService;
     private final CertificateLinksBuilder certificateLinksBuilder;
     private final UserLinksBuilder userLinksBuilder;
+    private final NdjsonExporter exporter;
 
     @Autowired
-    public CertificateController(CertificateService certificateService, UserService userService, CertificateLinksBuilder certificateLinksBuilder, UserLinksBuilder userLinksBuilder) {
+    public CertificateController(CertificateService certificateService, UserService userService, CertificateLinksBuilder certificateLinksBuilder, UserLinksBuilder userLinksBuilder, NdjsonExporter exporter) {
         this.certificateService = certificateService;
         this.userService = userService;
         this.certificateLinksBuilder = certificateLinksBuilder;
         this.userLinksBuilder = userLinksBuilder;
+        this.exporter = exporter;
     }
 
     /**
      * Finds certificates that match passed parameters
      *
+     * Page that is not filtered and sorted is not read if it was not modified since
+     * version that is passed in If-None-Match header
+     *
      * @param parameters find parameters (tagsNames, partOfName, partOfDescription, sortByName, sortByDate, offset, limit)
      * @param offset     pagination offset
      * @param limit      pagination limit
-     * @return found certificates
+     * @param request    current request
+     * @return found certificates or null if page is not modified
      * @throws ResourceNotFoundException if certificate not found
      * @throws PageOutOfBoundsException  if offset is greater that total elements
      * @throws InvalidPageException      if offset or limit is invalid
@@ -63,22 +77,72 @@ public class CertificateController {
     @GetMapping
     public PagedModel<Certificate> showCertificates(@RequestParam(required = false) LinkedHashMap<String, String> parameters,
                                                     @RequestParam(defaultValue = "0") int offset,
-                                                    @RequestParam(defaultValue = "10") int limit) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
+                                                    @RequestParam(defaultValue = "10") int limit,
+                                                    WebRequest request) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
+        if (isPageParameters(parameters)) {
+            Optional<String> version = Optional.of(certificateService.findPageVersion(offset, limit));
+            if (ConditionalRequests.isNotModified(request, version)) {
+                return null;
+            }
+        }
         List<Certificate> foundCertificates = certificateService.findAllWithParameters(parameters, offset, limit);
         return certificateLinksBuilder.buildPageLinks(foundCertificates, parameters, offset, limit);
     }
 
+    /**
+     * Exports all certificates that match passed parameters as newline
+     * delimited JSON. Certificates are written while they are read from database
+     *
+     * @param parameters find parameters (tagsNames, partOfName, partOfDescription, sortByName, sortByDate)
+     * @return streamed certificates
+     */
+    @GetMapping(value = "/export", produces = NdjsonExporter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCertificates(@RequestParam(required = false) LinkedHashMap<String, String> parameters) {
+        return exporter.<Certificate>export(consumer -> certificateService.exportWithParameters(parameters, consumer));
+    }
+
+    /**
+     * Finds certificates page that goes after certificate with passed id.
+     * Used to walk through all certificates with constant cost per page.
+     * Search and sort parameters are rejected because pages are ordered by id
+     *
+     * @param parameters all request parameters
+     * @param after      id of last certificate on previous page
+     * @param limit      pagination limit
+     * @return found certificates
+     * @throws ResourceNotFoundException if certificate not found
+     * @throws InvalidPageException      if last id or limit is invalid or search parameters are passed
+     */
+    @GetMapping(params = "after")
+    public PagedModel<Certificate> showCertificatesAfter(@RequestParam LinkedHashMap<String, String> parameters,
+                                                         @RequestParam long after,
+                                                         @RequestParam(defaultValue = "10") int limit) throws ResourceNotFoundException, InvalidPageException {
+        parameters.remove("after");
+        parameters.remove("limit");
+        List<Certificate> foundCertificates = certificateService.findPageAfter(parameters, after, limit);
+        return certificateLinksBuilder.buildPageAfterLinks(foundCertificates, after, limit);
+    }
+
     /**
      * Finds certificate that has passed id
      *
-     * @param id of certificate that need to be found
-     * @return certificate that has passed id
+     * Certificate is not read if it was not modified since version
+     * that is passed in If-None-Match header
+     *
+     * @param id       of certificate that need to be found
+     * @param request  current request
+     * @param response current response
+     * @return certificate that has passed id or null if certificate is not modified
      * @throws ResourceNotFoundException if certificate is not found
      * @throws PageOutOfBoundsException  if page number is less then one and greater then pages amount
      */
     @GetMapping("/{id}")
-    public Certificate showCertificate(@PathVariable("id") long id) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
+    public Certificate showCertificate(@PathVariable("id") long id, WebRequest request, HttpServletResponse response) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
+        if (ConditionalRequests.isNotModified(request, certificateService.findVersion(id))) {
+            return null;
+        }
         Certificate foundCertificate = certificateService.findById(id);
+        ConditionalRequests.setLastModified(response, foundCertificate.getLastUpdateDate());
         return certificateLinksBuilder.buildLinks(foundCertificate);
     }
 
@@ -204,6 +268,23 @@ public class CertificateController {
         return certificateLinksBuilder.buildCertificateOrdersPage(foundCertificate, foundOrders, offset, limit);
     }
 
+    /**
+     * Finds certificate orders page that goes after order with passed id
+     *
+     * @param id    id of certificate whose orders need to be found
+     * @param after id of last order on previous page
+     * @param limit pagination limit
+     * @return certificate orders
+     * @throws ResourceNotFoundException if certificate is not found
+     * @throws InvalidPageException      if last id or limit is invalid
+     */
+    @GetMapping(value = "/{id}/orders", params = "after")
+    public PagedModel<Order> showCertificateOrdersAfter(@PathVariable Long id, @RequestParam long after, @RequestParam(defaultValue = "10") int limit) throws ResourceNotFoundException, InvalidPageException {
+        Certificate foundCertificate = certificateService.findById(id);
+        List<Order> foundOrders = certificateService.findCertificateOrdersAfter(foundCertificate, after, limit);
+        return certificateLinksBuilder.buildCertificateOrdersPageAfter(foundCertificate, foundOrders, after, limit);
+    }
+
     /**
      * Finds certificate order with passed id
      *
@@ -230,12 +311,17 @@ public class CertificateController {
      * @return made certificate order
      * @throws ResourceNotFoundException if certificate is not found
      * @throws PageOutOfBoundsException  if page number is less then one and greater then pages amount
+     * @throws OrderQueueFullException   if orders ingestion queue is full
      */
     @PostMapping("/{id}/orders")
-    public Order makeOrder(@PathVariable Long id, @RequestBody User user) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
+    public Order makeOrder(@PathVariable Long id, @RequestBody User user) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException, OrderQueueFullException {
         Certificate foundCertificate = certificateService.findById(id);
         User foundUser = userService.findById(user.getId());
         Order savedOrder = userService.orderCertificate(foundUser, foundCertificate);
         return userLinksBuilder.buildUserOrderLinks(foundUser, savedOrder);
     }
+
+    private boolean isPageParameters(LinkedHashMap<String, String> parameters) {
+        return parameters == null || Arrays.asList("offset", "limit").containsAll(parameters.keySet());
+    }
 }
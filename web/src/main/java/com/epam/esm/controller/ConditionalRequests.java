@@ -0,0 +1,51 @@
+package com.epam.esm.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * Conditional GET support of controllers. Resource versions are found
+ * before resources are read, so if request If-None-Match header contains
+ * current resource version then resource is not read and response is
+ * completed with 304 Not Modified status
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Checks if resource that has passed version is not modified since client
+     * has read it. Strong ETag of passed version is set to response
+     *
+     * @param request current request
+     * @param version resource version or empty optional if resource is not found
+     * @return true if response is completed with 304 status and resource
+     * must not be read
+     */
+    static boolean isNotModified(WebRequest request, Optional<String> version) {
+        return version.isPresent() && request.checkNotModified(toEntityTag(version.get()));
+    }
+
+    /**
+     * Sets Last-Modified header of response if resource last update date is known
+     *
+     * @param response       current response
+     * @param lastUpdateDate resource last update date or null
+     */
+    static void setLastModified(HttpServletResponse response, LocalDateTime lastUpdateDate) {
+        if (lastUpdateDate != null) {
+            long lastModified = lastUpdateDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        }
+    }
+
+    private static String toEntityTag(String version) {
+        return "\"" + version + "\"";
+    }
+}
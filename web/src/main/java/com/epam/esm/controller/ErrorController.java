@@ -3,23 +3,29 @@ package com.epam.esm.controller;
 import com.epam.esm.error.Error;
 import com.epam.esm.error.ErrorCode;
 import com.epam.esm.service.CertificateNotFoundException;
+import com.epam.esm.service.InvalidPageAfterException;
 import com.epam.esm.service.InvalidPageException;
 import com.epam.esm.service.OrderNotFoundException;
+import com.epam.esm.service.OrderQueueFullException;
 import com.epam.esm.service.PageOutOfBoundsException;
 import com.epam.esm.service.ResourceNotFoundException;
 import com.epam.esm.service.TagNotFoundException;
+import com.epam.esm.service.UnsupportedPageParametersException;
 import com.epam.esm.service.UserNotFoundException;
 import com.epam.esm.validation.InvalidCertificateException;
 import com.epam.esm.validation.InvalidTagException;
 import com.epam.esm.validation.InvalidUserException;
+import org.hibernate.StaleStateException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.persistence.OptimisticLockException;
 import java.util.Locale;
 
 /**
@@ -177,4 +183,62 @@ public class ErrorController {
         String message = messageSource.getMessage("page.invalid", new Object[]{exception.getOffset(), exception.getLimit()}, locale);
         return new Error(ErrorCode.INVALID.getCode(), message);
     }
+
+    /**
+     * Handles {@link InvalidPageAfterException}
+     *
+     * @param exception occured exception
+     * @param locale    client locale
+     * @return error response
+     */
+    @ExceptionHandler(InvalidPageAfterException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Error invalidPageAfter(InvalidPageAfterException exception, Locale locale) {
+        String message = messageSource.getMessage("page.invalidAfter", new Object[]{Long.toString(exception.getLastId()), exception.getLimit()}, locale);
+        return new Error(ErrorCode.INVALID.getCode(), message);
+    }
+
+    /**
+     * Handles {@link UnsupportedPageParametersException}
+     *
+     * @param exception occured exception
+     * @param locale    client locale
+     * @return error response
+     */
+    @ExceptionHandler(UnsupportedPageParametersException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Error unsupportedPageParameters(UnsupportedPageParametersException exception, Locale locale) {
+        String message = messageSource.getMessage("page.unsupportedParameters", new Object[]{String.join(", ", exception.getParameters())}, locale);
+        return new Error(ErrorCode.INVALID.getCode(), message);
+    }
+
+    /**
+     * Handles {@link OrderQueueFullException}
+     *
+     * @param exception occured exception
+     * @param locale    client locale
+     * @return error response
+     */
+    @ExceptionHandler(OrderQueueFullException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Error orderQueueFull(OrderQueueFullException exception, Locale locale) {
+        String message = messageSource.getMessage("order.queueFull", new Object[]{exception.getCapacity()}, locale);
+        return new Error(ErrorCode.UNAVAILABLE.getCode(), message);
+    }
+
+    /**
+     * Handles {@link OptimisticLockingFailureException}, {@link StaleStateException}
+     * and {@link OptimisticLockException} that are thrown when entity version
+     * was changed by concurrent request
+     *
+     * @param exception occured exception
+     * @param locale    client locale
+     * @return error response
+     */
+    @ExceptionHandler({OptimisticLockingFailureException.class, StaleStateException.class, OptimisticLockException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Error versionConflict(RuntimeException exception, Locale locale) {
+        String message = messageSource.getMessage("entity.versionConflict", new Object[]{}, locale);
+        return new Error(ErrorCode.CONFLICT.getCode(), message);
+    }
 }
@@ -1,5 +1,6 @@
 package com.epam.esm.controller;
 
+import com.epam.esm.export.NdjsonExporter;
 import com.epam.esm.model.Order;
 import com.epam.esm.model.Tag;
 import com.epam.esm.model.User;
@@ -9,15 +10,20 @@ import com.epam.esm.service.PageOutOfBoundsException;
 import com.epam.esm.service.ResourceNotFoundException;
 import com.epam.esm.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -34,40 +40,73 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class UserController {
     private final UserService userService;
     private final UserLinksBuilder linksBuilder;
+    private final NdjsonExporter exporter;
 
     @Autowired
-    public UserController(UserService userService, UserLinksBuilder linksBuilder) {
+    public UserController(UserService userService, UserLinksBuilder linksBuilder, NdjsonExporter exporter) {
         this.userService = userService;
         this.linksBuilder = linksBuilder;
+        this.exporter = exporter;
     }
 
     /**
      * Finds users on page
      *
-     * @param offset page offset
-     * @param limit  page limit
-     * @return users on page
+     * Page is not read if it was not modified since version
+     * that is passed in If-None-Match header
+     *
+     * @param offset  page offset
+     * @param limit   page limit
+     * @param request current request
+     * @return users on page or null if page is not modified
      * @throws ResourceNotFoundException if user not found
      * @throws PageOutOfBoundsException  if offset is greater then total elements
      * @throws InvalidPageException      if offset or limit is negative
      */
     @GetMapping
     public PagedModel<User> showUsers(@RequestParam(required = false, defaultValue = "0") int offset,
-                                      @RequestParam(required = false, defaultValue = "10") int limit) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
+                                      @RequestParam(required = false, defaultValue = "10") int limit,
+                                      WebRequest request) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
+        if (ConditionalRequests.isNotModified(request, Optional.of(userService.findPageVersion(offset, limit)))) {
+            return null;
+        }
         List<User> usersOnPage = userService.findPage(offset, limit);
         return linksBuilder.buildPageLinks(usersOnPage, offset, limit);
     }
 
+    /**
+     * Finds users page that goes after user with passed id
+     *
+     * @param after id of last user on previous page
+     * @param limit page limit
+     * @return users on page
+     * @throws ResourceNotFoundException if user not found
+     * @throws InvalidPageException      if last id or limit is invalid
+     */
+    @GetMapping(params = "after")
+    public PagedModel<User> showUsersAfter(@RequestParam long after,
+                                           @RequestParam(required = false, defaultValue = "10") int limit) throws ResourceNotFoundException, InvalidPageException {
+        List<User> usersOnPage = userService.findPageAfter(after, limit);
+        return linksBuilder.buildPageAfterLinks(usersOnPage, after, limit);
+    }
+
     /**
      * Finds user that has passed id
      *
-     * @param userId id of user
-     * @return user that has passed id
+     * User is not read if it was not modified since version
+     * that is passed in If-None-Match header
+     *
+     * @param userId  id of user
+     * @param request current request
+     * @return user that has passed id or null if user is not modified
      * @throws ResourceNotFoundException if there is no user that has passed id
      * @throws PageOutOfBoundsException  if page number is less then one and greater then pages amount
      */
     @GetMapping("/{userId}")
-    public User showUser(@PathVariable Long userId) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
+    public User showUser(@PathVariable Long userId, WebRequest request) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
+        if (ConditionalRequests.isNotModified(request, userService.findVersion(userId))) {
+            return null;
+        }
         User user = userService.findById(userId);
         return linksBuilder.buildLinks(user);
     }
@@ -87,6 +126,23 @@ public class UserController {
         return linksBuilder.buildUserOrdersPageLinks(user, orders, offset, limit);
     }
 
+    /**
+     * Finds user's orders page that goes after order with passed id
+     *
+     * @param userId id of user whose orders need to be found
+     * @param after  id of last order on previous page
+     * @param limit  page limit
+     * @return list of user's orders on page
+     * @throws ResourceNotFoundException if user is not found
+     * @throws InvalidPageException      if last id or limit is invalid
+     */
+    @GetMapping(value = "/{userId}/orders", params = "after")
+    public PagedModel<Order> showUserOrdersAfter(@PathVariable long userId, @RequestParam long after, @RequestParam(defaultValue = "10") int limit) throws ResourceNotFoundException, InvalidPageException {
+        User user = userService.findById(userId);
+        List<Order> orders = userService.findUserOrderPageAfter(user, after, limit);
+        return linksBuilder.buildUserOrdersPageAfterLinks(user, orders, after, limit);
+    }
+
     /**
      * Finds user order that has passed id
      *
@@ -104,6 +160,42 @@ public class UserController {
         return linksBuilder.buildUserOrderLinks(foundUser, foundOrder);
     }
 
+    /**
+     * Exports all users as newline delimited JSON.
+     * Users are written while they are read from database
+     *
+     * @return streamed users
+     */
+    @GetMapping(value = "/export", produces = NdjsonExporter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return exporter.export(userService::exportAll);
+    }
+
+    /**
+     * Exports all users orders as newline delimited JSON.
+     * Orders are written while they are read from database
+     *
+     * @return streamed orders
+     */
+    @GetMapping(value = "/orders/export", produces = NdjsonExporter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        return exporter.export(userService::exportOrders);
+    }
+
+    /**
+     * Exports user orders as newline delimited JSON.
+     * Orders are written while they are read from database
+     *
+     * @param userId id of user whose orders need to be exported
+     * @return streamed orders
+     * @throws ResourceNotFoundException if user is not found
+     */
+    @GetMapping(value = "/{userId}/orders/export", produces = NdjsonExporter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUserOrders(@PathVariable long userId) throws ResourceNotFoundException {
+        User user = userService.findById(userId);
+        return exporter.<Order>export(consumer -> userService.exportUserOrders(user, consumer));
+    }
+
     /**
      * Finds richest user
      *
@@ -129,4 +221,22 @@ public class UserController {
         popularTag.add(selfLink);
         return popularTag;
     }
+
+    /**
+     * Finds user popular tags
+     *
+     * @param userId user id
+     * @param k      maximum amount of tags
+     * @return user popular tags from most popular one
+     * @throws ResourceNotFoundException if user not found
+     * @throws InvalidPageException      if amount of tags is not positive
+     */
+    @GetMapping("/{userId}/popularTags")
+    public CollectionModel<Tag> showUserPopularTags(@PathVariable long userId,
+                                                    @RequestParam(required = false, defaultValue = "1") int k) throws ResourceNotFoundException, InvalidPageException {
+        User user = userService.findById(userId);
+        List<Tag> popularTags = userService.findUserPopularTags(user, k);
+        Link selfLink = linkTo(methodOn(UserController.class).showUserPopularTags(userId, k)).withSelfRel();
+        return CollectionModel.of(popularTags, selfLink);
+    }
 }
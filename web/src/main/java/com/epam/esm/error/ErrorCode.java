@@ -4,7 +4,7 @@ package com.epam.esm.error;
  * Error code enum that contains error codes constants
  */
 public enum ErrorCode {
-    NOT_FOUND("40401"), INVALID("40002"), PAGE_OUT_OF_BOUNDS("40403");
+    NOT_FOUND("40401"), INVALID("40002"), PAGE_OUT_OF_BOUNDS("40403"), CONFLICT("40904"), UNAVAILABLE("50301");
 
     private final String code;
 
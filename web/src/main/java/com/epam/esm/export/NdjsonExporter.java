@@ -0,0 +1,66 @@
+package com.epam.esm.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes exported entities to response as newline delimited JSON.
+ * Each entity is written to response stream as soon as it is read
+ * so response does not hold exported entities. Stream is flushed by
+ * servlet output buffer instead of after each entity.
+ */
+@Component
+public class NdjsonExporter {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+    private static final char LINE_SEPARATOR = '\n';
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+
+    @Autowired
+    public NdjsonExporter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Makes streaming response that writes entities passed by exporter
+     * one entity per line
+     *
+     * @param exporter passes exported entities to line writer
+     * @param <T>      exported entities type
+     * @return streaming newline delimited JSON response
+     */
+    public <T> ResponseEntity<StreamingResponseBody> export(Consumer<Consumer<T>> exporter) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                exporter.accept(entity -> writeLine(generator, entity));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeLine(JsonGenerator generator, Object entity) {
+        try {
+            writer.writeValue(generator, entity);
+            generator.writeRaw(LINE_SEPARATOR);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
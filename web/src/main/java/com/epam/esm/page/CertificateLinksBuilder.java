@@ -66,4 +66,17 @@ public interface CertificateLinksBuilder extends LinksBuilder<Certificate> {
      * @throws InvalidPageException      if offset or limit is negative
      */
     PagedModel<Order> buildCertificateOrdersPage(Certificate certificate, List<Order> orders, int currentOffset, int currentLimit) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException;
+
+    /**
+     * build certificate orders page links for page that was found after order with passed id
+     *
+     * @param certificate  certificate
+     * @param orders       certificate orders
+     * @param lastId       id of last order on previous page
+     * @param currentLimit current page limit
+     * @return orders that have built links
+     * @throws ResourceNotFoundException if order is not found
+     * @throws InvalidPageException      if offset or limit is negative
+     */
+    PagedModel<Order> buildCertificateOrdersPageAfter(Certificate certificate, List<Order> orders, long lastId, int currentLimit) throws ResourceNotFoundException, InvalidPageException;
 }
@@ -0,0 +1,158 @@
+package com.epam.esm.page;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.Link;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * URI template of controller method link. Controller method mapping is resolved
+ * once when template is created and split to path parts between path variables.
+ * Links are built by appending passed values to these parts and current request
+ * base uri, so controller proxies and mapping lookups that are made by
+ * {@code linkTo(methodOn(...))} for each link are avoided. Built links are
+ * the same as links that are built by {@code linkTo(methodOn(...))}
+ */
+public final class LinkTemplate {
+    private static final Pattern PATH_VARIABLE_PATTERN = Pattern.compile("\\{[^}]+}");
+
+    private final String[] pathParts;
+    private final String[] requestParameters;
+
+    private LinkTemplate(String[] pathParts, String[] requestParameters) {
+        this.pathParts = pathParts;
+        this.requestParameters = requestParameters;
+    }
+
+    /**
+     * Creates template of controller method link. Passed request parameters are
+     * appended to link query in passed order after path variables
+     *
+     * @param controller        controller class
+     * @param methodName        name of controller method
+     * @param requestParameters names of method request parameters
+     * @return created link template
+     * @throws IllegalArgumentException if controller does not have single method with passed name
+     */
+    public static LinkTemplate of(Class<?> controller, String methodName, String... requestParameters) {
+        Method method = findMethod(controller, methodName);
+        String mapping = joinPaths(findPath(controller), findPath(method));
+        List<String> pathParts = new ArrayList<>();
+        Matcher matcher = PATH_VARIABLE_PATTERN.matcher(mapping);
+        int start = 0;
+        while (matcher.find()) {
+            pathParts.add(mapping.substring(start, matcher.start()));
+            start = matcher.end();
+        }
+        pathParts.add(mapping.substring(start));
+        return new LinkTemplate(pathParts.toArray(new String[0]), requestParameters);
+    }
+
+    /**
+     * Builds link by passed values. Values are path variables values
+     * in mapping order and then request parameters values in template order
+     *
+     * @param values path variables and request parameters values
+     * @return built link
+     */
+    public Link toLink(Object... values) {
+        return toLink(Collections.emptyMap(), values);
+    }
+
+    /**
+     * Builds link by passed values. Passed parameters are appended to link
+     * query before template request parameters
+     *
+     * @param parameters request parameters that are appended first
+     * @param values     path variables and request parameters values
+     * @return built link
+     */
+    public Link toLink(Map<String, String> parameters, Object... values) {
+        String baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString();
+        return Link.of(expand(baseUri, parameters, values));
+    }
+
+    /**
+     * Expands template by passed values and appends it to passed base uri
+     *
+     * @param baseUri    base uri of link
+     * @param parameters request parameters that are appended first
+     * @param values     path variables and request parameters values
+     * @return expanded uri
+     * @throws IllegalArgumentException if amount of values differs from template variables amount
+     */
+    public String expand(String baseUri, Map<String, String> parameters, Object... values) {
+        int pathVariables = pathParts.length - 1;
+        if (values.length != pathVariables + requestParameters.length) {
+            throw new IllegalArgumentException(String.format("Expected %d values but was %d",
+                    pathVariables + requestParameters.length, values.length));
+        }
+        StringBuilder uri = new StringBuilder(baseUri).append(pathParts[0]);
+        for (int i = 0; i < pathVariables; i++) {
+            uri.append(UriUtils.encodePathSegment(String.valueOf(values[i]), StandardCharsets.UTF_8));
+            uri.append(pathParts[i + 1]);
+        }
+        char separator = '?';
+        if (parameters != null) {
+            for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+                appendParameter(uri, separator, parameter.getKey(), parameter.getValue());
+                separator = '&';
+            }
+        }
+        for (int i = 0; i < requestParameters.length; i++) {
+            appendParameter(uri, separator, requestParameters[i], values[pathVariables + i]);
+            separator = '&';
+        }
+        return uri.toString();
+    }
+
+    private static void appendParameter(StringBuilder uri, char separator, String name, Object value) {
+        uri.append(separator)
+                .append(UriUtils.encodeQueryParam(name, StandardCharsets.UTF_8))
+                .append('=')
+                .append(UriUtils.encodeQueryParam(String.valueOf(value), StandardCharsets.UTF_8));
+    }
+
+    private static String findPath(AnnotatedElement element) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class);
+        return mapping == null || mapping.path().length == 0 ? "" : mapping.path()[0];
+    }
+
+    private static String joinPaths(String controllerPath, String methodPath) {
+        String path = controllerPath;
+        if (!methodPath.isEmpty()) {
+            path = path.endsWith("/") || methodPath.startsWith("/")
+                    ? path + methodPath
+                    : path + "/" + methodPath;
+            path = path.replace("//", "/");
+        }
+        return path.startsWith("/") ? path : "/" + path;
+    }
+
+    private static Method findMethod(Class<?> controller, String methodName) {
+        Method found = null;
+        for (Method method : controller.getMethods()) {
+            if (method.getName().equals(methodName)) {
+                if (found != null) {
+                    throw new IllegalArgumentException(String.format("Method %s of %s is overloaded", methodName, controller.getName()));
+                }
+                found = method;
+            }
+        }
+        if (found == null) {
+            throw new IllegalArgumentException(String.format("Method %s is not found in %s", methodName, controller.getName()));
+        }
+        return found;
+    }
+}
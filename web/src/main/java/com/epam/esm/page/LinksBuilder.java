@@ -38,4 +38,17 @@ public interface LinksBuilder<T extends Entity> {
      * @throws InvalidPageException      if offset or limit is negative
      */
     PagedModel<T> buildPageLinks(List<T> entities, int currentOffset, int currentLimit) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException;
+
+    /**
+     * Builds links for passed entity page that was found after entity with passed id.
+     * Next page link contains id of last entity on page as page cursor
+     *
+     * @param entities     entities to build links
+     * @param lastId       id of last entity on previous page
+     * @param currentLimit current page limit
+     * @return entities that have build links
+     * @throws ResourceNotFoundException if entity is not found
+     * @throws InvalidPageException      if offset or limit is negative
+     */
+    PagedModel<T> buildPageAfterLinks(List<T> entities, long lastId, int currentLimit) throws ResourceNotFoundException, InvalidPageException;
 }
@@ -17,11 +17,16 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Component
 public class RestCertificateLinksBuilder implements CertificateLinksBuilder {
+    private static final LinkTemplate CERTIFICATES = LinkTemplate.of(CertificateController.class, "showCertificates", "offset", "limit");
+    private static final LinkTemplate CERTIFICATES_AFTER = LinkTemplate.of(CertificateController.class, "showCertificatesAfter", "after", "limit");
+    private static final LinkTemplate CERTIFICATE = LinkTemplate.of(CertificateController.class, "showCertificate");
+    private static final LinkTemplate CERTIFICATE_TAGS = LinkTemplate.of(CertificateController.class, "showCertificateTags", "offset", "limit");
+    private static final LinkTemplate CERTIFICATE_TAG = LinkTemplate.of(CertificateController.class, "showCertificateTag");
+    private static final LinkTemplate CERTIFICATE_ORDERS = LinkTemplate.of(CertificateController.class, "showCertificateOrders", "offset", "limit");
+    private static final LinkTemplate CERTIFICATE_ORDERS_AFTER = LinkTemplate.of(CertificateController.class, "showCertificateOrdersAfter", "after", "limit");
+    private static final LinkTemplate CERTIFICATE_ORDER = LinkTemplate.of(CertificateController.class, "showCertificateOrder");
     private final CertificateService service;
 
     @Autowired
@@ -40,11 +45,11 @@ public class RestCertificateLinksBuilder implements CertificateLinksBuilder {
      */
     @Override
     public Certificate buildLinks(Certificate entity) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
-        Link selfLink = linkTo(methodOn(CertificateController.class).showCertificate(entity.getId())).withSelfRel();
+        Link selfLink = CERTIFICATE.toLink(entity.getId()).withSelfRel();
         entity.add(selfLink);
         if (!entity.getTags().isEmpty()) {
-            Link tagsLink = linkTo(methodOn(CertificateController.class).showCertificateTags(entity.getId(), 0, 10)).withRel("tags");
-            Link ordersLink = linkTo(methodOn(CertificateController.class).showCertificateOrders(entity.getId(), 0, 10)).withRel("orders");
+            Link tagsLink = CERTIFICATE_TAGS.toLink(entity.getId(), 0, 10).withRel("tags");
+            Link ordersLink = CERTIFICATE_ORDERS.toLink(entity.getId(), 0, 10).withRel("orders");
             entity.add(tagsLink, ordersLink);
         }
         return entity;
@@ -64,7 +69,7 @@ public class RestCertificateLinksBuilder implements CertificateLinksBuilder {
     @Override
     public PagedModel<Certificate> buildPageLinks(List<Certificate> entities, int currentOffset, int currentLimit) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
         for (Certificate entity : entities) {
-            Link certificateLink = linkTo(methodOn(CertificateController.class).showCertificate(entity.getId())).withRel("certificate");
+            Link certificateLink = CERTIFICATE.toLink(entity.getId()).withRel("certificate");
             entity.add(certificateLink);
         }
         int totalElements = service.getTotalElements();
@@ -73,6 +78,33 @@ public class RestCertificateLinksBuilder implements CertificateLinksBuilder {
         return PagedModel.of(entities, pageMetadata, links);
     }
 
+    /**
+     * Builds links for passed entity page that was found after entity with passed id.
+     * Next page link contains id of last entity on page as page cursor
+     *
+     * @param entities     entities to build links
+     * @param lastId       id of last entity on previous page
+     * @param currentLimit current page limit
+     * @return entities that have build links
+     * @throws ResourceNotFoundException if entity is not found
+     * @throws InvalidPageException      if offset or limit is negative
+     */
+    @Override
+    public PagedModel<Certificate> buildPageAfterLinks(List<Certificate> entities, long lastId, int currentLimit) throws ResourceNotFoundException, InvalidPageException {
+        for (Certificate entity : entities) {
+            Link certificateLink = CERTIFICATE.toLink(entity.getId()).withRel("certificate");
+            entity.add(certificateLink);
+        }
+        List<Link> links = new ArrayList<>();
+        links.add(CERTIFICATES_AFTER.toLink(lastId, currentLimit).withSelfRel());
+        if (entities.size() == currentLimit) {
+            long nextLastId = entities.get(entities.size() - 1).getId();
+            links.add(CERTIFICATES_AFTER.toLink(nextLastId, currentLimit).withRel("next"));
+        }
+        links.add(CERTIFICATES_AFTER.toLink(0, currentLimit).withRel("first"));
+        return PagedModel.of(entities, null, links);
+    }
+
     /**
      * Build certificate page links base with parameters
      *
@@ -88,10 +120,10 @@ public class RestCertificateLinksBuilder implements CertificateLinksBuilder {
     @Override
     public PagedModel<Certificate> buildPageLinks(List<Certificate> entities, LinkedHashMap<String, String> parameters, int currentOffset, int currentLimit) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
         for (Certificate entity : entities) {
-            Link certificateLink = linkTo(methodOn(CertificateController.class).showCertificate(entity.getId())).withRel("certificate");
+            Link certificateLink = CERTIFICATE.toLink(entity.getId()).withRel("certificate");
             entity.add(certificateLink);
         }
-        int totalElements = service.getTotalElements();
+        int totalElements = service.getTotalElementsWithParameters(parameters);
         List<Link> links = makeCertificatePageLinks(entities, parameters, currentOffset, currentLimit, totalElements);
         PagedModel.PageMetadata pageMetadata = makePageMetadata(entities.size(), currentOffset, currentLimit, totalElements);
         return PagedModel.of(entities, pageMetadata, links);
@@ -109,8 +141,8 @@ public class RestCertificateLinksBuilder implements CertificateLinksBuilder {
      */
     @Override
     public Tag buildTagLinks(Certificate certificate, Tag tag) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
-        Link selfLink = linkTo(methodOn(CertificateController.class).showCertificateTag(certificate.getId(), tag.getId())).withSelfRel();
-        Link certificateLink = linkTo(methodOn(CertificateController.class).showCertificate(certificate.getId())).withRel("certificate");
+        Link selfLink = CERTIFICATE_TAG.toLink(certificate.getId(), tag.getId()).withSelfRel();
+        Link certificateLink = CERTIFICATE.toLink(certificate.getId()).withRel("certificate");
         tag.add(selfLink, certificateLink);
         return tag;
     }
@@ -130,7 +162,7 @@ public class RestCertificateLinksBuilder implements CertificateLinksBuilder {
     @Override
     public PagedModel<Tag> buildCertificateTagsPage(Certificate certificate, List<Tag> tags, int currentOffset, int currentLimit) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
         for (Tag tag : tags) {
-            Link tagLink = linkTo(methodOn(CertificateController.class).showCertificateTag(certificate.getId(), tag.getId())).withRel("tag");
+            Link tagLink = CERTIFICATE_TAG.toLink(certificate.getId(), tag.getId()).withRel("tag");
             tag.add(tagLink);
         }
         int certificateTagsTotalElements = service.getCertificateTagsTotalElements(certificate);
@@ -154,7 +186,7 @@ public class RestCertificateLinksBuilder implements CertificateLinksBuilder {
     @Override
     public PagedModel<Order> buildCertificateOrdersPage(Certificate certificate, List<Order> orders, int currentOffset, int currentLimit) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
         for (Order order : orders) {
-            Link orderLink = linkTo(methodOn(CertificateController.class).showCertificateOrder(certificate.getId(), order.getId())).withRel("order");
+            Link orderLink = CERTIFICATE_ORDER.toLink(certificate.getId(), order.getId()).withRel("order");
             order.add(orderLink);
         }
         int certificateOrdersTotalElements = service.getCertificateOrdersTotalElements(certificate);
@@ -163,21 +195,48 @@ public class RestCertificateLinksBuilder implements CertificateLinksBuilder {
         return PagedModel.of(orders, pageMetadata, links);
     }
 
+    /**
+     * build certificate orders page links for page that was found after order with passed id
+     *
+     * @param certificate  certificate
+     * @param orders       certificate orders
+     * @param lastId       id of last order on previous page
+     * @param currentLimit current page limit
+     * @return orders that have built links
+     * @throws ResourceNotFoundException if order is not found
+     * @throws InvalidPageException      if offset or limit is negative
+     */
+    @Override
+    public PagedModel<Order> buildCertificateOrdersPageAfter(Certificate certificate, List<Order> orders, long lastId, int currentLimit) throws ResourceNotFoundException, InvalidPageException {
+        for (Order order : orders) {
+            Link orderLink = CERTIFICATE_ORDER.toLink(certificate.getId(), order.getId()).withRel("order");
+            order.add(orderLink);
+        }
+        List<Link> links = new ArrayList<>();
+        links.add(CERTIFICATE_ORDERS_AFTER.toLink(certificate.getId(), lastId, currentLimit).withSelfRel());
+        if (orders.size() == currentLimit) {
+            long nextLastId = orders.get(orders.size() - 1).getId();
+            links.add(CERTIFICATE_ORDERS_AFTER.toLink(certificate.getId(), nextLastId, currentLimit).withRel("next"));
+        }
+        links.add(CERTIFICATE_ORDERS_AFTER.toLink(certificate.getId(), 0, currentLimit).withRel("first"));
+        return PagedModel.of(orders, null, links);
+    }
+
     private List<Link> makeCertificatePageLinks(List<Certificate> certificates, LinkedHashMap<String, String> parameters, int currentOffset, int currentLimit, int totalElements) throws PageOutOfBoundsException, ResourceNotFoundException, InvalidPageException {
         List<Link> links = new ArrayList<>();
         int pages = totalElements / currentLimit;
         pages = totalElements % currentLimit == 0 ? pages : ++pages;
-        Link selfLink = linkTo(methodOn(CertificateController.class).showCertificates(parameters, currentOffset, currentLimit)).withSelfRel();
+        Link selfLink = CERTIFICATES.toLink(parameters, currentOffset, currentLimit).withSelfRel();
         if (currentOffset + currentLimit < totalElements) {
-            Link nextPageLink = linkTo(methodOn(CertificateController.class).showCertificates(parameters, currentOffset + currentLimit, currentLimit)).withRel("next");
+            Link nextPageLink = CERTIFICATES.toLink(parameters, currentOffset + currentLimit, currentLimit).withRel("next");
             links.add(nextPageLink);
         }
         if (currentOffset - currentLimit >= 0) {
-            Link previousPageLink = linkTo(methodOn(CertificateController.class).showCertificates(parameters, currentOffset - currentLimit, currentLimit)).withRel("previous");
+            Link previousPageLink = CERTIFICATES.toLink(parameters, currentOffset - currentLimit, currentLimit).withRel("previous");
             links.add(previousPageLink);
         }
-        Link firstPageLink = linkTo(methodOn(CertificateController.class).showCertificates(parameters, 0, currentLimit)).withRel("first");
-        Link lastPageLink = linkTo(methodOn(CertificateController.class).showCertificates(parameters, currentLimit * (pages - 1), currentLimit)).withRel("last");
+        Link firstPageLink = CERTIFICATES.toLink(parameters, 0, currentLimit).withRel("first");
+        Link lastPageLink = CERTIFICATES.toLink(parameters, currentLimit * Math.max(pages - 1, 0), currentLimit).withRel("last");
         links.add(selfLink);
         links.add(firstPageLink);
         links.add(lastPageLink);
@@ -188,17 +247,17 @@ public class RestCertificateLinksBuilder implements CertificateLinksBuilder {
         List<Link> links = new ArrayList<>();
         int pages = totalElements / currentLimit;
         pages = totalElements % currentLimit == 0 ? pages : ++pages;
-        Link selfLink = linkTo(methodOn(CertificateController.class).showCertificateTags(certificate.getId(), currentOffset, currentLimit)).withSelfRel();
+        Link selfLink = CERTIFICATE_TAGS.toLink(certificate.getId(), currentOffset, currentLimit).withSelfRel();
         if (currentOffset + currentLimit < totalElements) {
-            Link nextPageLink = linkTo(methodOn(CertificateController.class).showCertificateTags(certificate.getId(), currentOffset + currentLimit, currentLimit)).withRel("next");
+            Link nextPageLink = CERTIFICATE_TAGS.toLink(certificate.getId(), currentOffset + currentLimit, currentLimit).withRel("next");
             links.add(nextPageLink);
         }
         if (currentOffset - currentLimit >= 0) {
-            Link previousPageLink = linkTo(methodOn(CertificateController.class).showCertificateTags(certificate.getId(), currentOffset - currentLimit, currentLimit)).withRel("previous");
+            Link previousPageLink = CERTIFICATE_TAGS.toLink(certificate.getId(), currentOffset - currentLimit, currentLimit).withRel("previous");
             links.add(previousPageLink);
         }
-        Link firstPageLink = linkTo(methodOn(CertificateController.class).showCertificateTags(certificate.getId(), 0, currentLimit)).withRel("first");
-        Link lastPageLink = linkTo(methodOn(CertificateController.class).showCertificateTags(certificate.getId(), currentLimit * (pages - 1), currentLimit)).withRel("last");
+        Link firstPageLink = CERTIFICATE_TAGS.toLink(certificate.getId(), 0, currentLimit).withRel("first");
+        Link lastPageLink = CERTIFICATE_TAGS.toLink(certificate.getId(), currentLimit * Math.max(pages - 1, 0), currentLimit).withRel("last");
         links.add(selfLink);
         links.add(firstPageLink);
         links.add(lastPageLink);
@@ -209,17 +268,17 @@ public class RestCertificateLinksBuilder implements CertificateLinksBuilder {
         List<Link> links = new ArrayList<>();
         int pages = totalElements / currentLimit;
         pages = totalElements % currentLimit == 0 ? pages : ++pages;
-        Link selfLink = linkTo(methodOn(CertificateController.class).showCertificateOrders(certificate.getId(), currentOffset, currentLimit)).withSelfRel();
+        Link selfLink = CERTIFICATE_ORDERS.toLink(certificate.getId(), currentOffset, currentLimit).withSelfRel();
         if (currentOffset + currentLimit < totalElements) {
-            Link nextPageLink = linkTo(methodOn(CertificateController.class).showCertificateOrders(certificate.getId(), currentOffset + currentLimit, currentLimit)).withRel("next");
+            Link nextPageLink = CERTIFICATE_ORDERS.toLink(certificate.getId(), currentOffset + currentLimit, currentLimit).withRel("next");
             links.add(nextPageLink);
         }
         if (currentOffset - currentLimit >= 0) {
-            Link previousPageLink = linkTo(methodOn(CertificateController.class).showCertificateOrders(certificate.getId(), currentOffset - currentLimit, currentLimit)).withRel("previous");
+            Link previousPageLink = CERTIFICATE_ORDERS.toLink(certificate.getId(), currentOffset - currentLimit, currentLimit).withRel("previous");
             links.add(previousPageLink);
         }
-        Link firstPageLink = linkTo(methodOn(CertificateController.class).showCertificateOrders(certificate.getId(), 0, currentLimit)).withRel("first");
-        Link lastPageLink = linkTo(methodOn(CertificateController.class).showCertificateOrders(certificate.getId(), currentLimit * (pages - 1), currentLimit)).withRel("last");
+        Link firstPageLink = CERTIFICATE_ORDERS.toLink(certificate.getId(), 0, currentLimit).withRel("first");
+        Link lastPageLink = CERTIFICATE_ORDERS.toLink(certificate.getId(), currentLimit * Math.max(pages - 1, 0), currentLimit).withRel("last");
         links.add(selfLink);
         links.add(firstPageLink);
         links.add(lastPageLink);
@@ -16,11 +16,15 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Component
 public class RestUserLinksBuilder implements UserLinksBuilder {
+    private static final LinkTemplate USERS = LinkTemplate.of(UserController.class, "showUsers", "offset", "limit");
+    private static final LinkTemplate USERS_AFTER = LinkTemplate.of(UserController.class, "showUsersAfter", "after", "limit");
+    private static final LinkTemplate USER = LinkTemplate.of(UserController.class, "showUser");
+    private static final LinkTemplate USER_ORDERS = LinkTemplate.of(UserController.class, "showUserOrders", "offset", "limit");
+    private static final LinkTemplate USER_ORDERS_AFTER = LinkTemplate.of(UserController.class, "showUserOrdersAfter", "after", "limit");
+    private static final LinkTemplate USER_ORDER = LinkTemplate.of(UserController.class, "showUserOrder");
+    private static final LinkTemplate CERTIFICATE = LinkTemplate.of(CertificateController.class, "showCertificate");
     private final UserService service;
 
     @Autowired
@@ -39,10 +43,10 @@ public class RestUserLinksBuilder implements UserLinksBuilder {
      */
     @Override
     public User buildLinks(User entity) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
-        Link selfLink = linkTo(methodOn(UserController.class).showUser(entity.getId())).withSelfRel();
+        Link selfLink = USER.toLink(entity.getId()).withSelfRel();
         entity.add(selfLink);
         if (!entity.getOrders().isEmpty()) {
-            Link ordersLink = linkTo(methodOn(UserController.class).showUserOrders(entity.getId(), 0, 10)).withRel("orders");
+            Link ordersLink = USER_ORDERS.toLink(entity.getId(), 0, 10).withRel("orders");
             entity.add(ordersLink);
         }
         return entity;
@@ -61,9 +65,9 @@ public class RestUserLinksBuilder implements UserLinksBuilder {
      */
     @Override
     public PagedModel<User> buildPageLinks(List<User> entities, int currentOffset, int currentLimit) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
-        Link selfLink = linkTo(methodOn(UserController.class).showUsers(currentOffset, currentLimit)).withSelfRel();
+        Link selfLink = USERS.toLink(currentOffset, currentLimit).withSelfRel();
         for (User entity : entities) {
-            Link userLink = linkTo(methodOn(UserController.class).showUser(entity.getId())).withRel("user");
+            Link userLink = USER.toLink(entity.getId()).withRel("user");
             entity.add(userLink);
         }
         int totalElements = service.getTotalElements();
@@ -72,6 +76,33 @@ public class RestUserLinksBuilder implements UserLinksBuilder {
         return PagedModel.of(entities, pageMetadata, links);
     }
 
+    /**
+     * Builds links for passed entity page that was found after entity with passed id.
+     * Next page link contains id of last entity on page as page cursor
+     *
+     * @param entities     entities to build links
+     * @param lastId       id of last entity on previous page
+     * @param currentLimit current page limit
+     * @return entities that have build links
+     * @throws ResourceNotFoundException if entity is not found
+     * @throws InvalidPageException      if offset or limit is negative
+     */
+    @Override
+    public PagedModel<User> buildPageAfterLinks(List<User> entities, long lastId, int currentLimit) throws ResourceNotFoundException, InvalidPageException {
+        for (User entity : entities) {
+            Link userLink = USER.toLink(entity.getId()).withRel("user");
+            entity.add(userLink);
+        }
+        List<Link> links = new ArrayList<>();
+        links.add(USERS_AFTER.toLink(lastId, currentLimit).withSelfRel());
+        if (entities.size() == currentLimit) {
+            long nextLastId = entities.get(entities.size() - 1).getId();
+            links.add(USERS_AFTER.toLink(nextLastId, currentLimit).withRel("next"));
+        }
+        links.add(USERS_AFTER.toLink(0, currentLimit).withRel("first"));
+        return PagedModel.of(entities, null, links);
+    }
+
     /**
      * builds user order links
      *
@@ -84,9 +115,9 @@ public class RestUserLinksBuilder implements UserLinksBuilder {
      */
     @Override
     public Order buildUserOrderLinks(User user, Order order) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
-        Link selfLink = linkTo(methodOn(UserController.class).showUserOrder(user.getId(), order.getId())).withSelfRel();
-        Link userLink = linkTo(methodOn(UserController.class).showUser(user.getId())).withRel("user");
-        Link certificateLink = linkTo(methodOn(CertificateController.class).showCertificate(order.getCertificate().getId())).withRel("certificate");
+        Link selfLink = USER_ORDER.toLink(user.getId(), order.getId()).withSelfRel();
+        Link userLink = USER.toLink(user.getId()).withRel("user");
+        Link certificateLink = CERTIFICATE.toLink(order.getCertificate().getId()).withRel("certificate");
         order.add(selfLink, userLink, certificateLink);
         return order;
     }
@@ -106,7 +137,7 @@ public class RestUserLinksBuilder implements UserLinksBuilder {
     @Override
     public PagedModel<Order> buildUserOrdersPageLinks(User user, List<Order> orders, int currentOffset, int currentLimit) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException {
         for (Order order : orders) {
-            Link orderLink = linkTo(methodOn(UserController.class).showUserOrder(user.getId(), order.getId())).withRel("order");
+            Link orderLink = USER_ORDER.toLink(user.getId(), order.getId()).withRel("order");
             order.add(orderLink);
         }
         int userOrdersTotalElements = service.getUserOrdersTotalElements(user);
@@ -115,21 +146,48 @@ public class RestUserLinksBuilder implements UserLinksBuilder {
         return PagedModel.of(orders, pageMetadata, links);
     }
 
+    /**
+     * builds user orders page links for page that was found after order with passed id
+     *
+     * @param user         user
+     * @param orders       user orders
+     * @param lastId       id of last order on previous page
+     * @param currentLimit current page limit
+     * @return orders that have built links
+     * @throws ResourceNotFoundException if order is not found
+     * @throws InvalidPageException      if offset or limit is negative
+     */
+    @Override
+    public PagedModel<Order> buildUserOrdersPageAfterLinks(User user, List<Order> orders, long lastId, int currentLimit) throws ResourceNotFoundException, InvalidPageException {
+        for (Order order : orders) {
+            Link orderLink = USER_ORDER.toLink(user.getId(), order.getId()).withRel("order");
+            order.add(orderLink);
+        }
+        List<Link> links = new ArrayList<>();
+        links.add(USER_ORDERS_AFTER.toLink(user.getId(), lastId, currentLimit).withSelfRel());
+        if (orders.size() == currentLimit) {
+            long nextLastId = orders.get(orders.size() - 1).getId();
+            links.add(USER_ORDERS_AFTER.toLink(user.getId(), nextLastId, currentLimit).withRel("next"));
+        }
+        links.add(USER_ORDERS_AFTER.toLink(user.getId(), 0, currentLimit).withRel("first"));
+        return PagedModel.of(orders, null, links);
+    }
+
     private List<Link> makeUserPageLinks(List<User> users, int currentOffset, int currentLimit, int totalElements) throws PageOutOfBoundsException, ResourceNotFoundException, InvalidPageException {
         List<Link> links = new ArrayList<>();
         int pages = totalElements / currentLimit;
         pages = totalElements % currentLimit == 0 ? pages : ++pages;
-        Link selfLink = linkTo(methodOn(UserController.class).showUsers(currentOffset, currentLimit)).withSelfRel();
+        Link selfLink = USERS.toLink(currentOffset, currentLimit).withSelfRel();
         if (currentOffset + currentLimit < totalElements) {
-            Link nextPageLink = linkTo(methodOn(UserController.class).showUsers(currentOffset + currentLimit, currentLimit)).withRel("next");
+            Link nextPageLink = USERS.toLink(currentOffset + currentLimit, currentLimit).withRel("next");
             links.add(nextPageLink);
         }
         if (currentOffset - currentLimit >= 0) {
-            Link previousPageLink = linkTo(methodOn(UserController.class).showUsers(currentOffset - currentLimit, currentLimit)).withRel("previous");
+            Link previousPageLink = USERS.toLink(currentOffset - currentLimit, currentLimit).withRel("previous");
             links.add(previousPageLink);
         }
-        Link firstPageLink = linkTo(methodOn(UserController.class).showUsers(0, currentLimit)).withRel("first");
-        Link lastPageLink = linkTo(methodOn(UserController.class).showUsers(currentLimit * (pages - 1), currentLimit)).withRel("last");
+        Link firstPageLink = USERS.toLink(0, currentLimit).withRel("first");
+        Link lastPageLink = USERS.toLink(currentLimit * Math.max(pages - 1, 0), currentLimit).withRel("last");
         links.add(selfLink);
         links.add(firstPageLink);
         links.add(lastPageLink);
@@ -140,17 +198,17 @@ public class RestUserLinksBuilder implements UserLinksBuilder {
         List<Link> links = new ArrayList<>();
         int pages = totalElements / currentLimit;
         pages = totalElements % currentLimit == 0 ? pages : ++pages;
-        Link selfLink = linkTo(methodOn(UserController.class).showUserOrders(user.getId(), currentOffset, currentLimit)).withSelfRel();
+        Link selfLink = USER_ORDERS.toLink(user.getId(), currentOffset, currentLimit).withSelfRel();
         if (currentOffset + currentLimit < totalElements) {
-            Link nextPageLink = linkTo(methodOn(UserController.class).showUserOrders(user.getId(), currentOffset + currentLimit, currentLimit)).withRel("next");
+            Link nextPageLink = USER_ORDERS.toLink(user.getId(), currentOffset + currentLimit, currentLimit).withRel("next");
             links.add(nextPageLink);
         }
         if (currentOffset - currentLimit >= 0) {
-            Link previousPageLink = linkTo(methodOn(UserController.class).showUserOrders(user.getId(), currentOffset - currentLimit, currentLimit)).withRel("previous");
+            Link previousPageLink = USER_ORDERS.toLink(user.getId(), currentOffset - currentLimit, currentLimit).withRel("previous");
             links.add(previousPageLink);
         }
-        Link firstPageLink = linkTo(methodOn(UserController.class).showUserOrders(user.getId(), 0, currentLimit)).withRel("first");
-        Link lastPageLink = linkTo(methodOn(UserController.class).showUserOrders(user.getId(), currentLimit * (pages - 1), currentLimit)).withRel("next");
+        Link firstPageLink = USER_ORDERS.toLink(user.getId(), 0, currentLimit).withRel("first");
+        Link lastPageLink = USER_ORDERS.toLink(user.getId(), currentLimit * Math.max(pages - 1, 0), currentLimit).withRel("next");
         links.add(selfLink);
         links.add(firstPageLink);
         links.add(lastPageLink);
@@ -36,4 +36,17 @@ public interface UserLinksBuilder extends LinksBuilder<User> {
      */
     PagedModel<Order> buildUserOrdersPageLinks(User user, List<Order> orders, int currentOffset, int currentLimit) throws ResourceNotFoundException, PageOutOfBoundsException, InvalidPageException;
 
+    /**
+     * builds user orders page links for page that was found after order with passed id
+     *
+     * @param user         user
+     * @param orders       user orders
+     * @param lastId       id of last order on previous page
+     * @param currentLimit current page limit
+     * @return orders that have built links
+     * @throws ResourceNotFoundException if order is not found
+     * @throws InvalidPageException      if offset or limit is negative
+     */
+    PagedModel<Order> buildUserOrdersPageAfterLinks(User user, List<Order> orders, long lastId, int currentLimit) throws ResourceNotFoundException, InvalidPageException;
+
 }
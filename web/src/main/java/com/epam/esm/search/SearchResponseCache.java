@@ -0,0 +1,168 @@
+package com.epam.esm.search;
+
+import com.epam.esm.builder.FindCertificatesQueryBuilder;
+import com.epam.esm.event.CertificatesChangedEvent;
+import com.epam.esm.event.SearchedCertificate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of rendered certificate search responses. Responses are saved by
+ * request uri and parameters and reused until their time to live is expired
+ * or until certificate that could be found by their search parameters is
+ * changed. Changes are received as {@link CertificatesChangedEvent} after
+ * changing transaction is committed. Changed certificate values before and
+ * after change are matched against search parameters of each cached response,
+ * so responses of other searches are kept. Responses that were rendered while
+ * certificates were changed are not saved because they could contain values
+ * before change. Responses are held by Caffeine cache that is bounded by
+ * web.searchCache.maxSize entries like entities amounts in CountCache.
+ */
+@Component
+public class SearchResponseCache {
+    private final Cache<String, CachedResponse> responses;
+    private final AtomicLong generation = new AtomicLong();
+    private final boolean enabled;
+
+    public SearchResponseCache(@Value("${web.searchCache.enabled}") boolean enabled,
+                               @Value("${web.searchCache.timeToLiveMillis}") long timeToLiveMillis,
+                               @Value("${web.searchCache.maxSize}") int maxSize) {
+        this.enabled = enabled;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(timeToLiveMillis, TimeUnit.MILLISECONDS)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns current changes generation. Generation is taken before search
+     * response is rendered and passed back when response is saved
+     *
+     * @return current changes generation
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Returns cached response that is saved by passed key if it is not expired
+     *
+     * @param key request key
+     * @return Optional that contains cached response or empty optional
+     */
+    public Optional<CachedResponse> get(String key) {
+        return Optional.ofNullable(responses.getIfPresent(key));
+    }
+
+    /**
+     * Saves rendered search response. Response is not saved if certificates
+     * were changed after passed generation was taken
+     *
+     * @param key         request key
+     * @param parameters  search parameters of request
+     * @param contentType response content type
+     * @param body        rendered response body
+     * @param generation  changes generation that was taken before response was rendered
+     */
+    public void put(String key, Map<String, String> parameters, String contentType, byte[] body, long generation) {
+        if (!enabled || this.generation.get() != generation) {
+            return;
+        }
+        responses.put(key, new CachedResponse(parameters, contentType, body));
+    }
+
+    /**
+     * Invalidates cached responses that could contain certificates
+     * changed by committed transaction
+     *
+     * @param event certificates change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCertificatesChanged(CertificatesChangedEvent event) {
+        if (event.isAllCertificates()) {
+            invalidateAll();
+        } else {
+            invalidate(event.getCertificates().toArray(new SearchedCertificate[0]));
+        }
+    }
+
+    /**
+     * Invalidates all cached responses
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    /**
+     * Invalidates cached responses of searches that could find any
+     * of passed certificates
+     *
+     * @param certificates values of changed certificates before and after change
+     */
+    public void invalidate(SearchedCertificate... certificates) {
+        generation.incrementAndGet();
+        responses.asMap().values().removeIf(response -> {
+            for (SearchedCertificate certificate : certificates) {
+                if (response.matches(certificate)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Rendered search response with search parameters that are used to
+     * check if changed certificate could be found by this search
+     */
+    public static final class CachedResponse {
+        private final Set<String> tagNames;
+        private final String partOfName;
+        private final String partOfDescription;
+        private final String contentType;
+        private final byte[] body;
+
+        private CachedResponse(Map<String, String> parameters, String contentType, byte[] body) {
+            String tagNames = parameters.get(FindCertificatesQueryBuilder.TAG_NAME_ATTRIBUTE_KEY);
+            this.tagNames = tagNames == null || tagNames.isEmpty()
+                    ? Collections.emptySet()
+                    : new HashSet<>(Arrays.asList(SearchedCertificate.toLowerCase(tagNames).split(FindCertificatesQueryBuilder.COMMA)));
+            this.partOfName = SearchedCertificate.toLowerCase(parameters.get(FindCertificatesQueryBuilder.PART_OF_NAME_PARAMETER_KEY));
+            this.partOfDescription = SearchedCertificate.toLowerCase(parameters.get(FindCertificatesQueryBuilder.PART_OF_DESCRIPTION_PARAMETER_KEY));
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        private boolean matches(SearchedCertificate certificate) {
+            return certificate.getTagNames().containsAll(tagNames)
+                    && certificate.getName().contains(partOfName)
+                    && certificate.getDescription().contains(partOfDescription);
+        }
+    }
+}
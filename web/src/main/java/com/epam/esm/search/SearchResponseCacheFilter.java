@@ -0,0 +1,116 @@
+package com.epam.esm.search;
+
+import com.epam.esm.builder.FindCertificatesQueryBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UriUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves certificate search responses from {@link SearchResponseCache}.
+ * Only GET requests of certificates that have search or sort parameters are
+ * cached. If response is cached then its body is written as is, so certificates
+ * are neither read nor serialized. Otherwise rendered response is saved.
+ * Requests are keyed by request url, parameters in request order and accepted
+ * media types because links in response repeat request url and parameters
+ */
+@Component
+public class SearchResponseCacheFilter extends OncePerRequestFilter {
+    private static final String SEARCH_PATH = "/certificates";
+    private static final String AFTER_PARAMETER = "after";
+    private static final List<String> SEARCH_PARAMETERS = Arrays.asList(
+            FindCertificatesQueryBuilder.TAG_NAME_ATTRIBUTE_KEY,
+            FindCertificatesQueryBuilder.PART_OF_NAME_PARAMETER_KEY,
+            FindCertificatesQueryBuilder.PART_OF_DESCRIPTION_PARAMETER_KEY,
+            FindCertificatesQueryBuilder.SORT_BY_NAME_PARAMETER_KEY,
+            FindCertificatesQueryBuilder.SORT_BY_DATE_PARAMETER_KEY);
+
+    private final SearchResponseCache cache;
+
+    @Autowired
+    public SearchResponseCacheFilter(SearchResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!cache.isEnabled() || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.equals(SEARCH_PATH) || request.getParameter(AFTER_PARAMETER) != null) {
+            return true;
+        }
+        for (String parameter : SEARCH_PARAMETERS) {
+            if (request.getParameter(parameter) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String key = makeKey(request);
+        Optional<SearchResponseCache.CachedResponse> cachedResponse = cache.get(key);
+        if (cachedResponse.isPresent()) {
+            byte[] body = cachedResponse.get().getBody();
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(cachedResponse.get().getContentType());
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            return;
+        }
+        long generation = cache.getGeneration();
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (responseWrapper.getStatus() == HttpStatus.OK.value()) {
+                cache.put(key, findParameters(request), responseWrapper.getContentType(),
+                        responseWrapper.getContentAsByteArray(), generation);
+            }
+        } finally {
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private String makeKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURL());
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : request.getParameterMap().entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator)
+                        .append(UriUtils.encodeQueryParam(parameter.getKey(), StandardCharsets.UTF_8))
+                        .append('=')
+                        .append(UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8));
+                separator = '&';
+            }
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept == null ? key.toString() : key.append(' ').append(accept).toString();
+    }
+
+    private Map<String, String> findParameters(HttpServletRequest request) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (Map.Entry<String, String[]> parameter : request.getParameterMap().entrySet()) {
+            parameters.put(parameter.getKey(), parameter.getValue()[0]);
+        }
+        return parameters;
+    }
+}
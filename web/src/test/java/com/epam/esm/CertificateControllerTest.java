@@ -3,6 +3,8 @@ package com.epam.esm;
 import com.epam.esm.config.PersistanceConfig;
 import com.epam.esm.model.Certificate;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -12,7 +14,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -26,6 +30,13 @@ class CertificateControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    public void evictSecondLevelCache() {
+        sessionFactory.getCache().evictAllRegions();
+    }
 
     @Test
     public void showCertificates_shouldReturnFoundCertificatesOnFirstPage() throws Exception {
@@ -93,6 +104,64 @@ class CertificateControllerTest {
                 .andExpect(jsonPath("$._links.orders.href", is("http://localhost/certificates/1/orders?offset=0&limit=10")));
     }
 
+    @Test
+    public void showCertificateById_shouldReturnEntityTagOfCertificateVersion() throws Exception {
+        mockMvc.perform(get("/certificates/{id}", 1L))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0-3-6-0\""));
+    }
+
+    @Test
+    public void showCertificateById_shouldReturnNotModifiedIfVersionIsNotChanged() throws Exception {
+        mockMvc.perform(get("/certificates/{id}", 1L).header("If-None-Match", "\"0-3-6-0\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void showCertificates_shouldReturnNotModifiedIfPageIsNotChanged() throws Exception {
+        MvcResult result = mockMvc.perform(get("/certificates"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String entityTag = result.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/certificates").header("If-None-Match", entityTag))
+                .andDo(print())
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void showCertificatesAfter_shouldReturnCertificatesAfterPassedId() throws Exception {
+        mockMvc.perform(get("/certificates?after=0&limit=5"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.certificateList", hasSize(1)))
+                .andExpect(jsonPath("$._embedded.certificateList[0].id", is(1)));
+    }
+
+    @Test
+    public void showCertificatesAfter_shouldReturnBadRequestIfSearchParametersArePassed() throws Exception {
+        mockMvc.perform(get("/certificates?after=0&tagName=music"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", is("40002")))
+                .andExpect(jsonPath("$.message", is("Parameters tagName cannot be used with after parameter. Pages after id are ordered by id and are not filtered")));
+    }
+
+    @Test
+    public void showCertificatesAfter_shouldReportLastIdThatIsNotTruncated() throws Exception {
+        mockMvc.perform(get("/certificates?after=0&limit=0"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Last id 0 or limit 0 is invalid. Last id must be equal or greater then zero. Limit must be positive")));
+        mockMvc.perform(get("/certificates?after=-8589934592"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Last id -8589934592 or limit 10 is invalid. Last id must be equal or greater then zero. Limit must be positive")));
+    }
+
     @Test
     public void saveCertificate_shouldReturnBadRequestForInvalidCertificate() throws Exception {
         Certificate invalidCertificate = new Certificate("", "", -10.0, -10);
@@ -109,7 +178,7 @@ class CertificateControllerTest {
     @Test
     public void saveCertificate_shouldAddNewCertificate() throws Exception {
         Certificate certificate = new Certificate("certificate", "test certificate", 10.0, 100);
-        mockMvc.perform(post("/certificates")
+        MvcResult result = mockMvc.perform(post("/certificates")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(new ObjectMapper().writeValueAsString(certificate)))
                 .andDo(print())
@@ -120,7 +189,12 @@ class CertificateControllerTest {
                 .andExpect(jsonPath("$.description", is("test certificate")))
                 .andExpect(jsonPath("$.price", is(10.0)))
                 .andExpect(jsonPath("$.duration", is(100)))
-                .andExpect(jsonPath("$._links.self.href", is("http://localhost/certificates/2")));
+                .andReturn();
+        long savedId = new ObjectMapper().readTree(result.getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(get("/certificates/{id}", savedId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("certificate")));
+        assertThat(result.getResponse().getContentAsString(), containsString("\"href\":\"http://localhost/certificates/" + savedId + "\""));
     }
 
     @Test
@@ -209,4 +283,30 @@ class CertificateControllerTest {
                 .andExpect(jsonPath("$.errorCode", is("40401")))
                 .andExpect(jsonPath("$.message", is("Tag with id 100 not found")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void exportCertificates_shouldStreamCertificatesThatMatchParameters() throws Exception {
+        MvcResult result = mockMvc.perform(get("/certificates/export").param("tagName", "spotify,music"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"id\":1")))
+                .andExpect(content().string(containsString("\"name\":\"free music listen certificate\"")))
+                .andExpect(content().string(endsWith("}\n")));
+    }
+
+    @Test
+    public void exportCertificates_shouldStreamNothingIfNoCertificatesMatchParameters() throws Exception {
+        MvcResult result = mockMvc.perform(get("/certificates/export").param("tagName", "missing"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.hateoas.MediaTypes;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,6 +39,14 @@ class UserControllerTest {
                 .andExpect(jsonPath("$._links.self.href", is("http://localhost/users?offset=0&limit=10")));
     }
 
+    @Test
+    public void showUser_shouldReturnNotModifiedIfUserAndOrdersAreNotChanged() throws Exception {
+        mockMvc.perform(get("/users/{id}", 1).header("If-None-Match", "\"0-1-1-0\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"0-1-1-0\""));
+    }
+
     @Test
     public void showUser_shouldReturnUserThatHasPassedId() throws Exception {
         mockMvc.perform(get("/users/{id}", 1))
@@ -86,4 +95,67 @@ class UserControllerTest {
                 .andExpect(jsonPath("$._links.user.href", is("http://localhost/users/1")))
                 .andExpect(jsonPath("$._links.certificate.href", is("http://localhost/certificates/1")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void showUserPopularTags_shouldReturnUserPopularTags() throws Exception {
+        mockMvc.perform(get("/users/{userId}/popularTags", 1).param("k", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaTypes.HAL_JSON_VALUE))
+                .andExpect(jsonPath("$._embedded.tagList", hasSize(2)))
+                .andExpect(jsonPath("$._embedded.tagList[0].name", is("spotify")))
+                .andExpect(jsonPath("$._embedded.tagList[1].name", is("music")))
+                .andExpect(jsonPath("$._links.self.href", is("http://localhost/users/1/popularTags?k=2")));
+    }
+
+    @Test
+    public void exportUsers_shouldStreamAllUsers() throws Exception {
+        MvcResult result = mockMvc.perform(get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"id\":1")))
+                .andExpect(content().string(containsString("\"surname\":\"test\"")))
+                .andExpect(content().string(endsWith("}\n")));
+    }
+
+    @Test
+    public void exportOrders_shouldStreamAllOrders() throws Exception {
+        MvcResult result = mockMvc.perform(get("/users/orders/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"cost\":200.5")))
+                .andExpect(content().string(containsString("\"name\":\"free music listen certificate\"")))
+                .andExpect(content().string(endsWith("}\n")));
+    }
+
+    @Test
+    public void exportUserOrders_shouldStreamUserOrders() throws Exception {
+        MvcResult result = mockMvc.perform(get("/users/{userId}/orders/export", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"cost\":200.5")))
+                .andExpect(content().string(endsWith("}\n")));
+    }
+
+    @Test
+    public void exportUserOrders_shouldReturnHttpStatusCode404IfUserIsNotFound() throws Exception {
+        mockMvc.perform(get("/users/{userId}/orders/export", 100))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+}
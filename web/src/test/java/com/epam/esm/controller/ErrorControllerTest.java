@@ -0,0 +1,64 @@
+package com.epam.esm.controller;
+
+import com.epam.esm.error.ErrorCode;
+import org.hibernate.StaleObjectStateException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ErrorControllerTest {
+    private static final String MESSAGE = "Resource was changed by another request";
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("entity.versionConflict", Locale.getDefault(), MESSAGE);
+        messageSource.setUseCodeAsDefaultMessage(true);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ConflictingController())
+                .setControllerAdvice(new ErrorController(messageSource))
+                .build();
+    }
+
+    @Test
+    public void versionConflict_shouldReturnConflictIfStaleObjectStateExceptionOccurred() throws Exception {
+        mockMvc.perform(get("/stale").locale(Locale.getDefault()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode", is(ErrorCode.CONFLICT.getCode())))
+                .andExpect(jsonPath("$.message", is(MESSAGE)));
+    }
+
+    @Test
+    public void versionConflict_shouldReturnConflictIfOptimisticLockingFailureOccurred() throws Exception {
+        mockMvc.perform(get("/translated").locale(Locale.getDefault()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode", is(ErrorCode.CONFLICT.getCode())));
+    }
+
+    @RestController
+    static class ConflictingController {
+
+        @GetMapping("/stale")
+        public void stale() {
+            throw new StaleObjectStateException("Certificate", 1L);
+        }
+
+        @GetMapping("/translated")
+        public void translated() {
+            throw new OptimisticLockingFailureException("Certificate was updated concurrently");
+        }
+    }
+}
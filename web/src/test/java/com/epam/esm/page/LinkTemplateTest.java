@@ -0,0 +1,74 @@
+package com.epam.esm.page;
+
+import com.epam.esm.controller.CertificateController;
+import com.epam.esm.controller.UserController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.LinkedHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class LinkTemplateTest {
+
+    @BeforeEach
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/certificates");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void toLink_shouldBuildSameLinkAsMethodInvocationWithPathVariables() throws Exception {
+        LinkTemplate template = LinkTemplate.of(UserController.class, "showUserOrder");
+
+        String expected = linkTo(methodOn(UserController.class).showUserOrder(3, 15)).withSelfRel().getHref();
+
+        assertEquals(expected, template.toLink(3L, 15L).withSelfRel().getHref());
+        assertEquals("http://localhost/users/3/orders/15", template.toLink(3L, 15L).getHref());
+    }
+
+    @Test
+    public void toLink_shouldBuildSameLinkAsMethodInvocationWithRequestParameters() throws Exception {
+        LinkTemplate template = LinkTemplate.of(CertificateController.class, "showCertificateOrdersAfter", "after", "limit");
+
+        String expected = linkTo(methodOn(CertificateController.class).showCertificateOrdersAfter(1L, 20L, 10)).withSelfRel().getHref();
+
+        assertEquals(expected, template.toLink(1L, 20L, 10).getHref());
+    }
+
+    @Test
+    public void toLink_shouldBuildSameLinkAsMethodInvocationWithParametersMap() throws Exception {
+        LinkTemplate template = LinkTemplate.of(CertificateController.class, "showCertificates", "offset", "limit");
+        LinkedHashMap<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("tagName", "first tag,second");
+        parameters.put("sortByName", "asc");
+
+        String expected = linkTo(methodOn(CertificateController.class).showCertificates(parameters, 10, 10, null)).withSelfRel().getHref();
+
+        assertEquals(expected, template.toLink(parameters, 10, 10).getHref());
+    }
+
+    @Test
+    public void expand_shouldThrowExceptionIfValuesAmountIsInvalid() {
+        LinkTemplate template = LinkTemplate.of(CertificateController.class, "showCertificateTag");
+
+        assertThrows(IllegalArgumentException.class, () -> template.expand("", null, 1L));
+    }
+
+    @Test
+    public void of_shouldThrowExceptionIfMethodIsNotFound() {
+        assertThrows(IllegalArgumentException.class, () -> LinkTemplate.of(CertificateController.class, "showNothing"));
+    }
+}
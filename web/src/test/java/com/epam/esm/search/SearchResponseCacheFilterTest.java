@@ -0,0 +1,93 @@
+package com.epam.esm.search;
+
+import com.epam.esm.event.CertificatesChangedEvent;
+import com.epam.esm.event.SearchedCertificate;
+import com.epam.esm.model.Certificate;
+import com.epam.esm.model.Tag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchResponseCacheFilterTest {
+    private SearchResponseCache cache;
+    private SearchResponseCacheFilter filter;
+    private AtomicInteger renderedResponses;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new SearchResponseCache(true, 10000, 10);
+        filter = new SearchResponseCacheFilter(cache);
+        renderedResponses = new AtomicInteger();
+    }
+
+    @Test
+    public void doFilter_shouldServeCachedResponseWithoutRenderingIt() throws Exception {
+        MockHttpServletResponse firstResponse = search("music", MediaType.APPLICATION_JSON_VALUE);
+        MockHttpServletResponse secondResponse = search("music", MediaType.APPLICATION_JSON_VALUE);
+
+        assertEquals(1, renderedResponses.get());
+        assertEquals(firstResponse.getContentAsString(), secondResponse.getContentAsString());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, secondResponse.getContentType());
+    }
+
+    @Test
+    public void doFilter_shouldKeyResponsesByAcceptedMediaTypes() throws Exception {
+        search("music", MediaType.APPLICATION_JSON_VALUE);
+        MockHttpServletResponse response = search("music", MediaType.APPLICATION_XML_VALUE);
+
+        assertEquals(2, renderedResponses.get());
+        assertEquals(MediaType.APPLICATION_XML_VALUE, response.getContentType());
+    }
+
+    @Test
+    public void doFilter_shouldRenderResponseAgainAfterFoundCertificateIsChanged() throws Exception {
+        search("music", MediaType.APPLICATION_JSON_VALUE);
+        Certificate certificate = new Certificate("name", "description", 10.0, 10);
+        certificate.getTags().add(new Tag("music"));
+        cache.onCertificatesChanged(CertificatesChangedEvent.of(SearchedCertificate.of(certificate)));
+        search("music", MediaType.APPLICATION_JSON_VALUE);
+
+        assertEquals(2, renderedResponses.get());
+    }
+
+    @Test
+    public void doFilter_shouldNotCacheRequestsWithoutSearchParameters() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/certificates");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new SearchServlet()));
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new SearchServlet()));
+
+        assertEquals(2, renderedResponses.get());
+    }
+
+    private MockHttpServletResponse search(String tagName, String accept) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/certificates");
+        request.addParameter("tagName", tagName);
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new SearchServlet()));
+        return response;
+    }
+
+    private class SearchServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            int responseNumber = renderedResponses.incrementAndGet();
+            response.setContentType(request.getHeader(HttpHeaders.ACCEPT));
+            response.getOutputStream().write(("response " + responseNumber).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.epam.esm.search;
+
+import com.epam.esm.event.CertificatesChangedEvent;
+import com.epam.esm.event.SearchedCertificate;
+import com.epam.esm.model.Certificate;
+import com.epam.esm.model.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchResponseCacheTest {
+    private static final String CONTENT_TYPE = "application/hal+json";
+    private static final byte[] BODY = {1, 2, 3};
+
+    @Test
+    public void get_shouldReturnSavedResponse() {
+        SearchResponseCache cache = new SearchResponseCache(true, 10000, 10);
+        cache.put("music", parameters("tagName", "music"), CONTENT_TYPE, BODY, cache.getGeneration());
+
+        assertArrayEquals(BODY, cache.get("music").get().getBody());
+    }
+
+    @Test
+    public void get_shouldReturnEmptyOptionalIfResponseIsExpired() {
+        SearchResponseCache cache = new SearchResponseCache(true, 0, 10);
+        cache.put("music", parameters("tagName", "music"), CONTENT_TYPE, BODY, cache.getGeneration());
+
+        assertFalse(cache.get("music").isPresent());
+    }
+
+    @Test
+    public void put_shouldNotSaveResponseRenderedBeforeCertificateChange() {
+        SearchResponseCache cache = new SearchResponseCache(true, 10000, 10);
+        long generation = cache.getGeneration();
+        cache.invalidate(SearchedCertificate.of(certificate("name", "description", "art")));
+        cache.put("music", parameters("tagName", "music"), CONTENT_TYPE, BODY, generation);
+
+        assertFalse(cache.get("music").isPresent());
+    }
+
+    @Test
+    public void put_shouldKeepOtherResponsesWhenCacheIsFull() {
+        SearchResponseCache cache = new SearchResponseCache(true, 10000, 10);
+        for (int i = 0; i < 15; i++) {
+            cache.put("art" + i, parameters("tagName", "art"), CONTENT_TYPE, BODY, cache.getGeneration());
+        }
+
+        long cachedResponses = IntStream.range(0, 15).filter(i -> cache.get("art" + i).isPresent()).count();
+
+        assertEquals(10, cachedResponses);
+    }
+
+    @Test
+    public void invalidate_shouldRemoveOnlyResponsesThatCouldContainCertificate() {
+        SearchResponseCache cache = new SearchResponseCache(true, 10000, 10);
+        cache.put("music", parameters("tagName", "Music,spotify"), CONTENT_TYPE, BODY, cache.getGeneration());
+        cache.put("art", parameters("tagName", "art"), CONTENT_TYPE, BODY, cache.getGeneration());
+        cache.put("name", parameters("partOfName", "free"), CONTENT_TYPE, BODY, cache.getGeneration());
+
+        cache.invalidate(SearchedCertificate.of(certificate("Free music", "listening", "music", "spotify")));
+
+        assertFalse(cache.get("music").isPresent());
+        assertTrue(cache.get("art").isPresent());
+        assertFalse(cache.get("name").isPresent());
+    }
+
+    @Test
+    public void onCertificatesChanged_shouldRemoveResponsesThatCouldContainChangedCertificate() {
+        SearchResponseCache cache = new SearchResponseCache(true, 10000, 10);
+        cache.put("music", parameters("tagName", "music"), CONTENT_TYPE, BODY, cache.getGeneration());
+        cache.put("art", parameters("tagName", "art"), CONTENT_TYPE, BODY, cache.getGeneration());
+
+        cache.onCertificatesChanged(CertificatesChangedEvent.of(SearchedCertificate.of(certificate("name", "description", "music"))));
+
+        assertFalse(cache.get("music").isPresent());
+        assertTrue(cache.get("art").isPresent());
+    }
+
+    @Test
+    public void onCertificatesChanged_shouldRemoveAllResponsesIfAllCertificatesAreChanged() {
+        SearchResponseCache cache = new SearchResponseCache(true, 10000, 10);
+        cache.put("music", parameters("tagName", "music"), CONTENT_TYPE, BODY, cache.getGeneration());
+        cache.put("name", parameters("partOfName", "free"), CONTENT_TYPE, BODY, cache.getGeneration());
+
+        cache.onCertificatesChanged(CertificatesChangedEvent.ofAll());
+
+        assertFalse(cache.get("music").isPresent());
+        assertFalse(cache.get("name").isPresent());
+    }
+
+    @Test
+    public void put_shouldNotSaveResponseIfCacheIsDisabled() {
+        SearchResponseCache cache = new SearchResponseCache(false, 10000, 10);
+        cache.put("music", parameters("tagName", "music"), CONTENT_TYPE, BODY, cache.getGeneration());
+
+        assertFalse(cache.get("music").isPresent());
+    }
+
+    private Map<String, String> parameters(String key, String value) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put(key, value);
+        parameters.put("sortByName", "asc");
+        return parameters;
+    }
+
+    private Certificate certificate(String name, String description, String... tagNames) {
+        Certificate certificate = new Certificate(name, description, 10.0, 10);
+        for (String tagName : tagNames) {
+            certificate.getTags().add(new Tag(tagName));
+        }
+        return certificate;
+    }
+}